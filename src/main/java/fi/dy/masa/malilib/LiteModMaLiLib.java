@@ -56,6 +56,6 @@ public class LiteModMaLiLib implements Configurable, LiteMod, InitCompleteListen
     @Override
     public void onShutDown()
     {
-        ((ConfigManagerImpl) Registry.CONFIG_MANAGER).saveIfDirty();
+        ((ConfigManagerImpl) Registry.CONFIG_MANAGER).saveIfDirtyAndFlush();
     }
 }
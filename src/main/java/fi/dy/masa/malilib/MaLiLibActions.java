@@ -2,6 +2,7 @@ package fi.dy.masa.malilib;
 
 import fi.dy.masa.malilib.action.Action;
 import fi.dy.masa.malilib.action.ActionUtils;
+import fi.dy.masa.malilib.action.MacroExecutor;
 import fi.dy.masa.malilib.action.NamedAction;
 import fi.dy.masa.malilib.action.ParameterizedAction;
 import fi.dy.masa.malilib.action.UtilityActions;
@@ -16,6 +17,7 @@ import fi.dy.masa.malilib.overlay.message.MessageUtils;
 
 public class MaLiLibActions
 {
+    public static final NamedAction CANCEL_MACROS                   = register("cancelMacros", MacroExecutor::cancelAllAction);
     public static final NamedAction OPEN_ACTION_PROMPT_SCREEN       = register("openActionPromptScreen", ActionPromptScreen::openActionPromptScreen);
     public static final NamedAction OPEN_CONFIG_SCREEN              = register("openConfigScreen", MaLiLibConfigScreen::open);
     public static final NamedAction SCROLL_VALUE_ADJUST_DECREASE    = register("scrollValueAdjustDecrease", AdjustableValueHotkeyCallback::scrollAdjustDecrease);
@@ -27,6 +29,7 @@ public class MaLiLibActions
         register("addToast", MessageUtils::addToastAction);
         register("createActionWidgetScreen", ActionWidgetScreen::openCreateActionWidgetScreen);
         register("loadAllConfigsFromFile", ConfigUtils::loadAllConfigsFromFileAction);
+        register("macroDelay", MacroExecutor::delayAction);
         register("openActionWidgetScreen", ActionWidgetScreen::openActionWidgetScreen);
         register("openCustomIconsListScreen", CustomIconListScreen::openCustomIconListScreenAction);
         register("openMessageRedirectsListScreen", MessageRedirectListScreen::openMessageRedirectListScreenAction);
@@ -11,6 +11,7 @@ public class MaLiLibConfigInit
 {
     protected static void init()
     {
+        MaLiLibConfigs.Hotkeys.CANCEL_MACROS.createCallbackForAction(MaLiLibActions.CANCEL_MACROS);
         MaLiLibConfigs.Hotkeys.OPEN_ACTION_PROMPT_SCREEN.createCallbackForAction(MaLiLibActions.OPEN_ACTION_PROMPT_SCREEN);
         MaLiLibConfigs.Hotkeys.OPEN_CONFIG_SCREEN.createCallbackForAction(MaLiLibActions.OPEN_CONFIG_SCREEN);
         MaLiLibConfigs.Hotkeys.SCROLL_VALUE_ADJUST_DECREASE.createCallbackForAction(AdjustableValueHotkeyCallback::scrollAdjustDecrease);
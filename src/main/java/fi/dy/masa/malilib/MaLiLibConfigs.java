@@ -34,18 +34,25 @@ public class MaLiLibConfigs
         public static final BooleanConfig ACTION_PROMPT_SEARCH_DISPLAY_NAME     = new BooleanConfig("actionPromptSearchDisplayName", false);
         public static final BooleanConfig CONFIG_BACKUP_ANTI_DUPLICATE          = new BooleanConfig("configBackupAntiDuplicate", true);
         public static final IntegerConfig CONFIG_BACKUP_COUNT                   = new IntegerConfig("configBackupCount", 20, 0, 200);
+        public static final BooleanConfig CONFIG_SAVE_IN_BACKGROUND             = new BooleanConfig("configSaveInBackground", true);
+        public static final BooleanConfig CONFIG_SNAPSHOT_LOADING               = new BooleanConfig("configSnapshotLoading", true);
         public static final BooleanConfig CONFIG_WIDGET_BACKGROUND              = new BooleanConfig("configWidgetBackground", true);
         public static final IntegerConfig CUSTOM_HOTBAR_MESSAGE_LIMIT           = new IntegerConfig("customHotbarMessageLimit", 3, 1, 16);
         public static final IntegerConfig CUSTOM_SCREEN_SCALE                   = new IntegerConfig("customScreenScale", 2, 0, 8);
         public static final StringConfig  DATA_DUMP_CSV_DELIMITER               = new StringConfig( "dataDumpCsvDelimiter", ",");
         public static final BooleanConfig DROP_DOWN_SEARCH_TIP                  = new BooleanConfig("dropDownSearchTip", true);
         public static final BooleanConfig FILE_BROWSER_SHOW_HIDDEN_FILES        = new BooleanConfig("fileBrowserShowHiddenFiles", false);
+        public static final BooleanConfig GUI_BATCH_RENDERING                   = new BooleanConfig("guiBatchRendering", false);
         public static final BooleanConfig HIDE_ALL_COORDINATES                  = new BooleanConfig("hideAllCoordinates", false);
         public static final ColorConfig   HOVERED_LIST_ENTRY_COLOR              = new ColorConfig(  "hoveredListEntryColor", "#C0404040");
         public static final IntegerConfig HOVER_TEXT_MAX_WIDTH                  = new IntegerConfig("hoverTextMaxWidth", 310, 16, 4096);
+        public static final BooleanConfig INFO_OVERLAY_EVENT_UPDATES            = new BooleanConfig("infoOverlayEventUpdates", true);
+        public static final BooleanConfig INFO_OVERLAY_RENDER_CACHE             = new BooleanConfig("infoOverlayRenderCache", false);
         public static final BooleanConfig KEYBIND_DISPLAY_CALLBACK_ONLY         = new BooleanConfig("keybindDisplayCallbackOnly", true);
         public static final BooleanConfig KEYBIND_DISPLAY_CANCEL_ONLY           = new BooleanConfig("keybindDisplayCancelOnly", true);
         public static final IntegerConfig KEYBIND_DISPLAY_DURATION              = new IntegerConfig("keybindDisplayDuration", 5000, 0, 120000);
+        public static final BooleanConfig LIST_WIDGET_RECYCLING                 = new BooleanConfig("listWidgetRecycling", true);
+        public static final IntegerConfig MACRO_TICK_TIME_BUDGET                = new IntegerConfig("macroTickTimeBudget", 10, 1, 1000);
         public static final IntegerConfig MESSAGE_FADE_OUT_TIME                 = new IntegerConfig("messageFadeOutTime", 500, 0, 10000);
         public static final BooleanConfig OPTION_LIST_CONFIG_USE_DROPDOWN       = new BooleanConfig("optionListConfigUseDropdown", false);
         public static final BooleanConfig REMEMBER_CONFIG_TAB_SCROLL_POSITIONS  = new BooleanConfig("rememberConfigTabScrollPositions", true);
@@ -55,6 +62,7 @@ public class MaLiLibConfigs
         public static final BooleanConfig SHOW_INTERNAL_CONFIG_NAME             = new BooleanConfig("showInternalConfigName", false);
         public static final BooleanConfig SORT_CONFIGS_BY_NAME                  = new BooleanConfig("sortConfigsByName", false);
         public static final BooleanConfig SORT_EXTENSION_MOD_OPTIONS            = new BooleanConfig("sortExtensionModOptions", false);
+        public static final BooleanConfig TEXT_LAYOUT_CACHE                     = new BooleanConfig("textLayoutCache", true);
 
         public static final ImmutableList<ConfigOption<?>> OPTIONS = ImmutableList.of(
                 ACTION_PROMPT_FUZZY_SEARCH,
@@ -62,6 +70,8 @@ public class MaLiLibConfigs
                 ACTION_PROMPT_SEARCH_DISPLAY_NAME,
                 CONFIG_BACKUP_ANTI_DUPLICATE,
                 CONFIG_BACKUP_COUNT,
+                CONFIG_SAVE_IN_BACKGROUND,
+                CONFIG_SNAPSHOT_LOADING,
                 CONFIG_WIDGET_BACKGROUND,
                 CONFIG_SEARCH_DEFAULT_SCOPE,
                 CUSTOM_HOTBAR_MESSAGE_LIMIT,
@@ -70,13 +80,18 @@ public class MaLiLibConfigs
                 DEFAULT_TOGGLE_MESSAGE_OUTPUT,
                 DROP_DOWN_SEARCH_TIP,
                 FILE_BROWSER_SHOW_HIDDEN_FILES,
+                GUI_BATCH_RENDERING,
                 HIDE_ALL_COORDINATES,
                 HOVER_TEXT_MAX_WIDTH,
                 HOVERED_LIST_ENTRY_COLOR,
+                INFO_OVERLAY_EVENT_UPDATES,
+                INFO_OVERLAY_RENDER_CACHE,
                 KEYBIND_DISPLAY,
                 KEYBIND_DISPLAY_CALLBACK_ONLY,
                 KEYBIND_DISPLAY_CANCEL_ONLY,
                 KEYBIND_DISPLAY_DURATION,
+                LIST_WIDGET_RECYCLING,
+                MACRO_TICK_TIME_BUDGET,
                 MESSAGE_FADE_OUT_TIME,
                 OPTION_LIST_CONFIG_USE_DROPDOWN,
                 REMEMBER_CONFIG_TAB_SCROLL_POSITIONS,
@@ -85,7 +100,8 @@ public class MaLiLibConfigs
                 SERVER_MESSAGES,
                 SHOW_INTERNAL_CONFIG_NAME,
                 SORT_CONFIGS_BY_NAME,
-                SORT_EXTENSION_MOD_OPTIONS
+                SORT_EXTENSION_MOD_OPTIONS,
+                TEXT_LAYOUT_CACHE
         );
     }
 
@@ -93,6 +109,7 @@ public class MaLiLibConfigs
     {
         public static final KeyBindSettings SCROLL_ADJUST = KeyBindSettings.builder().extra().cancel(CancelCondition.ON_SUCCESS).noOutput().build();
 
+        public static final HotkeyConfig CANCEL_MACROS                          = new HotkeyConfig("cancelMacros", "");
         public static final HotkeyConfig IGNORED_KEYS                           = new HotkeyConfig("ignoredKeys", "");
         public static final HotkeyConfig OPEN_ACTION_PROMPT_SCREEN              = new HotkeyConfig("openActionPromptScreen", "");
         public static final HotkeyConfig OPEN_CONFIG_SCREEN                     = new HotkeyConfig("openConfigScreen", "A,C");
@@ -101,6 +118,7 @@ public class MaLiLibConfigs
         public static final HotkeyConfig SCROLL_VALUE_ADJUST_MODIFIER           = new HotkeyConfig("scrollValueAdjustModifier", "", KeyBindSettings.INGAME_MODIFIER_EMPTY);
 
         public static final ImmutableList<HotkeyConfig> FUNCTIONAL_HOTKEYS = ImmutableList.of(
+                CANCEL_MACROS,
                 OPEN_ACTION_PROMPT_SCREEN,
                 OPEN_CONFIG_SCREEN,
                 SCROLL_VALUE_ADJUST_DECREASE,
@@ -118,6 +136,7 @@ public class MaLiLibConfigs
         public static final BooleanConfig GUI_DEBUG_ALL             = new BooleanConfig("guiDebugAll", true);
         public static final BooleanConfig GUI_DEBUG_INFO_ALWAYS     = new BooleanConfig("guiDebugInfoAlways", false);
         public static final HotkeyConfig  GUI_DEBUG_KEY             = new HotkeyConfig( "guiDebugKey", "L_ALT", KeyBindSettings.GUI_MODIFIER);
+        public static final BooleanConfig GUI_DRAW_CALL_COUNTER     = new BooleanConfig("guiDrawCallCounter", false);
         public static final BooleanConfig INFO_OVERLAY_DEBUG        = new BooleanConfig("infoOverlayDebug", false);
         public static final BooleanConfig KEYBIND_DEBUG             = new BooleanConfig("keybindDebug", false);
         public static final BooleanConfig KEYBIND_DEBUG_ACTIONBAR   = new BooleanConfig("keybindDebugActionBar", false);
@@ -131,6 +150,7 @@ public class MaLiLibConfigs
                 GUI_DEBUG_ALL,
                 GUI_DEBUG_INFO_ALWAYS,
                 GUI_DEBUG_KEY,
+                GUI_DRAW_CALL_COUNTER,
                 INFO_OVERLAY_DEBUG,
                 KEYBIND_DEBUG,
                 KEYBIND_DEBUG_ACTIONBAR,
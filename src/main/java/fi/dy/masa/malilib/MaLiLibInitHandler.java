@@ -23,6 +23,7 @@ public class MaLiLibInitHandler implements InitializationHandler
         Registry.RENDER_EVENT_DISPATCHER.registerGameOverlayRenderer(Registry.INFO_OVERLAY);
         Registry.RENDER_EVENT_DISPATCHER.registerScreenPostRenderer(Registry.INFO_OVERLAY);
         Registry.TICK_EVENT_DISPATCHER.registerClientTickHandler(Registry.INFO_OVERLAY);
+        Registry.TICK_EVENT_DISPATCHER.registerClientTickHandler(Registry.MACRO_EXECUTOR);
 
         MaLiLibConfigInit.init();
         MaLiLibActions.init();
@@ -1,12 +1,14 @@
 package fi.dy.masa.malilib.action;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Consumer;
 import javax.annotation.Nullable;
 import com.google.common.collect.ImmutableList;
 import com.google.gson.JsonObject;
 import fi.dy.masa.malilib.input.ActionResult;
+import fi.dy.masa.malilib.registry.Registry;
 import fi.dy.masa.malilib.render.text.StyledTextLine;
 import fi.dy.masa.malilib.util.StringUtils;
 import fi.dy.masa.malilib.util.data.ModInfo;
@@ -17,6 +19,11 @@ public class MacroAction extends NamedAction
     protected static final ModInfo MACRO_MOD_INFO = getMacroModInfo();
 
     protected ImmutableList<NamedAction> actionList;
+    protected long[] lastStepNanos = new long[0];
+    protected long lastTotalNanos;
+    protected int lastExecutionTicks;
+    protected int executionCount;
+    protected boolean lastExecutionCancelled;
 
     public MacroAction(String name, ImmutableList<NamedAction> actionList)
     {
@@ -45,12 +52,38 @@ public class MacroAction extends NamedAction
     @Override
     public ActionResult execute(ActionContext ctx)
     {
-        for (NamedAction action : this.actionList)
-        {
-            action.execute(ctx);
-        }
+        return Registry.MACRO_EXECUTOR.execute(this, ctx);
+    }
+
+    /**
+     * Stores the timing statistics of the latest execution of this macro.
+     * Called by the {@link MacroExecutor} when the execution ends.
+     */
+    public void setExecutionStatistics(long[] stepNanos, long totalNanos, int ticks, boolean cancelled)
+    {
+        this.lastStepNanos = stepNanos;
+        this.lastTotalNanos = totalNanos;
+        this.lastExecutionTicks = ticks;
+        this.lastExecutionCancelled = cancelled;
+        ++this.executionCount;
+    }
+
+    public int getExecutionCount()
+    {
+        return this.executionCount;
+    }
 
-        return ActionResult.SUCCESS;
+    /**
+     * @return the execution times of the top level steps of the latest execution, in nanoseconds
+     */
+    public long[] getLastStepNanos()
+    {
+        return this.lastStepNanos;
+    }
+
+    public long getLastTotalNanos()
+    {
+        return this.lastTotalNanos;
     }
 
     @Override
@@ -74,10 +107,44 @@ public class MacroAction extends NamedAction
         }
 
         getContainedActionsTooltip(this.actionList, lines::add, 8);
+        this.getExecutionStatisticsTooltip(lines::add, 8);
 
         return lines;
     }
 
+    public void getExecutionStatisticsTooltip(Consumer<StyledTextLine> consumer, int maxEntriesShown)
+    {
+        if (this.executionCount <= 0)
+        {
+            return;
+        }
+
+        String titleKey = this.lastExecutionCancelled ? "malilib.hover.action.macro_stats.last_run_cancelled" :
+                                                        "malilib.hover.action.macro_stats.last_run";
+        consumer.accept(StyledTextLine.translate(titleKey, String.format("%.2f", this.lastTotalNanos / 1000000.0),
+                                                 this.lastExecutionTicks, this.executionCount));
+
+        // Find the slowest steps
+        int size = Math.min(this.lastStepNanos.length, this.actionList.size());
+        int count = Math.min(size, maxEntriesShown);
+        Integer[] indices = new Integer[size];
+
+        for (int i = 0; i < size; ++i)
+        {
+            indices[i] = i;
+        }
+
+        Arrays.sort(indices, (i1, i2) -> Long.compare(this.lastStepNanos[i2], this.lastStepNanos[i1]));
+
+        for (int i = 0; i < count; ++i)
+        {
+            int step = indices[i];
+            consumer.accept(StyledTextLine.translate("malilib.hover.action.macro_stats.step", step + 1,
+                                                     this.actionList.get(step).getName(),
+                                                     String.format("%.2f", this.lastStepNanos[step] / 1000000.0)));
+        }
+    }
+
     public static void getContainedActionsTooltip(List<NamedAction> actions,
                                                   Consumer<StyledTextLine> consumer,
                                                   int maxEntriesShown)
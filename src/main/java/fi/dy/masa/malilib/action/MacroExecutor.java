@@ -0,0 +1,347 @@
+package fi.dy.masa.malilib.action;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+import net.minecraft.client.Minecraft;
+import fi.dy.masa.malilib.MaLiLib;
+import fi.dy.masa.malilib.MaLiLibConfigs;
+import fi.dy.masa.malilib.event.ClientTickHandler;
+import fi.dy.masa.malilib.input.ActionResult;
+import fi.dy.masa.malilib.overlay.message.MessageDispatcher;
+import fi.dy.masa.malilib.registry.Registry;
+
+/**
+ * Runs the steps of macros spread over multiple client ticks.
+ * On each tick the steps of the running macros are executed until the per-tick time budget
+ * (the Generic -> macroTickTimeBudget option) runs out, and then the rest continue on the next tick.
+ * A macro can also contain explicit delay steps (the "macroDelay" action), which pause
+ * the execution of that macro for the given number of ticks.
+ * <br><br>
+ * When a macro is executed, its first steps are run immediately, so short macros
+ * without any delay steps still complete within the same call, like before.
+ * <br><br>
+ * The execution time of each step is recorded, and stored in the macro when its execution ends.
+ */
+public class MacroExecutor implements ClientTickHandler
+{
+    public static final int MAX_NESTING_DEPTH = 16;
+
+    protected final List<MacroExecution> runningExecutions = new ArrayList<>();
+    @Nullable protected MacroExecution currentExecution;
+    protected int statisticsVersion;
+
+    /**
+     * Starts executing the given macro. If this is called while running a step of another macro
+     * (ie. the macro is contained in another macro), then the steps of this macro
+     * get run as part of the outer macro's execution.
+     */
+    public ActionResult execute(MacroAction macro, ActionContext ctx)
+    {
+        if (this.currentExecution != null)
+        {
+            return this.currentExecution.pushFrame(macro.getActionList()) ? ActionResult.SUCCESS : ActionResult.FAIL;
+        }
+
+        MacroExecution execution = new MacroExecution(macro, ctx);
+
+        // The client tick handlers only run while in a world, so run everything at once otherwise
+        if (ctx.getWorld() == null || ctx.getPlayer() == null)
+        {
+            this.runSteps(execution, Long.MAX_VALUE, false);
+        }
+        else
+        {
+            this.runSteps(execution, this.getTickDeadline(), true);
+        }
+
+        if (execution.cancelled || execution.isFinished())
+        {
+            this.onExecutionEnded(execution, execution.cancelled);
+        }
+        else
+        {
+            this.runningExecutions.add(execution);
+        }
+
+        return execution.failed ? ActionResult.FAIL : ActionResult.SUCCESS;
+    }
+
+    @Override
+    public void onClientTick(Minecraft mc)
+    {
+        if (this.runningExecutions.isEmpty())
+        {
+            return;
+        }
+
+        long deadline = this.getTickDeadline();
+
+        // Index based loop, because new executions can get added by the running steps
+        for (int i = 0; i < this.runningExecutions.size(); ++i)
+        {
+            MacroExecution execution = this.runningExecutions.get(i);
+
+            if (execution.cancelled || execution.isFinished())
+            {
+                continue;
+            }
+
+            ++execution.ticks;
+
+            if (execution.delayTicks > 0 && --execution.delayTicks > 0)
+            {
+                continue;
+            }
+
+            this.runSteps(execution, deadline, true);
+        }
+
+        this.runningExecutions.removeIf(this::removeIfEnded);
+    }
+
+    /**
+     * Runs steps of the given execution until it finishes, hits a delay step or the deadline passes.
+     * At least one step is always run, so that the execution makes progress even if the budget is exhausted.
+     */
+    protected void runSteps(MacroExecution execution, long deadline, boolean allowDelays)
+    {
+        MacroExecution previous = this.currentExecution;
+        this.currentExecution = execution;
+
+        try
+        {
+            do
+            {
+                execution.runNextStep();
+
+                if (allowDelays == false)
+                {
+                    execution.delayTicks = 0;
+                }
+            }
+            while (execution.cancelled == false &&
+                   execution.isFinished() == false &&
+                   execution.delayTicks <= 0 &&
+                   System.nanoTime() < deadline);
+        }
+        catch (Exception e)
+        {
+            MaLiLib.LOGGER.warn("Exception while executing the macro '{}'", execution.macro.getName(), e);
+            execution.cancelled = true;
+            execution.failed = true;
+        }
+        finally
+        {
+            this.currentExecution = previous;
+        }
+    }
+
+    protected long getTickDeadline()
+    {
+        return System.nanoTime() + MaLiLibConfigs.Generic.MACRO_TICK_TIME_BUDGET.getIntegerValue() * 1000000L;
+    }
+
+    protected boolean removeIfEnded(MacroExecution execution)
+    {
+        if (execution.cancelled || execution.isFinished())
+        {
+            this.onExecutionEnded(execution, execution.cancelled);
+            return true;
+        }
+
+        return false;
+    }
+
+    protected void onExecutionEnded(MacroExecution execution, boolean cancelled)
+    {
+        execution.macro.setExecutionStatistics(execution.stepNanos, execution.totalNanos, execution.ticks, cancelled);
+        ++this.statisticsVersion;
+    }
+
+    /**
+     * Pauses the macro that is currently being executed, for the given number of ticks
+     * @return true if called from within a macro execution
+     */
+    public boolean delayCurrentMacro(int ticks)
+    {
+        if (this.currentExecution != null)
+        {
+            this.currentExecution.delayTicks = Math.max(ticks, 1);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Cancels all the currently running macros
+     * @return the number of cancelled macros
+     */
+    public int cancelAll()
+    {
+        int count = 0;
+
+        for (MacroExecution execution : this.runningExecutions)
+        {
+            if (execution.cancelled == false && execution.isFinished() == false)
+            {
+                execution.cancelled = true;
+                ++count;
+            }
+        }
+
+        // Cancelled from within a macro, which may not have been added to the list yet
+        if (this.currentExecution != null && this.currentExecution.cancelled == false)
+        {
+            this.currentExecution.cancelled = true;
+            ++count;
+        }
+
+        return count;
+    }
+
+    /**
+     * Cancels and removes all the running macros. Called when exiting a world,
+     * so that no macro steps get run in the next world.
+     */
+    public void clear()
+    {
+        this.cancelAll();
+
+        for (MacroExecution execution : this.runningExecutions)
+        {
+            this.onExecutionEnded(execution, execution.cancelled);
+        }
+
+        this.runningExecutions.clear();
+    }
+
+    public boolean hasRunningMacros()
+    {
+        return this.runningExecutions.isEmpty() == false;
+    }
+
+    /**
+     * @return a counter that gets incremented every time the execution statistics of any macro change
+     */
+    public int getStatisticsVersion()
+    {
+        return this.statisticsVersion;
+    }
+
+    public static ActionResult delayAction(ActionContext ctx, String arg)
+    {
+        try
+        {
+            int ticks = Integer.parseInt(arg.trim());
+
+            if (ticks > 0 && Registry.MACRO_EXECUTOR.delayCurrentMacro(ticks))
+            {
+                return ActionResult.SUCCESS;
+            }
+        }
+        catch (NumberFormatException ignore) {}
+
+        return ActionResult.FAIL;
+    }
+
+    public static ActionResult cancelAllAction(ActionContext ctx)
+    {
+        int count = Registry.MACRO_EXECUTOR.cancelAll();
+
+        if (count > 0)
+        {
+            MessageDispatcher.warning("malilib.message.info.macros_cancelled", count);
+            return ActionResult.SUCCESS;
+        }
+
+        return ActionResult.PASS;
+    }
+
+    protected static class MacroExecution
+    {
+        protected final MacroAction macro;
+        protected final ActionContext ctx;
+        protected final List<Frame> frames = new ArrayList<>();
+        protected final long[] stepNanos;
+        protected long totalNanos;
+        protected int delayTicks;
+        protected int ticks;
+        protected boolean cancelled;
+        protected boolean failed;
+
+        protected MacroExecution(MacroAction macro, ActionContext ctx)
+        {
+            this.macro = macro;
+            this.ctx = ctx;
+            this.stepNanos = new long[macro.getActionList().size()];
+            this.frames.add(new Frame(macro.getActionList()));
+        }
+
+        protected boolean isFinished()
+        {
+            return this.frames.isEmpty();
+        }
+
+        protected boolean pushFrame(List<NamedAction> actions)
+        {
+            if (this.frames.size() >= MAX_NESTING_DEPTH)
+            {
+                MaLiLib.LOGGER.warn("Macro nesting depth limit reached in the macro '{}'", this.macro.getName());
+                return false;
+            }
+
+            this.frames.add(new Frame(actions));
+            return true;
+        }
+
+        protected void runNextStep()
+        {
+            Frame frame = this.frames.get(this.frames.size() - 1);
+
+            if (frame.isFinished())
+            {
+                this.frames.remove(this.frames.size() - 1);
+                return;
+            }
+
+            // The time of the steps of nested macros is counted towards the top level step that contains them
+            int topLevelStep = this.frames.size() == 1 ? frame.index : this.frames.get(0).index - 1;
+            NamedAction action = frame.actions.get(frame.index++);
+            long start = System.nanoTime();
+
+            action.execute(this.ctx);
+
+            long duration = System.nanoTime() - start;
+            this.totalNanos += duration;
+
+            if (topLevelStep < this.stepNanos.length)
+            {
+                this.stepNanos[topLevelStep] += duration;
+            }
+
+            // Pop all the finished frames right away, so that the finished state is up to date
+            while (this.frames.isEmpty() == false && this.frames.get(this.frames.size() - 1).isFinished())
+            {
+                this.frames.remove(this.frames.size() - 1);
+            }
+        }
+    }
+
+    protected static class Frame
+    {
+        protected final List<NamedAction> actions;
+        protected int index;
+
+        protected Frame(List<NamedAction> actions)
+        {
+            this.actions = actions;
+        }
+
+        protected boolean isFinished()
+        {
+            return this.index >= this.actions.size();
+        }
+    }
+}
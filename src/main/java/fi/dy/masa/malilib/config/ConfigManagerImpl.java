@@ -1,5 +1,6 @@
 package fi.dy.masa.malilib.config;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
@@ -7,6 +8,10 @@ import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
 import fi.dy.masa.malilib.MaLiLib;
+import fi.dy.masa.malilib.MaLiLibConfigs;
+import fi.dy.masa.malilib.MaLiLibReference;
+import fi.dy.masa.malilib.config.util.ConfigSnapshotCache;
+import fi.dy.masa.malilib.util.BackgroundFileWriter;
 import fi.dy.masa.malilib.util.data.ModInfo;
 
 public class ConfigManagerImpl implements ConfigManager
@@ -71,11 +76,96 @@ public class ConfigManagerImpl implements ConfigManager
      */
     public void loadAllConfigs()
     {
+        // Make sure that any pending background saves have been written before reading the files
+        BackgroundFileWriter.INSTANCE.flush();
+
+        // The MaLiLib configs are loaded first, because they contain the active config profile,
+        // which determines where the configs of the other mods are loaded from.
+        ModConfig malilibHandler = this.configHandlers.get(MaLiLibReference.MOD_INFO);
+
+        if (MaLiLibConfigs.Generic.CONFIG_SNAPSHOT_LOADING.getBooleanValue() == false)
+        {
+            if (malilibHandler != null)
+            {
+                MaLiLib.debugLog("Loading configs for mod {}", malilibHandler.getModInfo().getModId());
+                malilibHandler.loadFromFile();
+            }
+
+            for (ModConfig handler : this.configHandlers.values())
+            {
+                if (handler != malilibHandler)
+                {
+                    MaLiLib.debugLog("Loading configs for mod {}", handler.getModInfo().getModId());
+                    handler.loadFromFile();
+                }
+            }
+
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<Runnable> loadTasks = new ArrayList<>();
+        List<String> fileNames = new ArrayList<>();
+
+        List<ModConfig> otherHandlers = new ArrayList<>();
+        List<File> otherFiles = new ArrayList<>();
+
+        if (malilibHandler != null)
+        {
+            malilibHandler.prepareLoadFromFile().run();
+            fileNames.add(malilibHandler.getConfigFileName());
+        }
+
+        for (ModConfig handler : this.configHandlers.values())
+        {
+            if (handler == malilibHandler)
+            {
+                continue;
+            }
+
+            otherHandlers.add(handler);
+            fileNames.add(handler.getConfigFileName());
+
+            if (handler instanceof JsonModConfig && ((JsonModConfig) handler).supportsSnapshotLoading())
+            {
+                otherFiles.add(new File(handler.getConfigDirectory(), handler.getConfigFileName()));
+            }
+        }
+
+        // Read any files that are not already preloaded (such as during the game startup) in parallel
+        ConfigSnapshotCache.INSTANCE.preloadFilesInParallel(otherFiles);
+
+        // First check all the configs for changes, and only then apply all the changes in one go
+        for (ModConfig handler : otherHandlers)
+        {
+            loadTasks.add(handler.prepareLoadFromFile());
+        }
+
+        long prepareNanos = System.nanoTime() - start;
+
+        loadTasks.forEach(Runnable::run);
+
+        MaLiLib.debugLog("Loaded configs for {} mods in {} ms ({} ms preparing), {} changed configs",
+                         fileNames.size(), String.format("%.2f", (System.nanoTime() - start) / 1000000.0),
+                         String.format("%.2f", prepareNanos / 1000000.0), this.getLastChangedConfigCount());
+
+        // Keep the config files of all the profiles ready for the next profile switch or reload
+        ConfigSnapshotCache.INSTANCE.preloadAllProfiles(fileNames);
+    }
+
+    protected int getLastChangedConfigCount()
+    {
+        int count = 0;
+
         for (ModConfig handler : this.configHandlers.values())
         {
-            MaLiLib.debugLog("Loading configs for mod {}", handler.getModInfo().getModId());
-            handler.loadFromFile();
+            if (handler instanceof JsonModConfig)
+            {
+                count += ((JsonModConfig) handler).getLastChangedConfigCount();
+            }
         }
+
+        return count;
     }
 
     /**
@@ -103,4 +193,15 @@ public class ConfigManagerImpl implements ConfigManager
 
         return savedSomething;
     }
+
+    /**
+     * NOT PUBLIC API - DO NOT CALL
+     * Saves any dirty configs, and waits for all the pending background writes to finish.
+     * This is meant to be called when the game is shutting down.
+     */
+    public void saveIfDirtyAndFlush()
+    {
+        this.saveIfDirty();
+        BackgroundFileWriter.INSTANCE.flush();
+    }
 }
@@ -1,17 +1,27 @@
 package fi.dy.masa.malilib.config;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BooleanSupplier;
 import javax.annotation.Nullable;
 import com.google.gson.JsonObject;
+import fi.dy.masa.malilib.MaLiLibConfigs;
 import fi.dy.masa.malilib.config.category.ConfigOptionCategory;
+import fi.dy.masa.malilib.config.util.ConfigSnapshot;
+import fi.dy.masa.malilib.config.util.ConfigSnapshotCache;
 import fi.dy.masa.malilib.config.util.JsonConfigUtils;
+import fi.dy.masa.malilib.util.BackgroundFileWriter;
 import fi.dy.masa.malilib.util.BackupUtils;
 import fi.dy.masa.malilib.util.data.ModInfo;
+import fi.dy.masa.malilib.util.data.json.JsonUtils;
 
 public class JsonModConfig extends BaseModConfig
 {
     @Nullable protected ConfigDataUpdater configDataUpdater;
+    @Nullable protected ConfigSnapshot loadedSnapshot;
+    @Nullable protected Boolean snapshotLoadingSupported;
+    protected int lastChangedConfigCount;
 
     public JsonModConfig(ModInfo modInfo,
                          int configVersion,
@@ -58,7 +68,11 @@ public class JsonModConfig extends BaseModConfig
     @Override
     public void loadFromFile(File configFile)
     {
+        // Make sure that any pending background save has been written before reading the file
+        BackgroundFileWriter.INSTANCE.flush();
+
         JsonConfigUtils.loadFromFile(configFile, this.getConfigOptionCategories(), this::updateConfigDataBeforeLoading);
+        this.loadedSnapshot = null;
 
         if (this.configDataUpdater != null)
         {
@@ -67,32 +81,146 @@ public class JsonModConfig extends BaseModConfig
         }
     }
 
+    /**
+     * Prepares loading the configs from the config file via a snapshot of the file data,
+     * which may have already been read and parsed in the background.
+     * Only the configs whose values differ from the current values get loaded by the returned task.
+     */
+    @Override
+    public Runnable prepareLoadFromFile()
+    {
+        if (this.supportsSnapshotLoading() == false)
+        {
+            return super.prepareLoadFromFile();
+        }
+
+        File configFile = new File(this.getConfigDirectory(), this.getConfigFileName());
+        ConfigSnapshot fileSnapshot = ConfigSnapshotCache.INSTANCE.getSnapshot(configFile);
+
+        if (fileSnapshot == null)
+        {
+            // The file exists but couldn't be parsed. Use the regular loading, which resets the configs
+            // to their defaults in that case, so that the values of the previous profile don't stay active.
+            if (configFile.exists() && configFile.isFile() && configFile.canRead())
+            {
+                return super.prepareLoadFromFile();
+            }
+
+            return this::onPostLoad;
+        }
+
+        ConfigSnapshot target = fileSnapshot;
+        this.savedConfigVersion = fileSnapshot.getConfigVersion();
+
+        // The updater may modify the data, so it needs to operate on a copy of the shared snapshot
+        if (this.configDataUpdater != null)
+        {
+            JsonObject root = fileSnapshot.toMutableJson();
+            this.configDataUpdater.updateConfigDataBeforeLoading(root, this.savedConfigVersion);
+            target = ConfigSnapshot.fromJson(root);
+        }
+
+        ConfigSnapshot current = ConfigSnapshot.ofCurrentValues(this, this.loadedSnapshot);
+        List<Runnable> loadTasks = new ArrayList<>();
+        JsonConfigUtils.collectChangedConfigs(target, current, this.getConfigOptionCategories(), loadTasks);
+
+        this.loadedSnapshot = target;
+        this.lastChangedConfigCount = loadTasks.size();
+
+        return () -> {
+            loadTasks.forEach(Runnable::run);
+
+            if (this.configDataUpdater != null)
+            {
+                this.configDataUpdater.updateConfigsAfterLoading(this.getConfigOptionCategories(),
+                                                                 this.savedConfigVersion, this.getConfigVersion());
+            }
+
+            this.onPostLoad();
+        };
+    }
+
+    /**
+     * @return the number of configs that were changed by the last snapshot based load
+     */
+    public int getLastChangedConfigCount()
+    {
+        return this.lastChangedConfigCount;
+    }
+
+    /**
+     * The snapshot based loading is only used if the config loading methods
+     * have not been overridden, as it would otherwise bypass the custom loading code.
+     */
+    protected boolean supportsSnapshotLoading()
+    {
+        if (this.snapshotLoadingSupported == null)
+        {
+            try
+            {
+                Class<?> clazz = this.getClass();
+                this.snapshotLoadingSupported = clazz.getMethod("loadFromFile", File.class).getDeclaringClass() == JsonModConfig.class &&
+                                                clazz.getMethod("loadFromFile").getDeclaringClass() == ModConfig.class;
+            }
+            catch (Exception e)
+            {
+                this.snapshotLoadingSupported = false;
+            }
+        }
+
+        return this.snapshotLoadingSupported;
+    }
+
     @Override
     public boolean saveToFile(File configDirectory, File configFile)
     {
         File backupDirectory = this.getConfigBackupDirectory(configDirectory);
         int currentConfigVersion = this.getConfigVersion();
+        boolean saveInBackground = MaLiLibConfigs.Generic.CONFIG_SAVE_IN_BACKGROUND.getBooleanValue();
 
+        if (saveInBackground == false)
+        {
+            // Don't let an older pending background write overwrite this save
+            BackgroundFileWriter.INSTANCE.flush();
+        }
+
+        // This only happens once after a config version change, so it's just done right away.
+        // Doing it in the write task would risk losing it if the write gets coalesced with a later save.
         if (this.savedConfigVersion != currentConfigVersion)
         {
+            BackgroundFileWriter.INSTANCE.flush();
             BackupUtils.createBackupFileForVersion(configFile, backupDirectory, this.savedConfigVersion);
         }
 
+        // The config values are serialized on the calling thread, and the
+        // write task then only operates on this snapshot of the values
+        JsonObject root = new JsonObject();
+        boolean success = JsonConfigUtils.writeConfigsToObject(root, this.getConfigOptionCategories(), currentConfigVersion);
         int backupCount = this.backupCountSupplier.getAsInt();
+        boolean antiDuplicate = this.antiDuplicateSupplier.getAsBoolean();
+        BooleanSupplier writeTask = () -> writeConfigFile(root, configFile, backupDirectory, backupCount, antiDuplicate);
 
-        if (backupCount > 0)
+        this.savedConfigVersion = currentConfigVersion;
+
+        if (saveInBackground)
         {
-            boolean antiDuplicate = this.antiDuplicateSupplier.getAsBoolean();
-            BackupUtils.createRollingBackup(configFile, backupDirectory, ".bak_", backupCount, antiDuplicate);
+            BackgroundFileWriter.INSTANCE.scheduleWrite(configFile, writeTask);
+            return success;
         }
 
-        boolean success = JsonConfigUtils.saveToFile(configFile, this.getConfigOptionCategories(), currentConfigVersion);
+        return writeTask.getAsBoolean() && success;
+    }
 
-        if (success)
+    protected static boolean writeConfigFile(JsonObject root, File configFile, File backupDirectory,
+                                             int backupCount, boolean antiDuplicate)
+    {
+        if (backupCount > 0)
         {
-            this.savedConfigVersion = currentConfigVersion;
+            BackupUtils.createRollingBackup(configFile, backupDirectory, ".bak_", backupCount, antiDuplicate);
         }
 
+        boolean success = JsonUtils.writeJsonToFile(root, configFile);
+        ConfigSnapshotCache.INSTANCE.invalidate(configFile);
         return success;
     }
 
@@ -110,6 +110,17 @@ public interface ModConfig
         this.onPostLoad();
     }
 
+    /**
+     * Prepares (re-)loading all the configs from file, so that the loaded values
+     * of all the mod configs can then be applied in one batch.
+     * The default implementation does all the loading in the returned task.
+     * @return the task that applies the loaded config values
+     */
+    default Runnable prepareLoadFromFile()
+    {
+        return this::loadFromFile;
+    }
+
     /**
      * Called after the {@link #loadFromFile(File)} method has loaded the configs, to allow
      * mods to do some custom setup with the new config options.
@@ -111,6 +111,12 @@ public abstract class BaseConfigOption<T> extends BaseConfig implements ConfigOp
         this.valueChangeListeners.add(listener);
     }
 
+    @Override
+    public void removeValueChangeListener(EventListener listener)
+    {
+        this.valueChangeListeners.remove(listener);
+    }
+
     public void onValueChanged(T newValue, T oldValue)
     {
         if (this.valueChangeCallback != null)
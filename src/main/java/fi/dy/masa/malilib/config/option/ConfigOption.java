@@ -92,6 +92,12 @@ public interface ConfigOption<T> extends ConfigInfo
      */
     void addValueChangeListener(EventListener listener);
 
+    /**
+     * Removes a previously added value change listener
+     * @param listener the listener to remove from the list
+     */
+    void removeValueChangeListener(EventListener listener);
+
     /**
      * Whether or not this config is currently locked to its current value,
      * and can not be changed without unlocking.
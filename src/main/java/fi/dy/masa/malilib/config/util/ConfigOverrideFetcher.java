@@ -0,0 +1,298 @@
+package fi.dy.masa.malilib.config.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.apache.commons.io.IOUtils;
+import fi.dy.masa.malilib.MaLiLib;
+import fi.dy.masa.malilib.MaLiLibReference;
+import fi.dy.masa.malilib.util.FileNameUtils;
+import fi.dy.masa.malilib.util.GameUtils;
+import fi.dy.masa.malilib.util.data.json.JsonUtils;
+
+/**
+ * Fetches the server config override pages on a background thread, and caches them on disk per server.
+ * The cached pages are re-validated using conditional requests (ETag and Last-Modified),
+ * so that an unchanged page doesn't need to be downloaded again.
+ * The fetch results are delivered on the client thread, and only if the fetch session
+ * hasn't been cancelled in the meantime (for example by leaving the server).
+ */
+public class ConfigOverrideFetcher
+{
+    public static final int TIMEOUT_MS = 2000;
+    public static final long MAX_FETCH_DURATION_MS = 5000L;
+    public static final int MAX_CONTENT_LENGTH = 1048576;
+
+    @Nullable protected static ExecutorService executor;
+    protected static volatile int session;
+
+    /**
+     * Starts a new fetch session, which also cancels the results of any pending fetches
+     * @return the id of the new session, to be passed to {@link #fetchAsync(String, CachedPage, File, int, Consumer)}
+     */
+    public static int startSession()
+    {
+        return ++session;
+    }
+
+    /**
+     * Cancels the results of any pending fetches. This should be called when leaving the server.
+     */
+    public static void cancelPendingFetches()
+    {
+        ++session;
+    }
+
+    public static boolean isSessionValid(int sessionId)
+    {
+        return session == sessionId;
+    }
+
+    public static File getCacheFile(String serverAddress, String url)
+    {
+        File dir = ConfigUtils.getConfigDirectoryPath().resolve(MaLiLibReference.MOD_ID).resolve("config_override_cache").toFile();
+        String name = FileNameUtils.generateSimpleSafeFileName(serverAddress) + "_" + Integer.toHexString(url.hashCode()) + ".json";
+        return new File(dir, name);
+    }
+
+    /**
+     * @return the cached page from the given file, if it exists and is for the given URL
+     */
+    @Nullable
+    public static CachedPage readCachedPage(File file, String url)
+    {
+        if (file.isFile() == false)
+        {
+            return null;
+        }
+
+        JsonElement el = JsonUtils.parseJsonFile(file);
+
+        if (el != null && el.isJsonObject())
+        {
+            JsonObject obj = el.getAsJsonObject();
+            String content = JsonUtils.getStringOrDefault(obj, "content", null);
+
+            if (content != null && url.equals(JsonUtils.getStringOrDefault(obj, "url", null)))
+            {
+                return new CachedPage(url, content,
+                                      JsonUtils.getStringOrDefault(obj, "etag", null),
+                                      JsonUtils.getStringOrDefault(obj, "last_modified", null));
+            }
+        }
+
+        return null;
+    }
+
+    protected static boolean writeCachedPage(File file, CachedPage page)
+    {
+        JsonObject obj = new JsonObject();
+
+        obj.addProperty("url", page.url);
+
+        if (page.etag != null)
+        {
+            obj.addProperty("etag", page.etag);
+        }
+
+        if (page.lastModified != null)
+        {
+            obj.addProperty("last_modified", page.lastModified);
+        }
+
+        obj.addProperty("content", page.content);
+
+        // This writes to a temporary file first and then moves it over the old file
+        return JsonUtils.writeJsonToFile(obj, file);
+    }
+
+    /**
+     * Fetches the given page on a background thread. If there is a cached version of the page,
+     * then a conditional request is made. A new version of the page is written to the cache file
+     * before the result is delivered to the callback on the client thread.
+     * The callback is not called at all, if the session was cancelled before the fetch finished.
+     */
+    public static void fetchAsync(String url, @Nullable CachedPage cachedPage, File cacheFile,
+                                  int sessionId, Consumer<FetchResult> callback)
+    {
+        getExecutor().execute(() -> {
+            FetchResult result = fetch(url, cachedPage);
+
+            if (result.status == FetchStatus.UPDATED && result.page != null)
+            {
+                writeCachedPage(cacheFile, result.page);
+            }
+
+            GameUtils.scheduleToClientThread(() -> {
+                if (isSessionValid(sessionId))
+                {
+                    callback.accept(result);
+                }
+            });
+        });
+    }
+
+    protected static FetchResult fetch(String pageUrl, @Nullable CachedPage cachedPage)
+    {
+        HttpURLConnection connection = null;
+
+        try
+        {
+            MaLiLib.debugLog("Fetching config overrides from {}", pageUrl);
+            URL url = new URL(pageUrl);
+            connection = (HttpURLConnection) url.openConnection(Proxy.NO_PROXY);
+
+            connection.setConnectTimeout(TIMEOUT_MS);
+            connection.setReadTimeout(TIMEOUT_MS);
+            connection.setUseCaches(false);
+
+            if (cachedPage != null)
+            {
+                if (cachedPage.etag != null)
+                {
+                    connection.setRequestProperty("If-None-Match", cachedPage.etag);
+                }
+
+                if (cachedPage.lastModified != null)
+                {
+                    connection.setRequestProperty("If-Modified-Since", cachedPage.lastModified);
+                }
+            }
+
+            int responseCode = connection.getResponseCode();
+            MaLiLib.debugLog("Config override fetch response code: {}", responseCode);
+
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && cachedPage != null)
+            {
+                return new FetchResult(FetchStatus.NOT_MODIFIED, cachedPage);
+            }
+
+            if (responseCode != HttpURLConnection.HTTP_OK)
+            {
+                return new FetchResult(FetchStatus.FAILED, null);
+            }
+
+            String content = readContent(connection);
+
+            if (content == null)
+            {
+                return new FetchResult(FetchStatus.FAILED, null);
+            }
+
+            CachedPage page = new CachedPage(pageUrl, content,
+                                             connection.getHeaderField("ETag"),
+                                             connection.getHeaderField("Last-Modified"));
+
+            return new FetchResult(FetchStatus.UPDATED, page);
+        }
+        catch (Exception e)
+        {
+            MaLiLib.debugLog("Config override page fetch failed", e);
+        }
+        finally
+        {
+            if (connection != null)
+            {
+                connection.disconnect();
+            }
+        }
+
+        return new FetchResult(FetchStatus.FAILED, null);
+    }
+
+    /**
+     * Reads the response body, with a limit on both the total duration and the size,
+     * since the read timeout alone doesn't limit a slowly trickling response.
+     */
+    @Nullable
+    protected static String readContent(HttpURLConnection connection) throws IOException
+    {
+        long deadline = System.currentTimeMillis() + MAX_FETCH_DURATION_MS;
+        InputStream inputStream = connection.getInputStream();
+
+        try
+        {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+            byte[] buf = new byte[4096];
+            int read;
+
+            while ((read = inputStream.read(buf)) != -1)
+            {
+                out.write(buf, 0, read);
+
+                if (out.size() > MAX_CONTENT_LENGTH || System.currentTimeMillis() > deadline)
+                {
+                    MaLiLib.LOGGER.warn("Config override page '{}' was too large or too slow to download",
+                                        connection.getURL());
+                    return null;
+                }
+            }
+
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+        finally
+        {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+
+    protected static synchronized ExecutorService getExecutor()
+    {
+        if (executor == null)
+        {
+            executor = Executors.newSingleThreadExecutor((task) -> {
+                Thread thread = new Thread(task, "MaLiLib Config Override Fetcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        return executor;
+    }
+
+    public enum FetchStatus
+    {
+        UPDATED,
+        NOT_MODIFIED,
+        FAILED
+    }
+
+    public static class FetchResult
+    {
+        public final FetchStatus status;
+        @Nullable public final CachedPage page;
+
+        public FetchResult(FetchStatus status, @Nullable CachedPage page)
+        {
+            this.status = status;
+            this.page = page;
+        }
+    }
+
+    public static class CachedPage
+    {
+        public final String url;
+        public final String content;
+        @Nullable public final String etag;
+        @Nullable public final String lastModified;
+
+        public CachedPage(String url, String content, @Nullable String etag, @Nullable String lastModified)
+        {
+            this.url = url;
+            this.content = content;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+}
@@ -36,6 +36,9 @@ import fi.dy.masa.malilib.config.option.BooleanAndIntConfig;
 import fi.dy.masa.malilib.config.option.BooleanConfig;
 import fi.dy.masa.malilib.config.option.ConfigInfo;
 import fi.dy.masa.malilib.config.option.OverridableConfig;
+import fi.dy.masa.malilib.config.util.ConfigOverrideFetcher.CachedPage;
+import fi.dy.masa.malilib.config.util.ConfigOverrideFetcher.FetchResult;
+import fi.dy.masa.malilib.config.util.ConfigOverrideFetcher.FetchStatus;
 import fi.dy.masa.malilib.gui.config.ConfigSearchInfo;
 import fi.dy.masa.malilib.input.ActionResult;
 import fi.dy.masa.malilib.overlay.message.MessageDispatcher;
@@ -78,17 +81,24 @@ public class ConfigOverrideUtils
     }
 
     protected static boolean tryApplyOverridesFromString(String str)
+    {
+        JsonObject obj = parseOverridesFromString(str);
+        return obj != null && applyConfigOverrides(obj);
+    }
+
+    @Nullable
+    protected static JsonObject parseOverridesFromString(String str)
     {
         if (StringUtils.isBlank(str) || str.charAt(0) != '{')
         {
-            return false;
+            return null;
         }
 
         int lastBrace = str.lastIndexOf('}');
 
         if (lastBrace <= 1)
         {
-            return false;
+            return null;
         }
 
         // Strip away the ending '§r'
@@ -101,28 +111,22 @@ public class ConfigOverrideUtils
 
         if (el != null && el.isJsonObject())
         {
-            return applyConfigOverrides(el.getAsJsonObject());
+            return el.getAsJsonObject();
         }
 
-        return false;
+        return null;
     }
 
-    protected static boolean tryApplyOverridesFromURL(String str)
+    @Nullable
+    protected static String getOverrideURL(String str)
     {
         if (str.startsWith("http://") || str.startsWith("https://"))
         {
             // Strip away the ending '§r'
-            str = str.substring(0, str.length() - 2);
-
-            String pageContent = tryFetchPage(str, 2000);
-
-            if (pageContent != null)
-            {
-                return tryApplyOverridesFromString(pageContent.trim());
-            }
+            return str.substring(0, str.length() - 2);
         }
 
-        return false;
+        return null;
     }
 
     protected static void tryApplyOverridesFromLocalConfig()
@@ -145,22 +149,100 @@ public class ConfigOverrideUtils
         {
             String motd = serverData.serverMOTD;
             String[] lines = motd.split("\\n");
+            int session = ConfigOverrideFetcher.startSession();
+
+            tryApplyOverridesFromServerLines(serverData.serverIP, lines, 3, session);
+        }
+    }
 
-            for (int index = 3; index < lines.length; ++index)
+    /**
+     * Tries to apply the overrides from the given MOTD lines, in order, starting from the given line.
+     * The first line that results in overrides being applied wins.
+     * The override URLs are fetched asynchronously, so when an URL line is found, any
+     * cached version of that page is applied immediately, and the rest of the lines are only
+     * processed later, if needed, after the page fetch has finished.
+     */
+    protected static void tryApplyOverridesFromServerLines(String serverAddress, String[] lines, int startIndex, int session)
+    {
+        for (int index = startIndex; index < lines.length; ++index)
+        {
+            String str = lines[index];
+
+            if (tryApplyOverridesFromString(str))
             {
-                String str = lines[index];
+                return;
+            }
+
+            String url = getOverrideURL(str);
 
-                if (tryApplyOverridesFromString(str))
+            if (url != null)
+            {
+                File cacheFile = ConfigOverrideFetcher.getCacheFile(serverAddress, url);
+                CachedPage cachedPage = ConfigOverrideFetcher.readCachedPage(cacheFile, url);
+                boolean appliedCached = cachedPage != null && tryApplyOverridesFromString(cachedPage.content.trim());
+                final int nextIndex = index + 1;
+
+                if (appliedCached)
                 {
-                    return;
+                    MaLiLib.debugLog("Applied cached config overrides from '{}'", url);
                 }
 
-                if (tryApplyOverridesFromURL(str))
+                ConfigOverrideFetcher.fetchAsync(url, cachedPage, cacheFile, session,
+                        (result) -> onOverridePageFetched(result, cachedPage, appliedCached,
+                                                          serverAddress, lines, nextIndex, session));
+                return;
+            }
+        }
+    }
+
+    protected static void onOverridePageFetched(FetchResult result,
+                                                @Nullable CachedPage cachedPage,
+                                                boolean appliedCached,
+                                                String serverAddress,
+                                                String[] lines,
+                                                int nextIndex,
+                                                int session)
+    {
+        if (result.status == FetchStatus.UPDATED && result.page != null)
+        {
+            String content = result.page.content.trim();
+            boolean changed = cachedPage == null || cachedPage.content.trim().equals(content) == false;
+            JsonObject obj = changed ? parseOverridesFromString(content) : null;
+
+            if (appliedCached)
+            {
+                // Swap the fresher overrides in place of the cached ones. This all happens
+                // during one task on the client thread, so nothing sees a partially applied state.
+                if (obj != null)
                 {
-                    return;
+                    MaLiLib.debugLog("Replacing the cached config overrides with the fetched ones");
+                    resetConfigOverrides();
+                    applyConfigOverrides(obj);
                 }
+
+                return;
             }
+
+            if (obj != null && applyConfigOverrides(obj))
+            {
+                return;
+            }
+        }
+        else if (appliedCached)
+        {
+            return;
         }
+
+        tryApplyOverridesFromServerLines(serverAddress, lines, nextIndex, session);
+    }
+
+    /**
+     * Cancels the results of any still pending override page fetches.
+     * This should be called when leaving the server.
+     */
+    public static void cancelPendingOverrideFetches()
+    {
+        ConfigOverrideFetcher.cancelPendingFetches();
     }
 
     protected static <C extends ConfigInfo & OverridableConfig<?>>
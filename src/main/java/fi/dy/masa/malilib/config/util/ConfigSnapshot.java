@@ -0,0 +1,136 @@
+package fi.dy.masa.malilib.config.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import fi.dy.masa.malilib.config.ModConfig;
+import fi.dy.masa.malilib.config.category.ConfigOptionCategory;
+import fi.dy.masa.malilib.config.option.ConfigOption;
+import fi.dy.masa.malilib.util.data.json.JsonUtils;
+
+/**
+ * An immutable snapshot of the serialized config values of one mod config,
+ * grouped by the config categories, in the same format as they are in the config file.
+ * <br><br>
+ * The category objects are shared between snapshots where possible, so that a snapshot
+ * of the current values only contains new objects for the categories that have changed.
+ * This also allows quickly skipping entire categories when comparing snapshots.
+ * <br><br>
+ * <b>Note:</b> The contained JsonObjects must never be modified, as they can be
+ * shared by several snapshots and they are also accessed from the background preloading thread.
+ */
+public class ConfigSnapshot
+{
+    protected final ImmutableMap<String, JsonObject> categories;
+    @Nullable protected final JsonObject root;
+    protected final int configVersion;
+
+    protected ConfigSnapshot(ImmutableMap<String, JsonObject> categories, @Nullable JsonObject root, int configVersion)
+    {
+        this.categories = categories;
+        this.root = root;
+        this.configVersion = configVersion;
+    }
+
+    public int getConfigVersion()
+    {
+        return this.configVersion;
+    }
+
+    /**
+     * @return the serialized values of the given category, or null if the category does not exist in this snapshot
+     */
+    @Nullable
+    public JsonObject getCategory(String categoryName)
+    {
+        return this.categories.get(categoryName);
+    }
+
+    /**
+     * @return the serialized value of the given config, or null if it does not exist in this snapshot
+     */
+    @Nullable
+    public JsonElement getValue(String categoryName, String configName)
+    {
+        JsonObject obj = this.categories.get(categoryName);
+        return obj != null ? obj.get(configName) : null;
+    }
+
+    /**
+     * @return a new mutable copy of the whole data in this snapshot, in the config file format
+     */
+    public JsonObject toMutableJson()
+    {
+        if (this.root != null)
+        {
+            return JsonUtils.deepCopy(this.root);
+        }
+
+        JsonObject obj = new JsonObject();
+        obj.add("config_version", new JsonPrimitive(this.configVersion));
+
+        for (Map.Entry<String, JsonObject> entry : this.categories.entrySet())
+        {
+            obj.add(entry.getKey(), JsonUtils.deepCopy(entry.getValue()));
+        }
+
+        return obj;
+    }
+
+    /**
+     * Creates a snapshot from the root object of a config file
+     */
+    public static ConfigSnapshot fromJson(JsonObject root)
+    {
+        ImmutableMap.Builder<String, JsonObject> builder = ImmutableMap.builder();
+
+        for (Map.Entry<String, JsonElement> entry : root.entrySet())
+        {
+            if (entry.getValue().isJsonObject())
+            {
+                builder.put(entry.getKey(), entry.getValue().getAsJsonObject());
+            }
+        }
+
+        int configVersion = JsonUtils.getIntegerOrDefault(root, "config_version", 0);
+
+        return new ConfigSnapshot(builder.build(), root, configVersion);
+    }
+
+    /**
+     * Creates a snapshot of the current values of the configs in the given mod config.
+     * The category objects of the previous snapshot are re-used for all the categories
+     * whose values are still the same.
+     * @param previous the previous snapshot of the same mod config, if any
+     */
+    public static ConfigSnapshot ofCurrentValues(ModConfig modConfig, @Nullable ConfigSnapshot previous)
+    {
+        Map<String, JsonObject> map = new LinkedHashMap<>();
+
+        for (ConfigOptionCategory category : modConfig.getConfigOptionCategories())
+        {
+            String categoryName = category.getName();
+            JsonObject obj = map.computeIfAbsent(categoryName, (k) -> new JsonObject());
+
+            for (ConfigOption<?> config : category.getConfigOptions())
+            {
+                JsonConfigUtils.tryWriteConfig(obj, config, categoryName);
+            }
+        }
+
+        ImmutableMap.Builder<String, JsonObject> builder = ImmutableMap.builder();
+
+        for (Map.Entry<String, JsonObject> entry : map.entrySet())
+        {
+            JsonObject obj = entry.getValue();
+            JsonObject previousObj = previous != null ? previous.getCategory(entry.getKey()) : null;
+            builder.put(entry.getKey(), obj.equals(previousObj) ? previousObj : obj);
+        }
+
+        return new ConfigSnapshot(builder.build(), null, modConfig.getConfigVersion());
+    }
+}
@@ -0,0 +1,224 @@
+package fi.dy.masa.malilib.config.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.Nullable;
+import com.google.gson.JsonElement;
+import fi.dy.masa.malilib.MaLiLib;
+import fi.dy.masa.malilib.util.data.json.JsonUtils;
+
+/**
+ * Caches the parsed contents of config files as immutable {@link ConfigSnapshot}s,
+ * keyed by the file and validated against the file's modification time and size.
+ * <br><br>
+ * The config files of all the config profiles can be preloaded on a background thread,
+ * so that switching config profiles does not need to read or parse any files
+ * on the main thread, as long as the files haven't been modified since they were preloaded.
+ */
+public class ConfigSnapshotCache
+{
+    public static final ConfigSnapshotCache INSTANCE = new ConfigSnapshotCache();
+
+    protected final Map<File, CachedSnapshot> snapshots = new ConcurrentHashMap<>();
+    protected ExecutorService executor;
+    protected long hits;
+    protected long misses;
+
+    /**
+     * Gets the snapshot of the given config file, either from the cache if the file
+     * has not been modified since it was cached, or by reading and parsing the file now.
+     * <b>Note:</b> Any pending background writes should be flushed before calling this.
+     * @return the snapshot of the file, or null if the file does not exist or could not be parsed
+     */
+    @Nullable
+    public ConfigSnapshot getSnapshot(File file)
+    {
+        file = getCacheKey(file);
+        long lastModified = file.lastModified();
+        long length = file.length();
+        CachedSnapshot cached = this.snapshots.get(file);
+
+        if (cached != null && cached.matches(lastModified, length))
+        {
+            ++this.hits;
+            return cached.snapshot;
+        }
+
+        ++this.misses;
+        cached = this.readFile(file);
+
+        return cached != null ? cached.snapshot : null;
+    }
+
+    /**
+     * Reads the given config files of all the existing config profiles
+     * (including the default profile), on a background thread.
+     * Files that are already cached and unmodified are not read again.
+     * @param fileNames the names of the config files to read from each profile directory
+     */
+    public void preloadAllProfiles(List<String> fileNames)
+    {
+        List<File> dirs = new ArrayList<>();
+        File profilesDir = new File(ConfigUtils.getConfigDirectory(), "config_profiles");
+        File[] profileDirs = profilesDir.listFiles(File::isDirectory);
+
+        dirs.add(ConfigUtils.getConfigDirectory());
+
+        if (profileDirs != null)
+        {
+            for (File dir : profileDirs)
+            {
+                dirs.add(dir);
+            }
+        }
+
+        List<File> files = new ArrayList<>();
+
+        for (File dir : dirs)
+        {
+            for (String fileName : fileNames)
+            {
+                files.add(getCacheKey(new File(dir, fileName)));
+            }
+        }
+
+        this.getExecutor().execute(() -> this.preloadFiles(files));
+    }
+
+    protected void preloadFiles(List<File> files)
+    {
+        long start = System.nanoTime();
+        int count = 0;
+
+        for (File file : files)
+        {
+            if (this.readIfNotCached(file))
+            {
+                ++count;
+            }
+        }
+
+        if (count > 0)
+        {
+            MaLiLib.debugLog("Preloaded {} config files in {} ms", count, (System.nanoTime() - start) / 1000000L);
+        }
+    }
+
+    /**
+     * Reads and caches the given config files that are not yet cached or have been modified,
+     * in parallel on the common fork-join pool, and waits for them to be done.
+     * This is meant for filling the cache right before the snapshots are needed,
+     * for example during the game startup.
+     */
+    public void preloadFilesInParallel(List<File> files)
+    {
+        long start = System.nanoTime();
+        long count = files.parallelStream().map(ConfigSnapshotCache::getCacheKey).filter(this::readIfNotCached).count();
+
+        if (count > 0)
+        {
+            MaLiLib.debugLog("Read {} config files in parallel in {} ms", count, (System.nanoTime() - start) / 1000000L);
+        }
+    }
+
+    /**
+     * @return true if the file was read and cached
+     */
+    protected boolean readIfNotCached(File file)
+    {
+        CachedSnapshot cached = this.snapshots.get(file);
+
+        return file.isFile() &&
+               (cached == null || cached.matches(file.lastModified(), file.length()) == false) &&
+               this.readFile(file) != null;
+    }
+
+    @Nullable
+    protected CachedSnapshot readFile(File file)
+    {
+        long lastModified = file.lastModified();
+        long length = file.length();
+        JsonElement element = JsonUtils.parseJsonFile(file);
+
+        // Don't cache the result if the file was modified while reading it
+        if (element == null || element.isJsonObject() == false ||
+            file.lastModified() != lastModified || file.length() != length)
+        {
+            this.snapshots.remove(file);
+            return null;
+        }
+
+        CachedSnapshot cached = new CachedSnapshot(ConfigSnapshot.fromJson(element.getAsJsonObject()), lastModified, length);
+        this.snapshots.put(file, cached);
+
+        return cached;
+    }
+
+    /**
+     * Removes the cached snapshot of the given file.
+     * This should be called when the file is written to.
+     */
+    public void invalidate(File file)
+    {
+        this.snapshots.remove(getCacheKey(file));
+    }
+
+    public void clear()
+    {
+        this.snapshots.clear();
+    }
+
+    public long getHits()
+    {
+        return this.hits;
+    }
+
+    public long getMisses()
+    {
+        return this.misses;
+    }
+
+    protected static File getCacheKey(File file)
+    {
+        return file.toPath().toAbsolutePath().normalize().toFile();
+    }
+
+    protected synchronized ExecutorService getExecutor()
+    {
+        if (this.executor == null)
+        {
+            this.executor = Executors.newSingleThreadExecutor((task) -> {
+                Thread thread = new Thread(task, "MaLiLib Config Preloader");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+        }
+
+        return this.executor;
+    }
+
+    protected static class CachedSnapshot
+    {
+        protected final ConfigSnapshot snapshot;
+        protected final long lastModified;
+        protected final long length;
+
+        protected CachedSnapshot(ConfigSnapshot snapshot, long lastModified, long length)
+        {
+            this.snapshot = snapshot;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        protected boolean matches(long lastModified, long length)
+        {
+            return this.lastModified == lastModified && this.length == length;
+        }
+    }
+}
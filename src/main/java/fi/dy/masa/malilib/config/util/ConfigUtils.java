@@ -106,7 +106,7 @@ public class ConfigUtils
      */
     public static void sortConfigsByDisplayName(List<ConfigInfo> configs)
     {
-        configs.sort(Comparator.comparing((c) -> TextFormatting.getTextWithoutFormattingCodes(c.getDisplayName())));
+        ListUtils.sortByKey(configs, (c) -> TextFormatting.getTextWithoutFormattingCodes(c.getDisplayName()), Comparator.naturalOrder());
     }
 
     /**
@@ -215,13 +215,23 @@ public class ConfigUtils
      */
     public static void loadAllConfigsFromFile()
     {
-        Registry.ICON.loadFromFile();
-        ((ConfigManagerImpl) Registry.CONFIG_MANAGER).loadAllConfigs();
-        Registry.ACTION_REGISTRY.loadFromFile();
-        CustomHotkeyManager.INSTANCE.loadFromFile();
-        Registry.INFO_WIDGET_MANAGER.loadFromFile();
-        Registry.MESSAGE_REDIRECT_MANAGER.loadFromFile();
-        Registry.HOTKEY_MANAGER.updateUsedKeys();
+        // Any hotkey map updates requested by the config load callbacks are coalesced into the one rebuild at the end
+        Registry.HOTKEY_MANAGER.beginBatch();
+
+        try
+        {
+            Registry.ICON.loadFromFile();
+            ((ConfigManagerImpl) Registry.CONFIG_MANAGER).loadAllConfigs();
+            Registry.ACTION_REGISTRY.loadFromFile();
+            CustomHotkeyManager.INSTANCE.loadFromFile();
+            Registry.INFO_WIDGET_MANAGER.loadFromFile();
+            Registry.MESSAGE_REDIRECT_MANAGER.loadFromFile();
+            Registry.HOTKEY_MANAGER.updateUsedKeys();
+        }
+        finally
+        {
+            Registry.HOTKEY_MANAGER.endBatch();
+        }
     }
 
     /**
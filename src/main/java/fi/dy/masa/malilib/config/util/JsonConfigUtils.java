@@ -3,6 +3,7 @@ package fi.dy.masa.malilib.config.util;
 import java.io.File;
 import java.util.List;
 import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
@@ -110,9 +111,86 @@ public class JsonConfigUtils
         config.onValueLoaded(config.getValue());
     }
 
+    /**
+     * Compares the config values in the target snapshot to the current values,
+     * and adds a load task to the given list for each config whose value is different.
+     * The loaded configs will end up in the same state as with {@link #readConfigs(JsonObject, ConfigOptionCategory)},
+     * but the unchanged configs are not touched, and thus their callbacks also don't get called.
+     * @param target the snapshot of the values being loaded
+     * @param current the snapshot of the current values
+     * @param loadTasks the list to add the load tasks to
+     */
+    public static void collectChangedConfigs(ConfigSnapshot target,
+                                             ConfigSnapshot current,
+                                             List<ConfigOptionCategory> categories,
+                                             List<Runnable> loadTasks)
+    {
+        for (ConfigOptionCategory category : categories)
+        {
+            String categoryName = category.getName();
+            JsonObject targetObj = target.getCategory(categoryName);
+            JsonObject currentObj = current.getCategory(categoryName);
+
+            // The category objects are shared by the snapshots when nothing has changed
+            if (targetObj != null && targetObj == currentObj)
+            {
+                continue;
+            }
+
+            for (ConfigOption<?> config : category.getConfigOptions())
+            {
+                if (targetObj == null)
+                {
+                    if (config.isModified())
+                    {
+                        loadTasks.add(config::resetToDefault);
+                    }
+                }
+                else if (isConfigChanged(targetObj, currentObj, config))
+                {
+                    loadTasks.add(() -> tryLoadConfig(targetObj, config, categoryName));
+                }
+            }
+        }
+    }
+
+    protected static boolean isConfigChanged(JsonObject targetObj, @Nullable JsonObject currentObj, ConfigOption<?> config)
+    {
+        String name = config.getName();
+        JsonElement value = targetObj.get(name);
+
+        if (value != null)
+        {
+            return currentObj == null || value.equals(currentObj.get(name)) == false;
+        }
+
+        for (String oldName : config.getOldNames())
+        {
+            if (targetObj.has(oldName))
+            {
+                return true;
+            }
+        }
+
+        // Not in the target data, so the config would get reset to the default value
+        return config.isModified();
+    }
+
     public static boolean saveToFile(File configFile, List<ConfigOptionCategory> categories, int configVersion)
     {
         JsonObject root = new JsonObject();
+        boolean success = writeConfigsToObject(root, categories, configVersion);
+        return JsonUtils.writeJsonToFile(root, configFile) && success;
+    }
+
+    /**
+     * Writes all the configs from the given categories to the given JsonObject,
+     * and marks them as saved. This does not touch the disk, so the created
+     * JsonObject can be used as a snapshot of the config values to save.
+     * @return true if all the configs were successfully written
+     */
+    public static boolean writeConfigsToObject(JsonObject root, List<ConfigOptionCategory> categories, int configVersion)
+    {
         root.add("config_version", new JsonPrimitive(configVersion));
         boolean success = true;
 
@@ -129,7 +207,7 @@ public class JsonConfigUtils
             MessageDispatcher.error().console().translate("malilib.message.error.failed_to_save_all_configs");
         }
 
-        return JsonUtils.writeJsonToFile(root, configFile) && success;
+        return success;
     }
 
     public static boolean writeConfigs(JsonObject root, ConfigOptionCategory category)
@@ -1,5 +1,8 @@
 package fi.dy.masa.malilib.event;
 
+import java.util.Collection;
+import java.util.Collections;
+
 public interface InitializationHandler
 {
     /**
@@ -12,4 +15,36 @@ public interface InitializationHandler
      * The classes implementing this method should be registered to {@link fi.dy.masa.malilib.event.dispatch.InitializationDispatcherImpl}
      */
     void registerModHandlers();
+
+    /**
+     * Optional preparation step, which is run before any of the {@link #registerModHandlers()} calls.
+     * The preparation steps of all the handlers are run in parallel on background threads,
+     * so this can be used for slow and thread safe work, such as reading and parsing data files,
+     * the results of which are then used in {@link #registerModHandlers()}.
+     * <br><br>
+     * <b>Note:</b> This must not access any game state, or register anything to malilib!
+     */
+    default void prepareInParallel()
+    {
+    }
+
+    /**
+     * @return the ID of this handler, which other handlers can use to declare a dependency on this handler.
+     *         This is also used in the initialization timing report.
+     *         By default this is the fully qualified class name of the handler.
+     */
+    default String getInitializationId()
+    {
+        return this.getClass().getName();
+    }
+
+    /**
+     * @return the IDs (see {@link #getInitializationId()}) of the handlers whose
+     *         {@link #registerModHandlers()} method must be called before this handler's method.
+     *         Dependencies on handlers that are not registered are ignored.
+     */
+    default Collection<String> getInitializationDependencies()
+    {
+        return Collections.emptyList();
+    }
 }
@@ -8,6 +8,8 @@ import net.minecraft.client.multiplayer.WorldClient;
 import fi.dy.masa.malilib.config.util.ConfigOverrideUtils;
 import fi.dy.masa.malilib.config.util.ConfigUtils;
 import fi.dy.masa.malilib.event.ClientWorldChangeHandler;
+import fi.dy.masa.malilib.network.PacketSplitter;
+import fi.dy.masa.malilib.registry.Registry;
 import fi.dy.masa.malilib.render.overlay.OverlayRendererContainer;
 
 public class ClientWorldChangeEventDispatcherImpl implements ClientWorldChangeEventDispatcher
@@ -83,8 +85,11 @@ public class ClientWorldChangeEventDispatcherImpl implements ClientWorldChangeEv
 
     protected void onExitWorld()
     {
+        ConfigOverrideUtils.cancelPendingOverrideFetches();
+        Registry.MACRO_EXECUTOR.clear();
         ConfigOverrideUtils.resetConfigOverrides();
         ConfigUtils.saveAllConfigsToFileIfDirty();
+        PacketSplitter.clearReadingSessions();
     }
 
     protected void onEnterWorld()
@@ -1,11 +1,29 @@
 package fi.dy.masa.malilib.event.dispatch;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import fi.dy.masa.malilib.MaLiLib;
 import fi.dy.masa.malilib.MaLiLibInitHandler;
 import fi.dy.masa.malilib.config.util.ConfigUtils;
 import fi.dy.masa.malilib.event.InitializationHandler;
+import fi.dy.masa.malilib.registry.Registry;
 
+/**
+ * Runs the mod initialization in phases:
+ * <br>1. The optional preparation steps ({@link InitializationHandler#prepareInParallel()})
+ *        of all the handlers, in parallel on the common fork-join pool
+ * <br>2. The {@link InitializationHandler#registerModHandlers()} calls, serially on the main thread,
+ *        ordered so that the declared dependencies of each handler are run before it
+ * <br>3. Loading all the configs from file, during which the config files are also parsed in parallel
+ * <br><br>
+ * The time taken by each handler is logged once the initialization is done.
+ */
 public class InitializationDispatcherImpl implements InitializationDispatcher
 {
     protected final List<InitializationHandler> handlers = new ArrayList<>();
@@ -28,17 +46,150 @@ public class InitializationDispatcherImpl implements InitializationDispatcher
      */
     public void onGameInitDone()
     {
-        InitializationHandler malilibHandler = new MaLiLibInitHandler();
-        malilibHandler.registerModHandlers();
+        long start = System.nanoTime();
+        List<InitializationHandler> handlers = new ArrayList<>();
+        Map<InitializationHandler, HandlerTiming> timings = new LinkedHashMap<>();
 
-        if (this.handlers.isEmpty() == false)
+        // The MaLiLib handler always runs first, as the other mods depend on the things it registers
+        handlers.add(new MaLiLibInitHandler());
+        handlers.addAll(sortByDependencies(this.handlers));
+        handlers.forEach((h) -> timings.put(h, new HandlerTiming(h.getInitializationId())));
+
+        // Phase 1: The parallel preparation steps
+        handlers.parallelStream().forEach((h) -> runPreparation(h, timings.get(h)));
+        long prepareEnd = System.nanoTime();
+
+        // Defer the hotkey map rebuilds until all the mods have registered their hotkeys and the configs have been loaded
+        Registry.HOTKEY_MANAGER.beginBatch();
+
+        long registerEnd;
+
+        try
         {
-            for (InitializationHandler handler : this.handlers)
+            // Phase 2: The serial registration
+            for (InitializationHandler handler : handlers)
             {
+                long handlerStart = System.nanoTime();
                 handler.registerModHandlers();
+                timings.get(handler).registerNanos = System.nanoTime() - handlerStart;
             }
+
+            registerEnd = System.nanoTime();
+
+            // Phase 3: Loading the configs
+            ConfigUtils.loadAllConfigsFromFile();
+        }
+        finally
+        {
+            Registry.HOTKEY_MANAGER.endBatch();
+        }
+
+        long end = System.nanoTime();
+
+        MaLiLib.debugLog("Initialized {} mod handlers in {} ms (prepare: {} ms, register: {} ms, config load: {} ms)",
+                         handlers.size(), toMillis(end - start), toMillis(prepareEnd - start),
+                         toMillis(registerEnd - prepareEnd), toMillis(end - registerEnd));
+
+        List<HandlerTiming> sorted = new ArrayList<>(timings.values());
+        sorted.sort(Comparator.comparingLong(HandlerTiming::getTotalNanos).reversed());
+
+        for (HandlerTiming timing : sorted)
+        {
+            MaLiLib.debugLog("  {} ms - {} (prepare: {} ms, register: {} ms)",
+                             toMillis(timing.getTotalNanos()), timing.id,
+                             toMillis(timing.prepareNanos), toMillis(timing.registerNanos));
+        }
+    }
+
+    protected static void runPreparation(InitializationHandler handler, HandlerTiming timing)
+    {
+        long start = System.nanoTime();
+
+        try
+        {
+            handler.prepareInParallel();
+        }
+        catch (Exception e)
+        {
+            MaLiLib.LOGGER.warn("Exception in the initialization preparation of '{}'", timing.id, e);
         }
 
-        ConfigUtils.loadAllConfigsFromFile();
+        timing.prepareNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Sorts the handlers so that the dependencies of each handler come before it.
+     * Otherwise the registration order is retained. Dependency cycles are
+     * broken by running the remaining handlers in their registration order.
+     */
+    protected static List<InitializationHandler> sortByDependencies(List<InitializationHandler> handlers)
+    {
+        Map<String, InitializationHandler> handlersById = new HashMap<>();
+        handlers.forEach((h) -> handlersById.put(h.getInitializationId(), h));
+
+        List<InitializationHandler> sorted = new ArrayList<>(handlers.size());
+        Set<InitializationHandler> added = new HashSet<>();
+        Set<InitializationHandler> visiting = new HashSet<>();
+
+        for (InitializationHandler handler : handlers)
+        {
+            addWithDependencies(handler, handlersById, sorted, added, visiting);
+        }
+
+        return sorted;
+    }
+
+    protected static void addWithDependencies(InitializationHandler handler,
+                                              Map<String, InitializationHandler> handlersById,
+                                              List<InitializationHandler> sorted,
+                                              Set<InitializationHandler> added,
+                                              Set<InitializationHandler> visiting)
+    {
+        if (added.contains(handler))
+        {
+            return;
+        }
+
+        if (visiting.add(handler) == false)
+        {
+            MaLiLib.LOGGER.warn("Initialization handler dependency cycle detected at '{}'", handler.getInitializationId());
+            return;
+        }
+
+        for (String dependencyId : handler.getInitializationDependencies())
+        {
+            InitializationHandler dependency = handlersById.get(dependencyId);
+
+            if (dependency != null)
+            {
+                addWithDependencies(dependency, handlersById, sorted, added, visiting);
+            }
+        }
+
+        visiting.remove(handler);
+        added.add(handler);
+        sorted.add(handler);
+    }
+
+    protected static String toMillis(long nanos)
+    {
+        return String.format("%.2f", nanos / 1000000.0);
+    }
+
+    protected static class HandlerTiming
+    {
+        protected final String id;
+        protected long prepareNanos;
+        protected long registerNanos;
+
+        protected HandlerTiming(String id)
+        {
+            this.id = id;
+        }
+
+        protected long getTotalNanos()
+        {
+            return this.prepareNanos + this.registerNanos;
+        }
     }
 }
@@ -14,6 +14,7 @@ import net.minecraft.util.ResourceLocation;
 import fi.dy.masa.malilib.MaLiLibConfigs;
 import fi.dy.masa.malilib.gui.icon.DefaultIcons;
 import fi.dy.masa.malilib.gui.util.GuiUtils;
+import fi.dy.masa.malilib.gui.util.HoveredWidgetIndex;
 import fi.dy.masa.malilib.gui.util.ScreenContext;
 import fi.dy.masa.malilib.gui.widget.BaseTextFieldWidget;
 import fi.dy.masa.malilib.gui.widget.BaseWidget;
@@ -22,6 +23,7 @@ import fi.dy.masa.malilib.gui.widget.LabelWidget;
 import fi.dy.masa.malilib.gui.widget.button.GenericButton;
 import fi.dy.masa.malilib.input.ActionResult;
 import fi.dy.masa.malilib.listener.EventListener;
+import fi.dy.masa.malilib.render.GuiBatchRenderer;
 import fi.dy.masa.malilib.render.RenderUtils;
 import fi.dy.masa.malilib.render.ShapeRenderUtils;
 import fi.dy.masa.malilib.render.text.StyledTextLine;
@@ -36,6 +38,7 @@ public abstract class BaseScreen extends GuiScreen
     protected final TextRenderer textRenderer = TextRenderer.INSTANCE;
     protected final List<Runnable> tasks = new ArrayList<>();
     private final List<InteractableWidget> widgets = new ArrayList<>();
+    private final HoveredWidgetIndex hoveredWidgetIndex = new HoveredWidgetIndex();
     private String titleString = "";
     @Nullable protected EventListener screenCloseListener;
     @Nullable protected StyledTextLine titleText;
@@ -403,7 +406,7 @@ public abstract class BaseScreen extends GuiScreen
     protected InteractableWidget getTopHoveredWidget(int mouseX, int mouseY,
                                                      @Nullable InteractableWidget highestFoundWidget)
     {
-        return InteractableWidget.getTopHoveredWidgetFromList(this.widgets, mouseX, mouseY, highestFoundWidget);
+        return this.hoveredWidgetIndex.getTopHoveredWidget(this.widgets, mouseX, mouseY, highestFoundWidget);
     }
 
     protected void updateTopHoveredWidget(int mouseX, int mouseY, boolean isActiveScreen)
@@ -432,9 +435,14 @@ public abstract class BaseScreen extends GuiScreen
     {
         this.runTasks();
 
+        GuiBatchRenderer.INSTANCE.beginPass();
+
         if (this.shouldRenderParent && this.getParent() != null)
         {
             this.getParent().drawScreen(mouseX, mouseY, partialTicks);
+
+            // The parent screen may not be a malilib screen
+            GuiBatchRenderer.INSTANCE.invalidateState();
         }
 
         RenderUtils.color(1f, 1f, 1f, 1f);
@@ -470,6 +478,13 @@ public abstract class BaseScreen extends GuiScreen
 
         BaseWidget.renderDebugTextAndClear(ctx);
 
+        if (MaLiLibConfigs.Debug.GUI_DRAW_CALL_COUNTER.getBooleanValue() && ctx.isActiveScreen)
+        {
+            this.renderDrawCallCounter(ctx);
+        }
+
+        GuiBatchRenderer.INSTANCE.endPass();
+
         if (this.useCustomScreenScaling)
         {
             RenderUtils.setupScaledScreenRendering(RenderUtils.getVanillaScreenScale());
@@ -733,7 +748,7 @@ public abstract class BaseScreen extends GuiScreen
 
     public void bindTexture(ResourceLocation texture)
     {
-        this.mc.getTextureManager().bindTexture(texture);
+        RenderUtils.bindTexture(texture);
     }
 
     public BaseScreen setZ(float z)
@@ -763,6 +778,7 @@ public abstract class BaseScreen extends GuiScreen
         this.widgets.add(widget);
         widget.setTaskQueue(this::addTask);
         widget.onWidgetAdded(this.zLevel);
+        BaseWidget.markGeometryChanged();
         return widget;
     }
 
@@ -800,6 +816,7 @@ public abstract class BaseScreen extends GuiScreen
         if (widget != null && this.widgets.contains(widget))
         {
             this.widgets.remove(widget);
+            BaseWidget.markGeometryChanged();
             return true;
         }
 
@@ -814,6 +831,7 @@ public abstract class BaseScreen extends GuiScreen
     protected void clearWidgets()
     {
         this.widgets.clear();
+        BaseWidget.markGeometryChanged();
     }
 
     protected void addTask(Runnable task)
@@ -994,6 +1012,27 @@ public abstract class BaseScreen extends GuiScreen
         }
     }
 
+    /**
+     * Renders the number of draw calls during the previous frame, and the number
+     * of draw calls that the GUI batch rendering merged into other draw calls.
+     */
+    protected void renderDrawCallCounter(ScreenContext ctx)
+    {
+        GuiBatchRenderer batchRenderer = GuiBatchRenderer.INSTANCE;
+        int drawCalls = batchRenderer.getLastFrameDrawCalls();
+        int merged = batchRenderer.getLastFrameMergedDraws();
+        String str = String.format("Draw calls: %d (without batching: %d, batching: %s)",
+                                   drawCalls, drawCalls + merged, batchRenderer.isBatchingEnabled() ? "ON" : "OFF");
+        StyledTextLine line = StyledTextLine.of(str);
+
+        int x = 1;
+        int y = this.height - 15;
+        float z = this.zLevel + 20;
+
+        ShapeRenderUtils.renderOutlinedRectangle(x, y, z, line.renderWidth + 4, 14, 0xE0000000, 0xFFA0A0A0);
+        this.textRenderer.renderLine(x + 2, y + 3, z + 0.00125f, 0xFFFFFF00, true, line, ctx);
+    }
+
     public static void renderWidgetDebug(List<? extends InteractableWidget> widgets, ScreenContext ctx)
     {
         for (InteractableWidget widget : widgets)
@@ -11,6 +11,7 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import fi.dy.masa.malilib.action.ActionContext;
 import fi.dy.masa.malilib.action.ActionUtils;
+import fi.dy.masa.malilib.action.MacroAction;
 import fi.dy.masa.malilib.action.NamedAction;
 import fi.dy.masa.malilib.gui.BaseScreen;
 import fi.dy.masa.malilib.gui.icon.Icon;
@@ -41,6 +42,7 @@ public abstract class BaseActionExecutionWidget extends ContainerWidget
     protected boolean selected;
     protected float iconScaleX = 1.0F;
     protected float iconScaleY = 1.0F;
+    protected int macroStatisticsVersion = -1;
 
     public BaseActionExecutionWidget()
     {
@@ -52,6 +54,7 @@ public abstract class BaseActionExecutionWidget extends ContainerWidget
         this.getBackgroundRenderer().getHoverSettings().setDefaultEnabledAndColor(true, DEFAULT_BACKGROUND_COLOR);
 
         this.getHoverInfoFactory().setTextLineProvider("widget_hover_tip", this::getActionWidgetHoverTextLines);
+        this.getHoverInfoFactory().setTextLineProvider("macro_stats", this::getMacroStatisticsLines, 110);
     }
 
     public void setAction(@Nullable NamedAction action)
@@ -146,6 +149,30 @@ public abstract class BaseActionExecutionWidget extends ContainerWidget
         return Collections.emptyList();
     }
 
+    /**
+     * @return the execution time statistics of the contained macros.
+     * In edit mode these are already included in the action hover info.
+     */
+    protected List<StyledTextLine> getMacroStatisticsLines()
+    {
+        if (this.isEditMode())
+        {
+            return Collections.emptyList();
+        }
+
+        List<StyledTextLine> lines = new ArrayList<>();
+
+        for (NamedAction action : this.actions)
+        {
+            if (action instanceof MacroAction)
+            {
+                ((MacroAction) action).getExecutionStatisticsTooltip(lines::add, 5);
+            }
+        }
+
+        return lines;
+    }
+
     public void setActionWidgetHoverText(@Nullable String hoverText)
     {
         if (org.apache.commons.lang3.StringUtils.isBlank(hoverText))
@@ -352,6 +379,15 @@ public abstract class BaseActionExecutionWidget extends ContainerWidget
             return false;
         }
 
+        int statisticsVersion = Registry.MACRO_EXECUTOR.getStatisticsVersion();
+
+        if (statisticsVersion != this.macroStatisticsVersion)
+        {
+            this.macroStatisticsVersion = statisticsVersion;
+            this.updateHoverTexts();
+            this.getHoverInfoFactory().markDirty();
+        }
+
         return super.shouldRenderHoverInfo(ctx);
     }
 
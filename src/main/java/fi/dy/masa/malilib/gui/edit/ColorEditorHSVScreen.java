@@ -1,6 +1,7 @@
 package fi.dy.masa.malilib.gui.edit;
 
 import java.awt.Color;
+import java.util.Arrays;
 import java.util.function.Consumer;
 import java.util.function.IntConsumer;
 import javax.annotation.Nullable;
@@ -9,6 +10,7 @@ import org.lwjgl.opengl.GL20;
 import net.minecraft.client.gui.GuiScreen;
 import net.minecraft.client.renderer.BufferBuilder;
 import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.OpenGlHelper;
 import net.minecraft.client.renderer.Tessellator;
 import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.util.math.MathHelper;
@@ -16,8 +18,12 @@ import fi.dy.masa.malilib.gui.BaseScreen;
 import fi.dy.masa.malilib.gui.util.ScreenContext;
 import fi.dy.masa.malilib.gui.widget.BaseTextFieldWidget;
 import fi.dy.masa.malilib.gui.widget.IntegerTextFieldWidget;
+import fi.dy.masa.malilib.render.GuiBatchRenderer;
 import fi.dy.masa.malilib.render.RenderUtils;
 import fi.dy.masa.malilib.render.ShapeRenderUtils;
+import fi.dy.masa.malilib.render.overlay.BaseRenderObject;
+import fi.dy.masa.malilib.render.overlay.DisplayListRenderObject;
+import fi.dy.masa.malilib.render.overlay.VboRenderObject;
 import fi.dy.masa.malilib.render.shader.ShaderProgram;
 import fi.dy.masa.malilib.util.data.Color4f;
 
@@ -29,6 +35,8 @@ public class ColorEditorHSVScreen extends BaseScreen
     protected final int initialValue;
     @Nullable protected Element clickedElement;
     @Nullable protected Element currentTextInputElement;
+    @Nullable protected BaseRenderObject cachedBars;
+    @Nullable protected int[] cachedBarsKey;
     protected BaseTextFieldWidget textFieldFullColor;
     protected BaseTextFieldWidget textFieldH;
     protected BaseTextFieldWidget textFieldS;
@@ -173,6 +181,7 @@ public class ColorEditorHSVScreen extends BaseScreen
     protected void onScreenClosed()
     {
         this.valueConsumer.accept(this.color);
+        this.deleteCachedBars();
 
         super.onScreenClosed();
     }
@@ -475,6 +484,8 @@ public class ColorEditorHSVScreen extends BaseScreen
         ShapeRenderUtils.renderOutline(cx - 1, cy - 1, z, cw + 2, ch + 2, 1, 0xC0FFFFFF); // current color indicator
         ShapeRenderUtils.renderOutline(this.xHFullSV, y - 1, z, this.widthHFullSV, this.sizeHS + 2, 1, 0xC0FFFFFF); // Hue vertical/full value
 
+        GuiBatchRenderer.INSTANCE.flush();
+
         Tessellator tessellator = Tessellator.getInstance();
         BufferBuilder buffer = tessellator.getBuffer();
 
@@ -501,98 +512,197 @@ public class ColorEditorHSVScreen extends BaseScreen
 
         GL20.glUseProgram(0);
 
+        // The color bars only change when the color or the layout changes,
+        // so they are built into a cached render object, and only the markers are re-built every frame
+        this.drawCachedBars(z);
+
         buffer.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_COLOR);
 
         int r = (int) (this.relR * 255f);
         int g = (int) (this.relG * 255f);
         int b = (int) (this.relB * 255f);
-        int a = 255;
+        int a = (int) (this.relA * 255f);
         int c = 255;
 
-        // Current color indicator
-        buffer.pos(cx     , cy     , z).color(r, g, b, a).endVertex();
-        buffer.pos(cx     , cy + ch, z).color(r, g, b, a).endVertex();
-        buffer.pos(cx + cw, cy + ch, z).color(r, g, b, a).endVertex();
-        buffer.pos(cx + cw, cy     , z).color(r, g, b, a).endVertex();
-
         // SV selection marker for saturation, horizontal marker, vertical range
         int yt = y + (int) ((1 - this.relS) * h);
-        buffer.pos(x - 1    , yt    , z).color(c, c, c, a).endVertex();
-        buffer.pos(x - 1    , yt + 1, z).color(c, c, c, a).endVertex();
-        buffer.pos(x + w + 1, yt + 1, z).color(c, c, c, a).endVertex();
-        buffer.pos(x + w + 1, yt    , z).color(c, c, c, a).endVertex();
+        buffer.pos(x - 1    , yt    , z).color(c, c, c, c).endVertex();
+        buffer.pos(x - 1    , yt + 1, z).color(c, c, c, c).endVertex();
+        buffer.pos(x + w + 1, yt + 1, z).color(c, c, c, c).endVertex();
+        buffer.pos(x + w + 1, yt    , z).color(c, c, c, c).endVertex();
 
         // SV selection marker for value, vertical marker, horizontal range
         int xt = x + (int) (this.relV * w);
-        buffer.pos(xt    , y - 1    , z).color(c, c, c, a).endVertex();
-        buffer.pos(xt    , y + h + 1, z).color(c, c, c, a).endVertex();
-        buffer.pos(xt + 1, y + h + 1, z).color(c, c, c, a).endVertex();
-        buffer.pos(xt + 1, y - 1    , z).color(c, c, c, a).endVertex();
+        buffer.pos(xt    , y - 1    , z).color(c, c, c, c).endVertex();
+        buffer.pos(xt    , y + h + 1, z).color(c, c, c, c).endVertex();
+        buffer.pos(xt + 1, y + h + 1, z).color(c, c, c, c).endVertex();
+        buffer.pos(xt + 1, y - 1    , z).color(c, c, c, c).endVertex();
 
         x = this.xH;
+        y = this.yH;
         w = this.widthSlider;
         h = this.heightSlider;
         yd = this.heightSlider + this.gapSlider;
 
+        renderBarMarkerVerticalBar(this.xHFullSV, this.yHS, z, this.widthHFullSV, this.sizeHS, this.relH, buffer);
+        renderBarMarkerHorizontalBar(x, y, z, w, h, this.relH, buffer);
+        y += yd;
+        renderBarMarkerHorizontalBar(x, y, z, w, h, this.relS, buffer);
+        y += yd;
+        renderBarMarkerHorizontalBar(x, y, z, w, h, this.relV, buffer);
+        y += yd;
+        renderBarMarkerHorizontalBar(x, y, z, w, h, (float) r / 255f, buffer);
+        y += yd;
+        renderBarMarkerHorizontalBar(x, y, z, w, h, (float) g / 255f, buffer);
+        y += yd;
+        renderBarMarkerHorizontalBar(x, y, z, w, h, (float) b / 255f, buffer);
+        y += yd;
+        renderBarMarkerHorizontalBar(x, y, z, w, h, (float) a / 255f, buffer);
+
+        tessellator.draw();
+
+        GlStateManager.shadeModel(GL11.GL_FLAT);
+        GlStateManager.enableAlpha();
+        GlStateManager.enableRescaleNormal();
+
+        GlStateManager.disableBlend();
+        GlStateManager.enableTexture2D();
+    }
+
+    protected int[] getCachedBarsKey(int z)
+    {
+        return new int[] { this.color, Float.floatToIntBits(this.relH), Float.floatToIntBits(this.relS),
+                           Float.floatToIntBits(this.relV), this.xH, this.yH, this.xHS, this.yHS, this.sizeHS,
+                           this.xHFullSV, this.widthHFullSV, this.widthSlider, this.heightSlider, this.gapSlider, z };
+    }
+
+    protected void drawCachedBars(int z)
+    {
+        int[] key = this.getCachedBarsKey(z);
+
+        if (this.cachedBars == null)
+        {
+            if (OpenGlHelper.useVbo())
+            {
+                this.cachedBars = new VboRenderObject(GL11.GL_QUADS, DefaultVertexFormats.POSITION_COLOR, VboRenderObject::setupArrayPointersPosColor);
+            }
+            else
+            {
+                this.cachedBars = new DisplayListRenderObject(GL11.GL_QUADS, DefaultVertexFormats.POSITION_COLOR);
+            }
+
+            this.cachedBarsKey = null;
+        }
+
+        if (Arrays.equals(key, this.cachedBarsKey) == false)
+        {
+            BufferBuilder buffer = Tessellator.getInstance().getBuffer();
+
+            buffer.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_COLOR);
+            this.buildBars(z, buffer);
+            buffer.finishDrawing();
+
+            this.cachedBars.uploadData(buffer);
+            this.cachedBarsKey = key;
+        }
+
+        boolean useVbo = this.cachedBars instanceof VboRenderObject;
+
+        if (useVbo)
+        {
+            GlStateManager.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+            GlStateManager.glEnableClientState(GL11.GL_COLOR_ARRAY);
+        }
+
+        this.cachedBars.draw();
+
+        if (useVbo)
+        {
+            OpenGlHelper.glBindBuffer(OpenGlHelper.GL_ARRAY_BUFFER, 0);
+            GlStateManager.resetColor();
+
+            GlStateManager.glDisableClientState(GL11.GL_VERTEX_ARRAY);
+            GlStateManager.glDisableClientState(GL11.GL_COLOR_ARRAY);
+        }
+    }
+
+    /**
+     * Builds the current color indicator and the color gradient bars, without the value markers
+     */
+    protected void buildBars(int z, BufferBuilder buffer)
+    {
+        int cx = this.xHS;
+        int cy = this.yHS + this.sizeHS + 8;
+        int cw = this.sizeHS;
+        int ch = 16;
+        int r = (int) (this.relR * 255f);
+        int g = (int) (this.relG * 255f);
+        int b = (int) (this.relB * 255f);
+        int a = 255;
+
+        // Current color indicator
+        buffer.pos(cx     , cy     , z).color(r, g, b, a).endVertex();
+        buffer.pos(cx     , cy + ch, z).color(r, g, b, a).endVertex();
+        buffer.pos(cx + cw, cy + ch, z).color(r, g, b, a).endVertex();
+        buffer.pos(cx + cw, cy     , z).color(r, g, b, a).endVertex();
+
+        int x = this.xH;
+        int y = this.yH;
+        int w = this.widthSlider;
+        int h = this.heightSlider;
+        int yd = this.heightSlider + this.gapSlider;
+
         // Full value Saturation & Value, Hue slider
         renderHueBarVertical(this.xHFullSV + 1, this.yHS, z, this.widthHFullSV - 2, this.sizeHS, 1f, 1f, buffer);
-        renderBarMarkerVerticalBar(this.xHFullSV, this.yHS, z, this.widthHFullSV, this.sizeHS, this.relH, buffer);
 
         // Hue slider
         renderHueBarHorizontal(x, y, z, w, h, this.relS, this.relV, buffer);
-        renderBarMarkerHorizontalBar(x, y, z, w, h, this.relH, buffer);
         y += yd;
 
         // Saturation slider
         int color1 = Color.HSBtoRGB(this.relH, 0, this.relV);
         int color2 = Color.HSBtoRGB(this.relH, 1, this.relV);
         renderGradientColorBar(x, y, z, w, h, color1, color2, buffer);
-        renderBarMarkerHorizontalBar(x, y, z, w, h, this.relS, buffer);
         y += yd;
 
         // Value/Brightness slider
         color1 = Color.HSBtoRGB(this.relH, this.relS, 0);
         color2 = Color.HSBtoRGB(this.relH, this.relS, 1);
         renderGradientColorBar(x, y, z, w, h, color1, color2, buffer);
-        renderBarMarkerHorizontalBar(x, y, z, w, h, this.relV, buffer);
         y += yd;
 
         // Red slider
         color1 = (this.color & 0xFF00FFFF) | 0xFF000000;
         color2 = this.color | 0xFFFF0000;
         renderGradientColorBar(x, y, z, w, h, color1, color2, buffer);
-        renderBarMarkerHorizontalBar(x, y, z, w, h, (float) r / 255f, buffer);
         y += yd;
 
         // Green slider
         color1 = (this.color & 0xFFFF00FF) | 0xFF000000;
         color2 = this.color | 0xFF00FF00;
         renderGradientColorBar(x, y, z, w, h, color1, color2, buffer);
-        renderBarMarkerHorizontalBar(x, y, z, w, h, (float) g / 255f, buffer);
         y += yd;
 
         // Blue slider
         color1 = (this.color & 0xFFFFFF00) | 0xFF000000;
         color2 = this.color | 0xFF0000FF;
         renderGradientColorBar(x, y, z, w, h, color1, color2, buffer);
-        renderBarMarkerHorizontalBar(x, y, z, w, h, (float) b / 255f, buffer);
         y += yd;
 
         // Alpha slider
-        a = (int) (this.relA * 255f);
         color1 = this.color & 0x00FFFFFF;
         color2 = this.color | 0xFF000000;
         renderGradientColorBar(x, y, z, w, h, color1, color2, buffer);
-        renderBarMarkerHorizontalBar(x, y, z, w, h, (float) a / 255f, buffer);
-
-        tessellator.draw();
-
-        GlStateManager.shadeModel(GL11.GL_FLAT);
-        GlStateManager.enableAlpha();
-        GlStateManager.enableRescaleNormal();
+    }
 
-        GlStateManager.disableBlend();
-        GlStateManager.enableTexture2D();
+    protected void deleteCachedBars()
+    {
+        if (this.cachedBars != null)
+        {
+            this.cachedBars.deleteGlResources();
+            this.cachedBars = null;
+            this.cachedBarsKey = null;
+        }
     }
 
     public static void renderGradientColorBar(int x, int y, float z, int width, int height, int colorStart, int colorEnd, BufferBuilder buffer)
@@ -76,6 +76,15 @@ public class GeometryResizeNotifier
         return this.heightSupplier.getAsInt();
     }
 
+    /**
+     * @return true if there is a delayed geometry change notification waiting,
+     *         which needs {@link #updateState()} to keep getting called until it fires
+     */
+    public boolean hasPendingDelayedUpdate()
+    {
+        return this.delayedGeometryUpdate;
+    }
+
     public void updateState()
     {
         if (this.needsDelayedGeometryUpdateNow())
@@ -0,0 +1,160 @@
+package fi.dy.masa.malilib.gui.util;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import javax.annotation.Nullable;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import fi.dy.masa.malilib.MaLiLib;
+import fi.dy.masa.malilib.gui.widget.BaseWidget;
+import fi.dy.masa.malilib.gui.widget.InteractableWidget;
+
+/**
+ * A spatial index for finding the top hovered widget from a list of widgets,
+ * without having to check every widget and all of their sub widgets on every mouse move.
+ * <br><br>
+ * Widgets whose hover area is contained within their own bounds (see {@link InteractableWidget#isHoverAreaWithinBounds()})
+ * are added to a uniform grid, and all the other widgets are always checked.
+ * The actual hover checks are still done by the widgets themselves, the index is only used to skip
+ * the widgets that can't be under the mouse cursor. The candidate widgets are checked in
+ * their original list order, so the result is the same as with {@link InteractableWidget#getTopHoveredWidgetFromList}.
+ * <br><br>
+ * The index is re-built lazily when the widget list or any widget positions or sizes
+ * have changed since it was built (see {@link BaseWidget#getGeometryVersion()}).
+ */
+public class HoveredWidgetIndex
+{
+    /** Below this many widgets it's just as fast to check all of them */
+    public static final int MIN_INDEXED_WIDGETS = 16;
+    protected static final ClassValue<Boolean> STATIC_HOVER_AREA_CLASSES = new ClassValue<Boolean>()
+    {
+        @Override
+        protected Boolean computeValue(Class<?> type)
+        {
+            return hasStaticHoverArea(type);
+        }
+    };
+
+    protected final RectangleGridIndex grid = new RectangleGridIndex(5, 64);
+    protected final IntArrayList candidates = new IntArrayList();
+    @Nullable protected List<? extends InteractableWidget> indexedList;
+    protected InteractableWidget[] widgets = new InteractableWidget[0];
+    protected int indexedListSize = -1;
+    protected int indexedGeometryVersion = -1;
+    protected int rebuildCount;
+
+    @Nullable
+    public InteractableWidget getTopHoveredWidget(List<? extends InteractableWidget> widgets,
+                                                  int mouseX, int mouseY,
+                                                  @Nullable InteractableWidget highestFoundWidget)
+    {
+        if (widgets.size() < MIN_INDEXED_WIDGETS)
+        {
+            return InteractableWidget.getTopHoveredWidgetFromList(widgets, mouseX, mouseY, highestFoundWidget);
+        }
+
+        this.updateIndex(widgets);
+
+        IntArrayList candidates = this.candidates;
+        candidates.clear();
+        this.grid.getCandidates(mouseX, mouseY, candidates);
+        final int size = candidates.size();
+
+        for (int i = 0; i < size; ++i)
+        {
+            highestFoundWidget = this.widgets[candidates.getInt(i)].getTopHoveredWidget(mouseX, mouseY, highestFoundWidget);
+        }
+
+        return highestFoundWidget;
+    }
+
+    protected void updateIndex(List<? extends InteractableWidget> widgets)
+    {
+        int geometryVersion = BaseWidget.getGeometryVersion();
+
+        if (widgets == this.indexedList &&
+            widgets.size() == this.indexedListSize &&
+            geometryVersion == this.indexedGeometryVersion)
+        {
+            return;
+        }
+
+        this.widgets = widgets.toArray(this.widgets.length >= widgets.size() ? this.widgets : new InteractableWidget[widgets.size()]);
+        this.grid.clear();
+
+        for (int i = 0; i < widgets.size(); ++i)
+        {
+            InteractableWidget widget = this.widgets[i];
+
+            if (isIndexable(widget))
+            {
+                this.grid.add(i, widget.getX(), widget.getY(), widget.getWidth(), widget.getHeight());
+            }
+            else
+            {
+                this.grid.addUnbounded(i);
+            }
+        }
+
+        this.indexedList = widgets;
+        this.indexedListSize = widgets.size();
+        this.indexedGeometryVersion = geometryVersion;
+        ++this.rebuildCount;
+    }
+
+    public void invalidate()
+    {
+        this.indexedList = null;
+        this.grid.clear();
+    }
+
+    public int getRebuildCount()
+    {
+        return this.rebuildCount;
+    }
+
+    /**
+     * @return true if the area where the given widget (or any of its sub widgets) can be hovered
+     *         is contained within the widget's own bounds, and the bounds can only change via the
+     *         position and size setters. Such widgets can be placed in the index.
+     */
+    public static boolean isIndexable(InteractableWidget widget)
+    {
+        return STATIC_HOVER_AREA_CLASSES.get(widget.getClass()) && widget.isHoverAreaWithinBounds();
+    }
+
+    /**
+     * Checks that the given widget class doesn't override any of the methods that affect the
+     * hover area, below the class that declares the {@link InteractableWidget#isHoverAreaWithinBounds()} method.
+     * Otherwise the class may have a custom hover area that its isHoverAreaWithinBounds() method doesn't know about.
+     */
+    protected static boolean hasStaticHoverArea(Class<?> clazz)
+    {
+        try
+        {
+            Class<?> boundsClass = clazz.getMethod("isHoverAreaWithinBounds").getDeclaringClass();
+            Method[] methods = new Method[] {
+                    clazz.getMethod("isMouseOver", int.class, int.class),
+                    clazz.getMethod("getTopHoveredWidget", int.class, int.class, InteractableWidget.class),
+                    clazz.getMethod("getX"),
+                    clazz.getMethod("getY"),
+                    clazz.getMethod("getWidth"),
+                    clazz.getMethod("getHeight")
+            };
+
+            for (Method method : methods)
+            {
+                if (method.getDeclaringClass().isAssignableFrom(boundsClass) == false)
+                {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+        catch (Exception e)
+        {
+            MaLiLib.LOGGER.warn("Failed to check the hover area methods of the widget class '{}'", clazz.getName(), e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package fi.dy.masa.malilib.gui.util;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+/**
+ * A uniform grid index of rectangles, identified by integer IDs.
+ * Each rectangle is added to all the grid cells it overlaps, so finding the rectangles
+ * that may contain a given point only needs to look at one cell.
+ * Rectangles that would cover a very large number of cells, and entries without
+ * known bounds, are kept in a separate list that is included in all the query results.
+ * <br><br>
+ * The IDs must be added in ascending order, and the query results are then also in ascending order.
+ */
+public class RectangleGridIndex
+{
+    protected final Long2ObjectOpenHashMap<IntArrayList> cells = new Long2ObjectOpenHashMap<>();
+    protected final IntArrayList unboundedIds = new IntArrayList();
+    protected final int cellSizeShift;
+    protected final int maxCellsPerEntry;
+
+    /**
+     * @param cellSizeShift the cell size as a power of two, for example 5 for 32 pixel cells
+     * @param maxCellsPerEntry the maximum number of cells to add a rectangle to,
+     *                         larger rectangles are added to the unbounded list instead
+     */
+    public RectangleGridIndex(int cellSizeShift, int maxCellsPerEntry)
+    {
+        this.cellSizeShift = cellSizeShift;
+        this.maxCellsPerEntry = maxCellsPerEntry;
+    }
+
+    public void clear()
+    {
+        this.cells.clear();
+        this.unboundedIds.clear();
+    }
+
+    /**
+     * Adds a rectangle that covers the area from x, y (inclusive) to x + width, y + height (exclusive)
+     */
+    public void add(int id, int x, int y, int width, int height)
+    {
+        if (width <= 0 || height <= 0)
+        {
+            return;
+        }
+
+        int cx1 = x >> this.cellSizeShift;
+        int cy1 = y >> this.cellSizeShift;
+        int cx2 = (x + width - 1) >> this.cellSizeShift;
+        int cy2 = (y + height - 1) >> this.cellSizeShift;
+
+        if ((long) (cx2 - cx1 + 1) * (long) (cy2 - cy1 + 1) > this.maxCellsPerEntry)
+        {
+            this.addUnbounded(id);
+            return;
+        }
+
+        for (int cy = cy1; cy <= cy2; ++cy)
+        {
+            for (int cx = cx1; cx <= cx2; ++cx)
+            {
+                IntArrayList list = this.cells.get(getCellKey(cx, cy));
+
+                if (list == null)
+                {
+                    list = new IntArrayList(4);
+                    this.cells.put(getCellKey(cx, cy), list);
+                }
+
+                list.add(id);
+            }
+        }
+    }
+
+    /**
+     * Adds an entry that will be included in the results of every query
+     */
+    public void addUnbounded(int id)
+    {
+        this.unboundedIds.add(id);
+    }
+
+    /**
+     * Adds the IDs of all the entries that may contain the given point to the output list, in ascending order
+     */
+    public void getCandidates(int x, int y, IntArrayList out)
+    {
+        IntArrayList cell = this.cells.get(getCellKey(x >> this.cellSizeShift, y >> this.cellSizeShift));
+        IntArrayList unbounded = this.unboundedIds;
+        int cellSize = cell != null ? cell.size() : 0;
+        int unboundedSize = unbounded.size();
+        int i1 = 0;
+        int i2 = 0;
+
+        // Merge the two sorted lists
+        while (i1 < cellSize && i2 < unboundedSize)
+        {
+            int id1 = cell.getInt(i1);
+            int id2 = unbounded.getInt(i2);
+
+            if (id1 < id2)
+            {
+                out.add(id1);
+                ++i1;
+            }
+            else
+            {
+                out.add(id2);
+                ++i2;
+            }
+        }
+
+        while (i1 < cellSize)
+        {
+            out.add(cell.getInt(i1++));
+        }
+
+        while (i2 < unboundedSize)
+        {
+            out.add(unbounded.getInt(i2++));
+        }
+    }
+
+    protected static long getCellKey(int cellX, int cellY)
+    {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+}
@@ -38,6 +38,7 @@ public class BaseWidget
     private static final ArrayListMultimap<Long, String> DEBUG_STRINGS = ArrayListMultimap.create();
     private static int lastDebugOutlineColorHue;
     private static int nextWidgetId;
+    private static int geometryVersion;
 
     protected final Minecraft mc = GameUtils.getClient();
     protected final EdgeInt margin = new EdgeInt();
@@ -222,6 +223,25 @@ public class BaseWidget
         return this.getPadding().getHorizontalTotal();
     }
 
+    /**
+     * Returns a counter that is incremented whenever the position or size of any widget is set,
+     * or when widgets are added to or removed from a screen or a container widget.
+     * This can be used to invalidate cached layout-dependent data, such as hit test indices.
+     */
+    public static int getGeometryVersion()
+    {
+        return geometryVersion;
+    }
+
+    /**
+     * Marks the widget geometry as changed, for example after changing
+     * the contents of a widget list without using the position or size setters.
+     */
+    public static void markGeometryChanged()
+    {
+        ++geometryVersion;
+    }
+
     protected int getNonContentHeight()
     {
         return this.getPadding().getVerticalTotal();
@@ -229,6 +249,7 @@ public class BaseWidget
 
     public void setX(int x)
     {
+        ++geometryVersion;
         int oldX = this.x;
         int oldY = this.y;
 
@@ -242,6 +263,7 @@ public class BaseWidget
 
     public void setY(int y)
     {
+        ++geometryVersion;
         int oldX = this.x;
         int oldY = this.y;
 
@@ -260,6 +282,7 @@ public class BaseWidget
 
     public void setPosition(int x, int y)
     {
+        ++geometryVersion;
         int oldX = this.x;
         int oldY = this.y;
 
@@ -279,12 +302,14 @@ public class BaseWidget
 
     public void setPositionNoUpdate(int x, int y)
     {
+        ++geometryVersion;
         this.x = x;
         this.y = y;
     }
 
     public void setPositionAndSize(int x, int y, int width, int height)
     {
+        ++geometryVersion;
         int oldX = this.x;
         int oldY = this.y;
 
@@ -298,6 +323,7 @@ public class BaseWidget
 
     public void setRight(int xRight)
     {
+        ++geometryVersion;
         int oldX = this.x;
         int oldY = this.y;
 
@@ -311,6 +337,7 @@ public class BaseWidget
 
     public void setBottom(int yBottom)
     {
+        ++geometryVersion;
         int oldX = this.x;
         int oldY = this.y;
 
@@ -324,6 +351,7 @@ public class BaseWidget
 
     public void setWidth(int width)
     {
+        ++geometryVersion;
         int old = this.width;
         this.width = width;
 
@@ -335,6 +363,7 @@ public class BaseWidget
 
     public void setHeight(int height)
     {
+        ++geometryVersion;
         int old = this.height;
         this.height = height;
 
@@ -346,6 +375,7 @@ public class BaseWidget
 
     public void setSize(int width, int height)
     {
+        ++geometryVersion;
         int oldWidth = this.width;
         int oldHeight = this.height;
 
@@ -360,16 +390,19 @@ public class BaseWidget
 
     public void setWidthNoUpdate(int width)
     {
+        ++geometryVersion;
         this.width = width;
     }
 
     public void setHeightNoUpdate(int height)
     {
+        ++geometryVersion;
         this.height = height;
     }
 
     public void setSizeNoUpdate(int width, int height)
     {
+        ++geometryVersion;
         this.width = width;
         this.height = height;
     }
@@ -833,6 +866,8 @@ public class BaseWidget
         float b = (float) (color       & 255) / 255.0F;
         float lineWidth = hovered ? 3f : 1.0f;
 
+        ctx.flushBatchedRendering();
+
         Tessellator tessellator = Tessellator.getInstance();
         BufferBuilder buffer = tessellator.getBuffer();
 
@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.function.Consumer;
 import javax.annotation.Nullable;
 import fi.dy.masa.malilib.gui.BaseScreen;
+import fi.dy.masa.malilib.gui.util.HoveredWidgetIndex;
 import fi.dy.masa.malilib.gui.util.ScreenContext;
 
 public class ContainerWidget extends InteractableWidget
@@ -25,12 +26,14 @@ public class ContainerWidget extends InteractableWidget
     public void clearWidgets()
     {
         this.subWidgets.clear();
+        BaseWidget.markGeometryChanged();
     }
 
     public <T extends InteractableWidget> T addWidget(T widget)
     {
         this.subWidgets.add(widget);
         this.onSubWidgetAdded(widget);
+        BaseWidget.markGeometryChanged();
 
         return widget;
     }
@@ -58,6 +61,7 @@ public class ContainerWidget extends InteractableWidget
     public void removeWidget(InteractableWidget widget)
     {
         this.subWidgets.remove(widget);
+        BaseWidget.markGeometryChanged();
     }
 
     /**
@@ -213,6 +217,29 @@ public class ContainerWidget extends InteractableWidget
         return false;
     }
 
+    @Override
+    public boolean isHoverAreaWithinBounds()
+    {
+        int x1 = this.getX();
+        int y1 = this.getY();
+        int x2 = x1 + this.getWidth();
+        int y2 = y1 + this.getHeight();
+
+        for (InteractableWidget widget : this.subWidgets)
+        {
+            int x = widget.getX();
+            int y = widget.getY();
+
+            if (x < x1 || y < y1 || x + widget.getWidth() > x2 || y + widget.getHeight() > y2 ||
+                HoveredWidgetIndex.isIndexable(widget) == false)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     @Override
     protected boolean onMouseClicked(int mouseX, int mouseY, int mouseButton)
     {
@@ -173,6 +173,17 @@ public abstract class InteractableWidget extends BackgroundWidget
                mouseY >= y && mouseY < y + this.getHeight();
     }
 
+    /**
+     * @return true if this widget (and any of its sub widgets) can only be hovered
+     *         within the bounds of this widget. This allows the widget to be placed in
+     *         a spatial index for the hovered widget lookups (see {@link fi.dy.masa.malilib.gui.util.HoveredWidgetIndex}).
+     *         Classes that extend the hover area outside of the widget bounds should override this.
+     */
+    public boolean isHoverAreaWithinBounds()
+    {
+        return true;
+    }
+
     public boolean tryMouseClick(int mouseX, int mouseY, int mouseButton)
     {
         if (this.getShouldReceiveOutsideClicks() || this.isMouseOver(mouseX, mouseY))
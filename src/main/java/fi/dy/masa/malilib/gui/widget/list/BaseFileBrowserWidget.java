@@ -4,19 +4,15 @@ import java.io.File;
 import java.io.FileFilter;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nullable;
 import com.google.common.collect.ImmutableList;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
-import org.apache.commons.lang3.tuple.Pair;
 import org.lwjgl.input.Keyboard;
 import fi.dy.masa.malilib.MaLiLibConfigs;
 import fi.dy.masa.malilib.gui.BaseScreen;
@@ -40,14 +36,15 @@ import fi.dy.masa.malilib.render.text.StyledText;
 import fi.dy.masa.malilib.render.text.StyledTextLine;
 import fi.dy.masa.malilib.util.DataIteratingTask;
 import fi.dy.masa.malilib.util.DirectoryCreator;
+import fi.dy.masa.malilib.util.DirectoryListingCache;
 import fi.dy.masa.malilib.util.FileNameUtils;
 import fi.dy.masa.malilib.util.FileUtils;
 
 public class BaseFileBrowserWidget extends DataListWidget<DirectoryEntry> implements DirectoryNavigator
 {
     public static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    protected static final long SCAN_WIDGET_UPDATE_INTERVAL_NANOS = 100000000L;
 
-    protected final Map<Pair<File, FileFilter>, List<File>> directoryContentsCache = new HashMap<>();
     protected final Object2IntOpenHashMap<File> keyboardNavigationPositions = new Object2IntOpenHashMap<>();
     protected final Object2IntOpenHashMap<File> scrollPositions = new Object2IntOpenHashMap<>();
     protected final Set<File> operatedOnFiles = new HashSet<>();
@@ -55,12 +52,16 @@ public class BaseFileBrowserWidget extends DataListWidget<DirectoryEntry> implem
     protected final File rootDirectory;
     @Nullable protected final DirectoryCache cache;
     @Nullable protected String rootDirectoryDisplayName;
+    @Nullable protected DirectoryScanTask directoryScanTask;
     protected FileFilter directoryFilter = FileUtils.DIRECTORY_FILTER;
     protected FileFilter fileFilter = FileUtils.ALWAYS_FALSE_FILEFILTER;
     protected String browserContext;
     protected File currentDirectory;
+    protected long lastScanWidgetUpdateTime;
     protected boolean allowFileOperations;
     protected boolean pendingOperationIsCut;
+    protected boolean restoreNavigationPositionAfterScan;
+    protected boolean scanWidgetUpdatePending;
     protected boolean rememberScrollPosition;
     protected boolean shouldStoreKeyboardNavigationPosition = true;
     protected boolean showFileSize;
@@ -108,6 +109,7 @@ public class BaseFileBrowserWidget extends DataListWidget<DirectoryEntry> implem
 
         this.setDataListEntryWidgetFactory((data, constructData) ->
                                     new DirectoryEntryWidget(data, constructData, this, iconProvider));
+        this.setAllowEntryWidgetRebinding(true);
         this.setWidgetInitializer(new DirectoryEntryWidget.WidgetInitializer());
 
         this.getBackgroundRenderer().getNormalSettings().setEnabledAndColor(true, 0xC0000000);
@@ -183,7 +185,6 @@ public class BaseFileBrowserWidget extends DataListWidget<DirectoryEntry> implem
     public void toggleShowHiddenFiles()
     {
         this.showHiddenFiles = ! this.showHiddenFiles;
-        this.directoryContentsCache.clear();
         this.refreshEntries();
     }
 
@@ -232,122 +233,184 @@ public class BaseFileBrowserWidget extends DataListWidget<DirectoryEntry> implem
         return this.filteredDataList;
     }
 
-    @Override
-    protected void fetchCurrentEntries()
+    /**
+     * @return true if the directory contents are still being scanned in the background
+     */
+    public boolean isScanningDirectory()
     {
-        this.directoryContentsCache.clear();
+        return this.directoryScanTask != null;
     }
 
     @Override
     protected void reAddFilteredEntries()
     {
+        this.cancelDirectoryScan();
         this.filteredDataList.clear();
+        this.scanWidgetUpdatePending = false;
 
         File dir = this.currentDirectory;
 
         if (dir.isDirectory() && dir.canRead())
         {
-            if (this.hasFilter())
+            List<String> searchTerms = this.hasFilter() ? this.getSearchTerms() : Collections.emptyList();
+            DirectoryScanTask task = this.createDirectoryScanTask(dir, searchTerms);
+            List<DirectoryEntry> cachedEntries = task.tryGetCachedEntries();
+
+            if (cachedEntries != null)
             {
-                this.addFilteredContents(dir);
+                this.filteredDataList.addAll(cachedEntries);
+                this.sortDirectoryListing();
             }
             else
             {
-                this.addNonFilteredContents(dir);
+                this.directoryScanTask = task;
+                task.start();
             }
         }
     }
 
-    protected void addNonFilteredContents(File dir)
+    protected DirectoryScanTask createDirectoryScanTask(File dir, List<String> searchTerms)
     {
-        List<DirectoryEntry> list = new ArrayList<>();
-
-        // Show directories at the top
-        this.addMatchingEntriesToList(dir, list, this.getDirectoryFilter(), Collections.emptyList(), null);
-        list.sort(this.activeListSortComparator);
-        this.filteredDataList.addAll(list);
-        list.clear();
-
-        this.addMatchingEntriesToList(dir, list, this.getFileFilter(), Collections.emptyList(), null);
-        this.sortEntryList(list);
-        this.filteredDataList.addAll(list);
+        return new DirectoryScanTask(dir, searchTerms,
+                                     this.getFileFilterObeyingHiddenFiles(this.getDirectoryFilter()),
+                                     this.getFileFilterObeyingHiddenFiles(this.getFileFilter()),
+                                     this.getFileFilterObeyingHiddenFiles(FileUtils.DIRECTORY_FILTER),
+                                     this.getComparator(),
+                                     this::onDirectoryScanBatch, this::onDirectoryScanFinished);
     }
 
-    protected void addFilteredContents(File dir)
+    protected void cancelDirectoryScan()
     {
-        String filterText = this.getSearchBarWidget().getFilter().toLowerCase();
-        List<String> searchTerms = Arrays.asList(filterText.split("\\|"));
-        List<DirectoryEntry> list = new ArrayList<>();
-        this.addFilteredContents(dir, searchTerms, list, null);
-        this.filteredDataList.addAll(list);
+        if (this.directoryScanTask != null)
+        {
+            this.directoryScanTask.cancel();
+            this.directoryScanTask = null;
+        }
     }
 
-    protected void addFilteredContents(File dir, List<String> searchTerms, List<DirectoryEntry> listOut, @Nullable String prefix)
+    protected void onDirectoryScanBatch(DirectoryScanTask task, List<DirectoryEntry> batch)
     {
-        List<DirectoryEntry> list = new ArrayList<>();
-        this.addMatchingEntriesToList(dir, list, this.getDirectoryFilter(), searchTerms, prefix);
-        list.sort(Comparator.comparing(e -> e.name.toLowerCase(Locale.ROOT)));
-        listOut.addAll(list);
-        list.clear();
+        if (task != this.directoryScanTask)
+        {
+            return;
+        }
+
+        boolean wasEmpty = this.filteredDataList.isEmpty();
 
-        for (File subDir : this.getContents(dir, FileUtils.DIRECTORY_FILTER))
+        // The search results arrive in their final order, but the plain listing is in the directory read order,
+        // so each batch is sorted and then merged into the already sorted entries
+        if (task.isSearch() == false)
+        {
+            this.mergeIntoDirectoryListing(batch);
+        }
+        else
         {
-            String pre;
+            this.filteredDataList.addAll(batch);
+        }
 
-            if (prefix != null)
-            {
-                pre = prefix + subDir.getName() + "/";
-            }
-            else
-            {
-                pre = subDir.getName() + "/";
-            }
+        // Re-creating the widgets for every batch would get slow in large directories,
+        // so the list is only updated for the first batch and then at most every 100 ms
+        long time = System.nanoTime();
 
-            this.addFilteredContents(subDir, searchTerms, list, pre);
-            this.sortEntryList(list);
-            listOut.addAll(list);
-            list.clear();
+        if (wasEmpty || time - this.lastScanWidgetUpdateTime >= SCAN_WIDGET_UPDATE_INTERVAL_NANOS)
+        {
+            this.lastScanWidgetUpdateTime = time;
+            this.updateScannedEntryWidgets();
         }
+        else
+        {
+            this.scanWidgetUpdatePending = true;
+        }
+    }
 
-        this.addMatchingEntriesToList(dir, list, this.getFileFilter(), searchTerms, prefix);
-        this.sortEntryList(list);
-        listOut.addAll(list);
+    protected void updateScannedEntryWidgets()
+    {
+        this.scanWidgetUpdatePending = false;
+        this.onEntriesRefreshed();
+        this.notifyListWidgetFactory();
+        this.reCreateListEntryWidgets();
     }
 
-    protected void addMatchingEntriesToList(final File dir, List<DirectoryEntry> outputList, final FileFilter filter,
-                                            List<String> searchTerms, @Nullable String displayNamePrefix)
+    protected void onDirectoryScanFinished(DirectoryScanTask task)
     {
-        for (File file : this.getContents(dir, filter))
+        if (task != this.directoryScanTask)
         {
-            String fileName = file.getName();
-            String entryString = FileNameUtils.getFileNameWithoutExtension(fileName.toLowerCase(Locale.ROOT));
+            return;
+        }
 
-            if (searchTerms.isEmpty() || this.fileNameMatchesFilter(entryString, searchTerms))
-            {
-                DirectoryEntryType type = DirectoryEntryType.fromFile(file);
-                outputList.add(new DirectoryEntry(type, dir, fileName, displayNamePrefix));
-            }
+        this.directoryScanTask = null;
+
+        if (task.isSearch() == false)
+        {
+            this.sortDirectoryListing();
+        }
+
+        if (this.scanWidgetUpdatePending)
+        {
+            this.updateScannedEntryWidgets();
+        }
+
+        // The list was still (partially) empty when the positions were originally restored
+        if (this.restoreNavigationPositionAfterScan)
+        {
+            this.restoreNavigationPositionAfterScan = false;
+            this.restoreScrollBarPosition(this.currentDirectory);
+            this.reCreateListEntryWidgets();
+            this.restoreKeyboardNavigationPosition(this.currentDirectory);
         }
     }
 
-    protected boolean fileNameMatchesFilter(String entryString, List<String> searchTerms)
+    /**
+     * Sorts the plain directory listing, with the directories at the top
+     */
+    protected void sortDirectoryListing()
     {
-        for (String searchTerm : searchTerms)
+        this.filteredDataList.sort(this.getDirectoryListingComparator());
+    }
+
+    /**
+     * Sorts the given batch of entries, and merges it into the already sorted directory listing
+     */
+    protected void mergeIntoDirectoryListing(List<DirectoryEntry> batch)
+    {
+        Comparator<DirectoryEntry> comparator = this.getDirectoryListingComparator();
+        List<DirectoryEntry> sortedBatch = new ArrayList<>(batch);
+        List<DirectoryEntry> existing = new ArrayList<>(this.filteredDataList);
+        sortedBatch.sort(comparator);
+
+        this.filteredDataList.clear();
+        this.filteredDataList.ensureCapacity(existing.size() + sortedBatch.size());
+
+        int i1 = 0;
+        int i2 = 0;
+
+        while (i1 < existing.size() && i2 < sortedBatch.size())
         {
-            if (entryString.contains(searchTerm))
+            if (comparator.compare(sortedBatch.get(i2), existing.get(i1)) < 0)
             {
-                return true;
+                this.filteredDataList.add(sortedBatch.get(i2++));
+            }
+            else
+            {
+                this.filteredDataList.add(existing.get(i1++));
             }
         }
 
-        return false;
+        this.filteredDataList.addAll(existing.subList(i1, existing.size()));
+        this.filteredDataList.addAll(sortedBatch.subList(i2, sortedBatch.size()));
     }
 
-    protected List<File> getContents(final File dir, FileFilter filter)
+    protected Comparator<DirectoryEntry> getDirectoryListingComparator()
     {
-        final FileFilter finalFilter = this.getFileFilterObeyingHiddenFiles(filter);
-        Pair<File, FileFilter> cacheKey = Pair.of(dir, finalFilter); // FIXME this won't work now...
-        return this.directoryContentsCache.computeIfAbsent(cacheKey, (k) -> Arrays.asList(dir.listFiles(finalFilter)));
+        Comparator<DirectoryEntry> comparator = Comparator.comparing((e) -> e.getType() != DirectoryEntryType.DIRECTORY);
+        Comparator<DirectoryEntry> sortComparator = this.getComparator();
+
+        if (sortComparator != null)
+        {
+            comparator = comparator.thenComparing(sortComparator);
+        }
+
+        return comparator;
     }
 
     protected FileFilter getFileFilterObeyingHiddenFiles(FileFilter original)
@@ -631,8 +694,15 @@ public class BaseFileBrowserWidget extends DataListWidget<DirectoryEntry> implem
 
     protected void endFileOperation()
     {
+        // The watch service notifications arrive asynchronously, so invalidate the affected directories right away
+        DirectoryListingCache.INSTANCE.invalidate(this.currentDirectory);
+
+        for (File file : this.operatedOnFiles)
+        {
+            DirectoryListingCache.INSTANCE.invalidate(file.getParentFile());
+        }
+
         this.operatedOnFiles.clear();
-        this.directoryContentsCache.clear();
         this.getEntrySelectionHandler().clearSelection();
         this.pendingOperationIsCut = false;
         this.refreshEntries();
@@ -674,12 +744,12 @@ public class BaseFileBrowserWidget extends DataListWidget<DirectoryEntry> implem
 
         this.resetScrollBarPositionWithoutNotify();
         this.restoreScrollBarPosition(dir);
-        this.directoryContentsCache.clear();
 
         this.refreshEntries();
         this.updateDirectoryNavigationWidget();
         // The index needs to be restored after the entries have been refreshed
         this.restoreKeyboardNavigationPosition(this.currentDirectory);
+        this.restoreNavigationPositionAfterScan = this.isScanningDirectory();
 
         if (hadSelection)
         {
@@ -709,6 +779,13 @@ public class BaseFileBrowserWidget extends DataListWidget<DirectoryEntry> implem
         }
     }
 
+    @Override
+    public void onScreenClosed()
+    {
+        this.cancelDirectoryScan();
+        super.onScreenClosed();
+    }
+
     @Override
     protected boolean onMouseClicked(int mouseX, int mouseY, int mouseButton)
     {
@@ -769,6 +846,7 @@ public class BaseFileBrowserWidget extends DataListWidget<DirectoryEntry> implem
         protected final DirectoryEntryType type;
         protected final File dir;
         protected final String name;
+        protected final String lowerCaseName;
         @Nullable protected final String displayNamePrefix;
 
         public DirectoryEntry(DirectoryEntryType type, File dir, String name, @Nullable String displayNamePrefix)
@@ -776,6 +854,7 @@ public class BaseFileBrowserWidget extends DataListWidget<DirectoryEntry> implem
             this.type = type;
             this.dir = dir;
             this.name = name;
+            this.lowerCaseName = name.toLowerCase(Locale.US);
             this.displayNamePrefix = displayNamePrefix;
         }
 
@@ -813,7 +892,7 @@ public class BaseFileBrowserWidget extends DataListWidget<DirectoryEntry> implem
         @Override
         public int compareTo(DirectoryEntry other)
         {
-            return this.name.toLowerCase(Locale.US).compareTo(other.getName().toLowerCase(Locale.US));
+            return this.lowerCaseName.compareTo(other.lowerCaseName);
         }
     }
 
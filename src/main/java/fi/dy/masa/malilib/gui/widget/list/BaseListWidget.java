@@ -8,11 +8,14 @@ import javax.annotation.Nullable;
 import org.lwjgl.input.Keyboard;
 import net.minecraft.client.gui.GuiScreen;
 import net.minecraft.util.math.MathHelper;
+import fi.dy.masa.malilib.MaLiLibConfigs;
 import fi.dy.masa.malilib.gui.BaseScreen;
 import fi.dy.masa.malilib.gui.icon.DefaultIcons;
 import fi.dy.masa.malilib.gui.util.GuiUtils;
+import fi.dy.masa.malilib.gui.util.HoveredWidgetIndex;
 import fi.dy.masa.malilib.gui.util.ScreenContext;
 import fi.dy.masa.malilib.gui.widget.BaseTextFieldWidget;
+import fi.dy.masa.malilib.gui.widget.BaseWidget;
 import fi.dy.masa.malilib.gui.widget.ContainerWidget;
 import fi.dy.masa.malilib.gui.widget.InteractableWidget;
 import fi.dy.masa.malilib.gui.widget.ScrollBarWidget;
@@ -27,6 +30,9 @@ import fi.dy.masa.malilib.util.data.EdgeInt;
 public abstract class BaseListWidget extends ContainerWidget implements ListEntryWidgetFactory
 {
     protected final EdgeInt listPosition = new EdgeInt(2, 2, 2, 2);
+    protected final ListEntryWidgetPool entryWidgetPool = new ListEntryWidgetPool();
+    protected final EntryHeightIndex entryHeightIndex = new EntryHeightIndex();
+    protected final HoveredWidgetIndex entryWidgetHoverIndex = new HoveredWidgetIndex();
     protected final ScrollBarWidget scrollBar;
     protected ListEntryWidgetFactory listEntryWidgetFactory;
 
@@ -47,8 +53,10 @@ public abstract class BaseListWidget extends ContainerWidget implements ListEntr
     protected int requestedScrollBarPosition = -1;
     protected int visibleListEntries;
 
+    protected boolean allowEntryWidgetRebinding;
     protected boolean allowKeyboardNavigation;
     protected boolean areEntriesFixedHeight = true;
+    protected boolean entryHeightIndexDirty = true;
 
     public BaseListWidget(int width, int height)
     {
@@ -75,6 +83,17 @@ public abstract class BaseListWidget extends ContainerWidget implements ListEntr
         this.allowKeyboardNavigation = allowKeyboardNavigation;
     }
 
+    /**
+     * Allows the pooled entry widgets to be re-bound to different data entries
+     * (see {@link fi.dy.masa.malilib.gui.widget.list.entry.BaseDataListEntryWidget#rebind}).
+     * This must only be enabled if the entry widget factory of this list would create
+     * the same type of widget, with the same settings, for all the data entries.
+     */
+    public void setAllowEntryWidgetRebinding(boolean allowEntryWidgetRebinding)
+    {
+        this.allowEntryWidgetRebinding = allowEntryWidgetRebinding;
+    }
+
     public void setRequestedScrollBarPosition(int position)
     {
         this.requestedScrollBarPosition = position;
@@ -197,7 +216,11 @@ public abstract class BaseListWidget extends ContainerWidget implements ListEntr
         final int count = this.getFactoryTotalListWidgetCount();
         int totalHeight = 0;
 
-        if (this.visibleListEntries < count)
+        if (this.areEntriesFixedHeight == false)
+        {
+            totalHeight = this.getEntryHeightIndex().getTotalHeight();
+        }
+        else if (this.visibleListEntries < count)
         {
             // There is no other way than to assume a fixed height here, since all the widgets don't exist at once
             totalHeight += count * this.entryWidgetFixedHeight;
@@ -225,14 +248,114 @@ public abstract class BaseListWidget extends ContainerWidget implements ListEntr
 
     protected int getHeightForExistingListEntryWidget(int listIndex)
     {
-        if (this.areEntriesFixedHeight || listIndex >= this.getEntryWidgetList().size())
+        if (this.areEntriesFixedHeight)
         {
             return this.entryWidgetFixedHeight;
         }
         else
         {
-            return this.getEntryWidgetList().get(listIndex).getHeight();
+            return this.getEntryHeightIndex().getHeight(listIndex);
+        }
+    }
+
+    /**
+     * @return the height index of the list entries, for lists with variable height entries.
+     * The index gets re-built lazily after the list entries have been refreshed.
+     */
+    protected EntryHeightIndex getEntryHeightIndex()
+    {
+        int count = this.getFactoryTotalListWidgetCount();
+
+        if (this.entryHeightIndexDirty || this.entryHeightIndex.getCount() != count)
+        {
+            this.entryHeightIndex.rebuild(count, this::getHeightForListEntryWidgetCreation);
+            this.entryHeightIndexDirty = false;
+        }
+
+        return this.entryHeightIndex;
+    }
+
+    /**
+     * Updates the height of one entry in the height index, for lists with variable height entries.
+     * This should be called when the height of an individual entry changes, instead of
+     * refreshing the whole list. The widgets get re-created if the entry is currently visible.
+     */
+    public void onEntryHeightChanged(int listIndex)
+    {
+        if (this.areEntriesFixedHeight)
+        {
+            return;
+        }
+
+        this.getEntryHeightIndex().setHeight(listIndex, this.getHeightForListEntryWidgetCreation(listIndex));
+        int startIndex = this.getListStartIndex();
+
+        if (listIndex >= startIndex && listIndex < startIndex + this.visibleListEntries)
+        {
+            this.reCreateListEntryWidgets();
+        }
+        else
+        {
+            this.clampScrollBarPosition();
+            this.updateScrollBarHeight();
+        }
+    }
+
+    /**
+     * @return the list index of the entry at the given y-offset from the top of the entire list
+     */
+    public int getListIndexAtScrollOffset(int offset)
+    {
+        if (this.areEntriesFixedHeight)
+        {
+            int count = this.getFactoryTotalListWidgetCount();
+            return count > 0 ? MathHelper.clamp(offset / this.entryWidgetFixedHeight, 0, count - 1) : -1;
+        }
+
+        return this.getEntryHeightIndex().getIndexAtOffset(offset);
+    }
+
+    /**
+     * @return the y-offset of the top edge of the given entry, from the top of the entire list
+     */
+    public int getScrollOffsetForListIndex(int listIndex)
+    {
+        if (this.areEntriesFixedHeight)
+        {
+            return listIndex * this.entryWidgetFixedHeight;
+        }
+
+        return this.getEntryHeightIndex().getOffset(listIndex);
+    }
+
+    /**
+     * @return the largest list start index (ie. the scroll bar value) at which the list area is still filled
+     */
+    protected int getMaxListStartIndex()
+    {
+        if (this.areEntriesFixedHeight)
+        {
+            int expectedVisibleEntries = this.entryWidgetFixedHeight > 0 ? this.listHeight / this.entryWidgetFixedHeight : 10;
+            return this.getFactoryTotalListWidgetCount() - expectedVisibleEntries;
+        }
+
+        EntryHeightIndex index = this.getEntryHeightIndex();
+        int maxOffset = index.getTotalHeight() - this.listHeight;
+
+        if (maxOffset <= 0)
+        {
+            return 0;
+        }
+
+        // The first entry that starts at or after the max offset, so that the last entry fits fully
+        int listIndex = index.getIndexAtOffset(maxOffset);
+
+        if (index.getOffset(listIndex) < maxOffset)
+        {
+            ++listIndex;
         }
+
+        return listIndex;
     }
 
     protected int getListMaxWidthForTotalWidth(int width)
@@ -624,16 +747,45 @@ public abstract class BaseListWidget extends ContainerWidget implements ListEntr
             }
             else
             {
-                for (BaseListEntryWidget widget : this.getEntryWidgetList())
-                {
-                    if (widget.isMouseOver(mouseX, mouseY))
-                    {
-                        return widget;
-                    }
-                }
+                return this.getHoveredVariableHeightListWidget(mouseX, mouseY);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Finds the hovered entry widget with a binary search by the y-position,
+     * as the entry widgets are in order from top to bottom.
+     */
+    @Nullable
+    protected BaseListEntryWidget getHoveredVariableHeightListWidget(int mouseX, int mouseY)
+    {
+        List<BaseListEntryWidget> list = this.getEntryWidgetList();
+        int low = 0;
+        int high = list.size() - 1;
+
+        while (low <= high)
+        {
+            int mid = (low + high) >>> 1;
+
+            if (list.get(mid).getY() <= mouseY)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid - 1;
             }
         }
 
+        // high is now the index of the last widget that starts at or above the mouse position
+        if (high >= 0)
+        {
+            BaseListEntryWidget widget = list.get(high);
+            return widget.isMouseOver(mouseX, mouseY) ? widget : null;
+        }
+
         return null;
     }
 
@@ -641,10 +793,38 @@ public abstract class BaseListWidget extends ContainerWidget implements ListEntr
     public InteractableWidget getTopHoveredWidget(int mouseX, int mouseY, InteractableWidget highestFoundWidget)
     {
         highestFoundWidget = super.getTopHoveredWidget(mouseX, mouseY, highestFoundWidget);
-        highestFoundWidget = InteractableWidget.getTopHoveredWidgetFromList(this.getEntryWidgetList(), mouseX, mouseY, highestFoundWidget);
+        highestFoundWidget = this.entryWidgetHoverIndex.getTopHoveredWidget(this.getEntryWidgetList(), mouseX, mouseY, highestFoundWidget);
         return highestFoundWidget;
     }
 
+    @Override
+    public boolean isHoverAreaWithinBounds()
+    {
+        if (super.isHoverAreaWithinBounds() == false)
+        {
+            return false;
+        }
+
+        int x1 = this.getX();
+        int y1 = this.getY();
+        int x2 = x1 + this.getWidth();
+        int y2 = y1 + this.getHeight();
+
+        for (BaseListEntryWidget widget : this.getEntryWidgetList())
+        {
+            int x = widget.getX();
+            int y = widget.getY();
+
+            if (x < x1 || y < y1 || x + widget.getWidth() > x2 || y + widget.getHeight() > y2 ||
+                HoveredWidgetIndex.isIndexable(widget) == false)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     @Override
     public List<BaseTextFieldWidget> getAllTextFields()
     {
@@ -711,6 +891,8 @@ public abstract class BaseListWidget extends ContainerWidget implements ListEntr
 
     protected void onEntriesRefreshed()
     {
+        this.entryHeightIndexDirty = true;
+        this.entryWidgetPool.disallowSameDataReuse();
         this.updateWidgetInitializer();
 
         if (this.entryRefreshListener != null)
@@ -733,8 +915,7 @@ public abstract class BaseListWidget extends ContainerWidget implements ListEntr
 
     protected void clampScrollBarPosition()
     {
-        int expectedVisibleEntries = this.entryWidgetFixedHeight > 0 ? this.listHeight / this.entryWidgetFixedHeight : 10;
-        int max = this.getFactoryTotalListWidgetCount() - expectedVisibleEntries;
+        int max = this.getMaxListStartIndex();
         this.scrollBar.setMaxValueNoNotify(max);
 
         // This "request" workaround is needed because the ConfigScreenTabButtonListener
@@ -754,26 +935,45 @@ public abstract class BaseListWidget extends ContainerWidget implements ListEntr
 
     public void reCreateListEntryWidgets()
     {
-        for (BaseListEntryWidget widget : this.getEntryWidgetList())
-        {
-            widget.onAboutToDestroy();
-        }
-
         this.clampScrollBarPosition();
 
         int startIndex = this.getListStartIndex();
 
+        // The pool calls onAboutToDestroy() on the widgets that it doesn't get to re-use
+        if (MaLiLibConfigs.Generic.LIST_WIDGET_RECYCLING.getBooleanValue())
+        {
+            int expectedLastIndex = startIndex + Math.max(this.visibleListEntries, 1) - 1;
+            this.entryWidgetPool.addWidgets(this.getEntryWidgetList(), expectedLastIndex, this.allowEntryWidgetRebinding);
+        }
+        else
+        {
+            for (BaseListEntryWidget widget : this.getEntryWidgetList())
+            {
+                widget.onAboutToDestroy();
+            }
+        }
+
         this.getEntryWidgetList().clear();
         this.onPreListEntryWidgetsCreation(startIndex);
 
         this.listEntryWidgetFactory.createEntryWidgets(this.entryWidgetStartX, this.entryWidgetStartY,
                                                        this.listHeight, startIndex, this::addNewEntryWidget);
 
+        this.entryWidgetPool.finishPass();
         this.visibleListEntries = this.getEntryWidgetList().size();
+        BaseWidget.markGeometryChanged();
 
         this.onListEntryWidgetsCreated();
     }
 
+    /**
+     * @return the entry widget pool, which also has the widget allocation statistics
+     */
+    public ListEntryWidgetPool getEntryWidgetPool()
+    {
+        return this.entryWidgetPool;
+    }
+
     protected int getFactoryTotalListWidgetCount()
     {
         return this.listEntryWidgetFactory.getTotalListWidgetCount();
@@ -858,5 +1058,15 @@ public abstract class BaseListWidget extends ContainerWidget implements ListEntr
         super.renderDebug(hovered, ctx);
 
         BaseScreen.renderWidgetDebug(this.getEntryWidgetList(), ctx);
+
+        if (hovered)
+        {
+            ListEntryWidgetPool pool = this.entryWidgetPool;
+            String str = String.format("entry widgets - created: %d, reused: %d, rebound: %d, discarded: %d",
+                                       pool.getCreatedWidgetCount(), pool.getReusedWidgetCount(),
+                                       pool.getReboundWidgetCount(), pool.getDiscardedWidgetCount());
+            addDebugText(ctx.mouseX, ctx.mouseY + 12, this.getX(), this.getY(), this.getZ(),
+                         this.getWidth(), this.getHeight(), str);
+        }
     }
 }
@@ -27,6 +27,7 @@ import fi.dy.masa.malilib.util.data.ModInfo;
 public class ConfigOptionListWidget<C extends ConfigInfo> extends DataListWidget<C>
 {
     protected final Map<ConfigsSearchBarWidget.Scope, List<ConfigOnTab>> cachedConfigs = new HashMap<>();
+    protected final Map<ConfigsSearchBarWidget.Scope, ArrayList<C>> cachedConfigLists = new HashMap<>();
     protected final ModInfo modInfo;
     protected final IntSupplier defaultElementWidthSupplier;
     @Nullable protected ConfigsSearchBarWidget configsSearchBarWidget;
@@ -47,6 +48,7 @@ public class ConfigOptionListWidget<C extends ConfigInfo> extends DataListWidget
 
         this.setDataListEntryWidgetFactory(new ConfigOptionListEntryWidgetFactory<>(ctx));
         this.setEntryFilterStringFunction(ConfigInfo::getSearchStrings);
+        this.setUseSearchIndex(true);
         this.getBorderRenderer().getNormalSettings().setBorderWidth(0);
 
         this.listPosition.setTop(0);
@@ -144,10 +146,9 @@ public class ConfigOptionListWidget<C extends ConfigInfo> extends DataListWidget
     }
 
     @Override
-    protected boolean entryMatchesFilter(C entry, List<String> searchTerms)
+    protected boolean entryPassesAdditionalFilters(C entry)
     {
-        return super.entryMatchesFilter(entry, searchTerms) &&
-               (this.configsSearchBarWidget == null || this.configsSearchBarWidget.passesFilter(entry));
+        return this.configsSearchBarWidget == null || this.configsSearchBarWidget.passesFilter(entry);
     }
 
     @Override
@@ -231,15 +232,25 @@ public class ConfigOptionListWidget<C extends ConfigInfo> extends DataListWidget
             }
 
             this.cachedConfigs.put(scope, configsInScope);
+            this.cachedConfigLists.remove(scope);
         }
 
-        ArrayList<C> list = new ArrayList<>();
+        // The same list instance is returned until the cache is cleared,
+        // so that the search index doesn't need to be re-built on every search
+        ArrayList<C> list = this.cachedConfigLists.get(scope);
 
-        for (ConfigOnTab cfg : configsInScope)
+        if (list == null)
         {
-            @SuppressWarnings("unchecked")
-            C c = (C) cfg.getConfig();
-            list.add(c);
+            list = new ArrayList<>();
+
+            for (ConfigOnTab cfg : configsInScope)
+            {
+                @SuppressWarnings("unchecked")
+                C c = (C) cfg.getConfig();
+                list.add(c);
+            }
+
+            this.cachedConfigLists.put(scope, list);
         }
 
         return list;
@@ -251,6 +262,7 @@ public class ConfigOptionListWidget<C extends ConfigInfo> extends DataListWidget
     public void clearConfigSearchCache()
     {
         this.cachedConfigs.clear();
+        this.cachedConfigLists.clear();
     }
 
     public static <C extends ConfigInfo>
@@ -0,0 +1,221 @@
+package fi.dy.masa.malilib.gui.widget.list;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+/**
+ * A search index for the entries of a {@link DataListWidget}.
+ * The lower case search strings of all the entries are built once when the index is created,
+ * and a trigram index is built from them, so that search terms of at least three characters
+ * only need to check the entries that contain all the trigrams of the search term.
+ * <br><br>
+ * When the search text is just extended from the previous search (ie. when typing),
+ * only the entries that matched the previous search are checked again.
+ */
+public class DataListSearchIndex<DATATYPE>
+{
+    protected static final int NGRAM_LENGTH = 3;
+    protected static final char SEPARATOR = '\u0000';
+
+    protected final List<DATATYPE> entries;
+    protected final int size;
+    protected final String[] searchStrings;
+    protected final Long2ObjectOpenHashMap<IntArrayList> ngramIndex = new Long2ObjectOpenHashMap<>();
+    protected final IntArrayList lastMatches = new IntArrayList();
+    @Nullable protected String lastFilterText;
+
+    public DataListSearchIndex(List<DATATYPE> entries, Function<DATATYPE, List<String>> searchStringFunction)
+    {
+        final int size = entries.size();
+
+        this.entries = entries;
+        this.size = size;
+        this.searchStrings = new String[size];
+
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < size; ++i)
+        {
+            sb.setLength(0);
+
+            // All the search strings of an entry are joined with a separator that can't be
+            // part of the search terms, so a single contains() check can match any of them
+            for (String str : searchStringFunction.apply(entries.get(i)))
+            {
+                if (sb.length() > 0)
+                {
+                    sb.append(SEPARATOR);
+                }
+
+                sb.append(str.toLowerCase(Locale.ROOT));
+            }
+
+            String searchString = sb.toString();
+            this.searchStrings[i] = searchString;
+            this.addNgrams(i, searchString);
+        }
+    }
+
+    protected void addNgrams(int entryIndex, String searchString)
+    {
+        final int end = searchString.length() - NGRAM_LENGTH;
+
+        for (int i = 0; i <= end; ++i)
+        {
+            IntArrayList list = this.ngramIndex.computeIfAbsent(getNgramKey(searchString, i), (k) -> new IntArrayList(4));
+
+            // The entries are added in order, so any duplicates are always at the end of the list
+            if (list.isEmpty() || list.getInt(list.size() - 1) != entryIndex)
+            {
+                list.add(entryIndex);
+            }
+        }
+    }
+
+    /**
+     * @return true if this index was built from the given list, and the list size hasn't changed since
+     */
+    public boolean isValidFor(List<DATATYPE> entries)
+    {
+        return this.entries == entries && this.size == entries.size();
+    }
+
+    /**
+     * Finds all the entries that have a search string containing any of the given search terms.
+     * @param filterText the full, lower case search text, used to check if the previous results can be refined
+     * @param searchTerms the lower case search terms
+     * @return the matching entry indices, in ascending order
+     */
+    public IntArrayList search(String filterText, List<String> searchTerms)
+    {
+        IntArrayList matches = new IntArrayList();
+
+        if (this.canRefinePreviousSearch(filterText))
+        {
+            final int count = this.lastMatches.size();
+
+            for (int i = 0; i < count; ++i)
+            {
+                int entryIndex = this.lastMatches.getInt(i);
+
+                if (matchesAny(this.searchStrings[entryIndex], searchTerms))
+                {
+                    matches.add(entryIndex);
+                }
+            }
+        }
+        else if (searchTerms.isEmpty())
+        {
+            for (int i = 0; i < this.size; ++i)
+            {
+                matches.add(i);
+            }
+        }
+        else
+        {
+            BitSet matchingEntries = new BitSet(this.size);
+
+            for (String searchTerm : searchTerms)
+            {
+                this.markMatchingEntries(searchTerm, matchingEntries);
+            }
+
+            for (int i = matchingEntries.nextSetBit(0); i >= 0; i = matchingEntries.nextSetBit(i + 1))
+            {
+                matches.add(i);
+            }
+        }
+
+        this.lastFilterText = filterText;
+        this.lastMatches.clear();
+        this.lastMatches.addAll(matches);
+
+        return matches;
+    }
+
+    /**
+     * Appending characters (other than the term separator) to the search text can only
+     * remove results, so in that case only the previous results need to be checked again.
+     */
+    protected boolean canRefinePreviousSearch(String filterText)
+    {
+        String last = this.lastFilterText;
+
+        return last != null &&
+               last.isEmpty() == false &&
+               filterText.startsWith(last) &&
+               last.charAt(last.length() - 1) != '|' &&
+               filterText.indexOf('|', last.length()) == -1;
+    }
+
+    protected void markMatchingEntries(String searchTerm, BitSet matchingEntries)
+    {
+        final int termLength = searchTerm.length();
+
+        if (termLength < NGRAM_LENGTH)
+        {
+            for (int i = 0; i < this.size; ++i)
+            {
+                if (this.searchStrings[i].contains(searchTerm))
+                {
+                    matchingEntries.set(i);
+                }
+            }
+
+            return;
+        }
+
+        // Only the entries that contain the rarest trigram of the search term need to be checked
+        IntArrayList candidates = null;
+
+        for (int i = 0; i <= termLength - NGRAM_LENGTH; ++i)
+        {
+            IntArrayList list = this.ngramIndex.get(getNgramKey(searchTerm, i));
+
+            if (list == null)
+            {
+                return;
+            }
+
+            if (candidates == null || list.size() < candidates.size())
+            {
+                candidates = list;
+            }
+        }
+
+        final int count = candidates.size();
+
+        for (int i = 0; i < count; ++i)
+        {
+            int entryIndex = candidates.getInt(i);
+
+            if (matchingEntries.get(entryIndex) == false && this.searchStrings[entryIndex].contains(searchTerm))
+            {
+                matchingEntries.set(entryIndex);
+            }
+        }
+    }
+
+    protected static boolean matchesAny(String searchString, List<String> searchTerms)
+    {
+        for (String searchTerm : searchTerms)
+        {
+            if (searchString.contains(searchTerm))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    protected static long getNgramKey(String str, int start)
+    {
+        return ((long) str.charAt(start) << 32) | ((long) str.charAt(start + 1) << 16) | (long) str.charAt(start + 2);
+    }
+}
@@ -41,11 +41,14 @@ public class DataListWidget<DATATYPE> extends BaseListWidget
     @Nullable protected DataColumn<DATATYPE> defaultSortColumn;
     @Nullable protected Comparator<DATATYPE> activeListSortComparator;
     @Nullable protected Comparator<DATATYPE> defaultListSortComparator;
+    @Nullable protected DataListSearchIndex<DATATYPE> searchIndex;
 
     protected boolean fetchFromSupplierOnRefresh;
     protected boolean filterMatchesEmptyEntry;
     protected boolean hasDataColumns;
     protected boolean shouldSortList;
+    protected boolean useDefaultEntryFilter = true;
+    protected boolean useSearchIndex;
 
     public DataListWidget(Supplier<List<DATATYPE>> entrySupplier, boolean fetchFromSupplierOnRefresh)
     {
@@ -81,9 +84,15 @@ public class DataListWidget<DATATYPE> extends BaseListWidget
         return this;
     }
 
+    /**
+     * Sets the entry widget factory. This also disables the re-binding of the pooled entry widgets,
+     * because it's not known whether the new factory creates the same widgets for all the entries.
+     * The re-binding can be enabled again via {@link #setAllowEntryWidgetRebinding(boolean)}.
+     */
     public DataListWidget<DATATYPE> setDataListEntryWidgetFactory(@Nullable DataListEntryWidgetFactory<DATATYPE> dataListEntryWidgetFactory)
     {
         this.dataListEntryWidgetFactory = dataListEntryWidgetFactory;
+        this.allowEntryWidgetRebinding = false;
         return this;
     }
 
@@ -125,6 +134,8 @@ public class DataListWidget<DATATYPE> extends BaseListWidget
     public DataListWidget<DATATYPE> setEntryFilter(EntryFilter<DATATYPE> filter)
     {
         this.entryFilter = filter;
+        this.useDefaultEntryFilter = false;
+        this.searchIndex = null;
         return this;
     }
 
@@ -135,6 +146,22 @@ public class DataListWidget<DATATYPE> extends BaseListWidget
     public DataListWidget<DATATYPE> setEntryFilterStringFunction(Function<DATATYPE, List<String>> function)
     {
         this.entrySearchStringFunction = function;
+        this.searchIndex = null;
+        return this;
+    }
+
+    /**
+     * Sets whether a search index should be used for the search. The index is built
+     * from the entry filter strings once per {@link #refreshEntries()} call,
+     * and it makes searching large lists a lot faster.
+     * The index is only used with the default entry filter, ie. if no custom filter has been set
+     * via {@link #setEntryFilter(EntryFilter)}. The filter strings of the entries
+     * must not change without the list entries being refreshed.
+     */
+    public DataListWidget<DATATYPE> setUseSearchIndex(boolean useSearchIndex)
+    {
+        this.useSearchIndex = useSearchIndex;
+        this.searchIndex = null;
         return this;
     }
 
@@ -350,6 +377,8 @@ public class DataListWidget<DATATYPE> extends BaseListWidget
     @Override
     protected void fetchCurrentEntries()
     {
+        this.searchIndex = null;
+
         if (this.fetchFromSupplierOnRefresh)
         {
             this.fullDataList.clear();
@@ -388,6 +417,13 @@ public class DataListWidget<DATATYPE> extends BaseListWidget
     protected void addFilteredContents(List<DATATYPE> entries)
     {
         List<String> searchTerms = this.getSearchTerms();
+
+        if (this.useSearchIndex && this.useDefaultEntryFilter)
+        {
+            this.addFilteredContentsUsingIndex(entries, searchTerms);
+            return;
+        }
+
         final int size = entries.size();
 
         for (int i = 0; i < size; ++i)
@@ -402,6 +438,29 @@ public class DataListWidget<DATATYPE> extends BaseListWidget
         }
     }
 
+    protected void addFilteredContentsUsingIndex(List<DATATYPE> entries, List<String> searchTerms)
+    {
+        if (this.searchIndex == null || this.searchIndex.isValidFor(entries) == false)
+        {
+            this.searchIndex = new DataListSearchIndex<>(entries, this.entrySearchStringFunction);
+        }
+
+        IntArrayList matches = this.searchIndex.search(this.getFilterText(), searchTerms);
+        final int size = matches.size();
+
+        for (int i = 0; i < size; ++i)
+        {
+            int index = matches.getInt(i);
+            DATATYPE entry = entries.get(index);
+
+            if (this.entryPassesAdditionalFilters(entry))
+            {
+                this.filteredDataList.add(entry);
+                this.filteredIndices.add(index);
+            }
+        }
+    }
+
     public int getOriginalListIndexFor(int filteredListIndex)
     {
         return filteredListIndex < this.filteredIndices.size() ? this.filteredIndices.getInt(filteredListIndex) : filteredListIndex;
@@ -420,8 +479,19 @@ public class DataListWidget<DATATYPE> extends BaseListWidget
             int height = this.getHeightForListEntryWidgetCreation(listIndex);
             DataListEntryWidgetData constructData = new DataListEntryWidgetData(x, y,
                                         this.entryWidgetWidth, height, listIndex, originalDataIndex, this);
+            BaseListEntryWidget widget = this.entryWidgetPool.getWidgetFor(entryData, constructData, this.allowEntryWidgetRebinding);
+
+            if (widget == null)
+            {
+                widget = this.dataListEntryWidgetFactory.createWidget(entryData, constructData);
 
-            return this.dataListEntryWidgetFactory.createWidget(entryData, constructData);
+                if (widget != null)
+                {
+                    this.entryWidgetPool.onWidgetCreated();
+                }
+            }
+
+            return widget;
         }
 
         return null;
@@ -522,7 +592,17 @@ public class DataListWidget<DATATYPE> extends BaseListWidget
 
     protected boolean entryMatchesFilter(DATATYPE entry, List<String> searchTerms)
     {
-        return searchTerms.isEmpty() || this.entryFilter.matches(entry, searchTerms);
+        return (searchTerms.isEmpty() || this.entryFilter.matches(entry, searchTerms)) &&
+               this.entryPassesAdditionalFilters(entry);
+    }
+
+    /**
+     * Any additional filtering of the entries, which is not based on the search text.
+     * These are checked for each entry that matches the search text, when a filter is active.
+     */
+    protected boolean entryPassesAdditionalFilters(DATATYPE entry)
+    {
+        return true;
     }
 
     protected boolean defaultEntryFilter(DATATYPE entry, List<String> searchTerms)
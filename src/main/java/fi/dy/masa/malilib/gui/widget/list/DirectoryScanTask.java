@@ -0,0 +1,274 @@
+package fi.dy.masa.malilib.gui.widget.list;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+import fi.dy.masa.malilib.MaLiLib;
+import fi.dy.masa.malilib.gui.widget.list.BaseFileBrowserWidget.DirectoryEntry;
+import fi.dy.masa.malilib.gui.widget.list.BaseFileBrowserWidget.DirectoryEntryType;
+import fi.dy.masa.malilib.util.DirectoryListingCache;
+import fi.dy.masa.malilib.util.FileNameUtils;
+import fi.dy.masa.malilib.util.GameUtils;
+
+/**
+ * Lists the contents of a directory, or recursively searches a directory tree, on a background thread.
+ * The found entries are handed to the batch listener on the client thread in batches,
+ * so that the list can be populated while the scan is still running.
+ * The batches are always in their final order relative to each other in the search mode,
+ * but in the plain listing mode the batches are in the order the directory was read in,
+ * so the list needs to be sorted after adding each batch.
+ */
+public class DirectoryScanTask implements Runnable
+{
+    protected static final int BATCH_SIZE = 256;
+    protected static final long BATCH_INTERVAL_NANOS = 50000000L;
+    protected static final Comparator<File> FILE_NAME_COMPARATOR = Comparator.comparing((f) -> f.getName().toLowerCase(Locale.ROOT));
+    protected static final Comparator<DirectoryEntry> ENTRY_NAME_COMPARATOR = Comparator.comparing((e) -> e.getName().toLowerCase(Locale.ROOT));
+
+    @Nullable protected static ExecutorService executor;
+
+    protected final File rootDirectory;
+    protected final List<String> searchTerms;
+    protected final FileFilter directoryFilter;
+    protected final FileFilter fileFilter;
+    protected final FileFilter recurseFilter;
+    @Nullable protected final Comparator<DirectoryEntry> fileComparator;
+    protected final BiConsumer<DirectoryScanTask, List<DirectoryEntry>> batchListener;
+    protected final Consumer<DirectoryScanTask> finishListener;
+    protected List<DirectoryEntry> pendingEntries = new ArrayList<>();
+    protected long lastBatchTime;
+    protected volatile boolean cancelled;
+
+    /**
+     * @param searchTerms the lower case search terms. If empty, then only the contents
+     *                    of the root directory are listed, without recursing into sub-directories.
+     * @param recurseFilter the filter for the sub-directories to recurse into in the search mode
+     * @param fileComparator the comparator for the matching files of each directory in the search mode
+     */
+    public DirectoryScanTask(File rootDirectory,
+                             List<String> searchTerms,
+                             FileFilter directoryFilter,
+                             FileFilter fileFilter,
+                             FileFilter recurseFilter,
+                             @Nullable Comparator<DirectoryEntry> fileComparator,
+                             BiConsumer<DirectoryScanTask, List<DirectoryEntry>> batchListener,
+                             Consumer<DirectoryScanTask> finishListener)
+    {
+        this.rootDirectory = rootDirectory;
+        this.searchTerms = searchTerms;
+        this.directoryFilter = directoryFilter;
+        this.fileFilter = fileFilter;
+        this.recurseFilter = recurseFilter;
+        this.fileComparator = fileComparator;
+        this.batchListener = batchListener;
+        this.finishListener = finishListener;
+    }
+
+    public boolean isSearch()
+    {
+        return this.searchTerms.isEmpty() == false;
+    }
+
+    public boolean isCancelled()
+    {
+        return this.cancelled;
+    }
+
+    /**
+     * Cancels the scan. No more batches will be delivered after this.
+     */
+    public void cancel()
+    {
+        this.cancelled = true;
+    }
+
+    public void start()
+    {
+        this.lastBatchTime = System.nanoTime();
+        getExecutor().execute(this);
+    }
+
+    /**
+     * If this is a plain listing and the directory contents are already cached,
+     * then this returns the entries immediately, without needing to start the background task.
+     */
+    @Nullable
+    public List<DirectoryEntry> tryGetCachedEntries()
+    {
+        if (this.isSearch())
+        {
+            return null;
+        }
+
+        List<File> files = DirectoryListingCache.INSTANCE.getCachedListing(this.rootDirectory);
+
+        if (files == null)
+        {
+            return null;
+        }
+
+        List<DirectoryEntry> list = new ArrayList<>();
+
+        for (File file : files)
+        {
+            this.addListingEntry(file, list);
+        }
+
+        return list;
+    }
+
+    @Override
+    public void run()
+    {
+        try
+        {
+            if (this.isSearch())
+            {
+                this.searchDirectory(this.rootDirectory, null);
+            }
+            else
+            {
+                DirectoryListingCache.INSTANCE.readListing(this.rootDirectory, this::isCancelled, this::addListingEntry);
+            }
+
+            this.sendBatch();
+        }
+        catch (Exception e)
+        {
+            MaLiLib.LOGGER.warn("Exception while scanning the directory '{}'", this.rootDirectory.getAbsolutePath(), e);
+        }
+
+        GameUtils.scheduleToClientThread(() -> this.finishListener.accept(this));
+    }
+
+    protected void addListingEntry(File file)
+    {
+        this.addListingEntry(file, this.pendingEntries);
+        this.sendBatchIfNeeded();
+    }
+
+    protected void addListingEntry(File file, List<DirectoryEntry> list)
+    {
+        if (this.directoryFilter.accept(file) || this.fileFilter.accept(file))
+        {
+            list.add(new DirectoryEntry(DirectoryEntryType.fromFile(file), file.getParentFile(), file.getName(), null));
+        }
+    }
+
+    protected void searchDirectory(File dir, @Nullable String prefix)
+    {
+        List<DirectoryEntry> dirs = new ArrayList<>();
+        List<DirectoryEntry> files = new ArrayList<>();
+        List<File> subDirs = new ArrayList<>();
+
+        boolean completed = DirectoryListingCache.INSTANCE.readListing(dir, this::isCancelled, (file) -> {
+            if (this.recurseFilter.accept(file))
+            {
+                subDirs.add(file);
+            }
+
+            if (this.directoryFilter.accept(file))
+            {
+                this.addIfMatches(file, dir, prefix, dirs);
+            }
+            else if (this.fileFilter.accept(file))
+            {
+                this.addIfMatches(file, dir, prefix, files);
+            }
+        });
+
+        if (completed == false)
+        {
+            return;
+        }
+
+        dirs.sort(ENTRY_NAME_COMPARATOR);
+        this.pendingEntries.addAll(dirs);
+
+        if (this.fileComparator != null)
+        {
+            files.sort(this.fileComparator);
+        }
+
+        this.pendingEntries.addAll(files);
+        this.sendBatchIfNeeded();
+
+        subDirs.sort(FILE_NAME_COMPARATOR);
+
+        for (File subDir : subDirs)
+        {
+            if (this.cancelled)
+            {
+                return;
+            }
+
+            String name = subDir.getName() + "/";
+            this.searchDirectory(subDir, prefix != null ? prefix + name : name);
+        }
+    }
+
+    protected void addIfMatches(File file, File dir, @Nullable String prefix, List<DirectoryEntry> list)
+    {
+        String fileName = file.getName();
+        String entryString = FileNameUtils.getFileNameWithoutExtension(fileName.toLowerCase(Locale.ROOT));
+
+        for (String searchTerm : this.searchTerms)
+        {
+            if (entryString.contains(searchTerm))
+            {
+                list.add(new DirectoryEntry(DirectoryEntryType.fromFile(file), dir, fileName, prefix));
+                return;
+            }
+        }
+    }
+
+    protected void sendBatchIfNeeded()
+    {
+        if (this.pendingEntries.size() >= BATCH_SIZE ||
+            (this.pendingEntries.isEmpty() == false && System.nanoTime() - this.lastBatchTime >= BATCH_INTERVAL_NANOS))
+        {
+            this.sendBatch();
+        }
+    }
+
+    protected void sendBatch()
+    {
+        if (this.pendingEntries.isEmpty() || this.cancelled)
+        {
+            return;
+        }
+
+        final List<DirectoryEntry> batch = this.pendingEntries;
+        this.pendingEntries = new ArrayList<>();
+        this.lastBatchTime = System.nanoTime();
+
+        GameUtils.scheduleToClientThread(() -> {
+            if (this.cancelled == false)
+            {
+                this.batchListener.accept(this, batch);
+            }
+        });
+    }
+
+    protected static synchronized ExecutorService getExecutor()
+    {
+        if (executor == null)
+        {
+            executor = Executors.newCachedThreadPool((task) -> {
+                Thread thread = new Thread(task, "MaLiLib Directory Scanner");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        return executor;
+    }
+}
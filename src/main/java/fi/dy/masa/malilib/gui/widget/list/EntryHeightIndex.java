@@ -0,0 +1,151 @@
+package fi.dy.masa.malilib.gui.widget.list;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A prefix sum index (a Fenwick tree) of the heights of variable height list entries.
+ * This allows getting the total height, the y-offset of an entry and the entry at a given y-offset
+ * in O(log n) time, and updating the height of a single entry also in O(log n) time,
+ * instead of having to walk through all the entries.
+ */
+public class EntryHeightIndex
+{
+    protected int[] heights = new int[0];
+    protected int[] tree = new int[1];
+    protected int count;
+    protected int totalHeight;
+
+    /**
+     * Re-builds the index for the given number of entries, in O(n) time
+     * @param heightFunction the function that returns the height for a given list index
+     */
+    public void rebuild(int count, IntUnaryOperator heightFunction)
+    {
+        if (this.heights.length < count)
+        {
+            this.heights = new int[count];
+            this.tree = new int[count + 1];
+        }
+
+        int total = 0;
+
+        for (int i = 0; i < count; ++i)
+        {
+            int height = heightFunction.applyAsInt(i);
+            this.heights[i] = height;
+            this.tree[i + 1] = height;
+            total += height;
+        }
+
+        // Propagate each node's sum to its parent node
+        for (int i = 1; i <= count; ++i)
+        {
+            int parent = i + (i & -i);
+
+            if (parent <= count)
+            {
+                this.tree[parent] += this.tree[i];
+            }
+        }
+
+        this.count = count;
+        this.totalHeight = total;
+    }
+
+    public void clear()
+    {
+        this.count = 0;
+        this.totalHeight = 0;
+    }
+
+    public int getCount()
+    {
+        return this.count;
+    }
+
+    public int getTotalHeight()
+    {
+        return this.totalHeight;
+    }
+
+    public int getHeight(int listIndex)
+    {
+        return listIndex >= 0 && listIndex < this.count ? this.heights[listIndex] : 0;
+    }
+
+    /**
+     * Updates the height of one entry, in O(log n) time
+     */
+    public void setHeight(int listIndex, int height)
+    {
+        if (listIndex < 0 || listIndex >= this.count)
+        {
+            return;
+        }
+
+        int delta = height - this.heights[listIndex];
+
+        if (delta == 0)
+        {
+            return;
+        }
+
+        this.heights[listIndex] = height;
+        this.totalHeight += delta;
+
+        for (int i = listIndex + 1; i <= this.count; i += (i & -i))
+        {
+            this.tree[i] += delta;
+        }
+    }
+
+    /**
+     * @return the y-offset of the top edge of the given entry, ie. the sum of the heights
+     *         of all the entries before the given index
+     */
+    public int getOffset(int listIndex)
+    {
+        int sum = 0;
+
+        for (int i = Math.min(listIndex, this.count); i > 0; i -= (i & -i))
+        {
+            sum += this.tree[i];
+        }
+
+        return sum;
+    }
+
+    /**
+     * @return the index of the entry that covers the given y-offset, clamped to the valid index range,
+     *         or -1 if there are no entries
+     */
+    public int getIndexAtOffset(int offset)
+    {
+        if (this.count == 0)
+        {
+            return -1;
+        }
+
+        if (offset <= 0)
+        {
+            return 0;
+        }
+
+        int pos = 0;
+        int remaining = offset;
+
+        // Find the largest number of entries whose total height is not more than the offset
+        for (int step = Integer.highestOneBit(this.count); step > 0; step >>= 1)
+        {
+            int next = pos + step;
+
+            if (next <= this.count && this.tree[next] <= remaining)
+            {
+                pos = next;
+                remaining -= this.tree[next];
+            }
+        }
+
+        return Math.min(pos, this.count - 1);
+    }
+}
@@ -0,0 +1,235 @@
+package fi.dy.masa.malilib.gui.widget.list;
+
+import java.util.List;
+import javax.annotation.Nullable;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import fi.dy.masa.malilib.gui.widget.list.entry.BaseDataListEntryWidget;
+import fi.dy.masa.malilib.gui.widget.list.entry.BaseListEntryWidget;
+import fi.dy.masa.malilib.gui.widget.list.entry.DataListEntryWidgetData;
+
+/**
+ * Holds the entry widgets of the previous list widget (re-)creation pass,
+ * so that they can be re-used in the next pass instead of always creating new widgets.
+ * <br><br>
+ * A widget is re-used as-is, if it was showing the same data entry at the same list index
+ * and with the same size, which is the case for most of the widgets when the list is just scrolled.
+ * This same-data re-use is not allowed after the list entries have been refreshed,
+ * as the state shown by the widgets may have changed.
+ * <br><br>
+ * Other widgets that are not going to be visible anymore can be re-bound to a new data entry,
+ * if the list widget has enabled that, and the widget type supports that
+ * (see {@link BaseDataListEntryWidget#rebind(Object, DataListEntryWidgetData)}).
+ * <br><br>
+ * The widgets that don't get re-used are notified via {@link BaseListEntryWidget#onAboutToDestroy()}
+ * when they are removed from the pool, but the re-used widgets are not, as they continue to live on.
+ */
+public class ListEntryWidgetPool
+{
+    protected final Int2ObjectOpenHashMap<BaseListEntryWidget> widgetsByListIndex = new Int2ObjectOpenHashMap<>();
+    protected boolean allowSameDataReuse = true;
+    protected int expectedLastListIndex = -1;
+
+    protected long createdWidgets;
+    protected long reusedWidgets;
+    protected long reboundWidgets;
+    protected long discardedWidgets;
+
+    /**
+     * Adds the widgets of the previous pass to the pool.
+     * Any widgets that can't be re-used in the new pass are destroyed right away.
+     * @param expectedLastListIndex the estimated last list index that will be visible in the new pass.
+     *                              The widgets beyond this index can be re-bound to other data entries.
+     * @param allowRebinding whether the list widget allows re-binding the widgets to other data entries
+     */
+    public void addWidgets(List<BaseListEntryWidget> widgets, int expectedLastListIndex, boolean allowRebinding)
+    {
+        this.destroyPooledWidgets();
+        this.expectedLastListIndex = expectedLastListIndex;
+
+        // Nothing could be re-used, so destroy the widgets before the new ones get created
+        boolean canReuse = this.allowSameDataReuse || allowRebinding;
+
+        for (BaseListEntryWidget widget : widgets)
+        {
+            if (canReuse && widget.getDataListIndex() >= 0)
+            {
+                this.widgetsByListIndex.put(widget.getDataListIndex(), widget);
+            }
+            else
+            {
+                this.discardWidget(widget);
+            }
+        }
+    }
+
+    /**
+     * Prevents the re-use of the pooled widgets for the same data entries
+     * during the next pass. This should be called when the list contents have been refreshed.
+     */
+    public void disallowSameDataReuse()
+    {
+        this.allowSameDataReuse = false;
+    }
+
+    /**
+     * Tries to get a widget for the given data entry, either a widget
+     * that was already showing the same entry, or a widget that can be re-bound to the entry.
+     * @return a widget for the data entry, or null if a new widget needs to be created
+     */
+    @Nullable
+    public <DATATYPE> BaseListEntryWidget getWidgetFor(DATATYPE data, DataListEntryWidgetData constructData,
+                                                       boolean allowRebinding)
+    {
+        if (this.widgetsByListIndex.isEmpty())
+        {
+            return null;
+        }
+
+        BaseListEntryWidget widget = this.getSameDataWidget(data, constructData);
+
+        if (widget != null)
+        {
+            ++this.reusedWidgets;
+            return widget;
+        }
+
+        if (allowRebinding == false)
+        {
+            return null;
+        }
+
+        widget = this.getReboundWidget(data, constructData);
+
+        if (widget != null)
+        {
+            ++this.reboundWidgets;
+        }
+
+        return widget;
+    }
+
+    @Nullable
+    protected BaseListEntryWidget getSameDataWidget(Object data, DataListEntryWidgetData constructData)
+    {
+        if (this.allowSameDataReuse == false)
+        {
+            return null;
+        }
+
+        BaseListEntryWidget widget = this.widgetsByListIndex.get(constructData.listIndex);
+
+        if (widget instanceof BaseDataListEntryWidget &&
+            ((BaseDataListEntryWidget<?>) widget).getData() == data &&
+            widget.getOriginalDataListIndex() == constructData.originalListIndex)
+        {
+            this.widgetsByListIndex.remove(constructData.listIndex);
+
+            if (widget.getWidth() == constructData.width &&
+                widget.getHeight() == constructData.height)
+            {
+                widget.setPosition(constructData.x, constructData.y);
+                return widget;
+            }
+
+            // A new widget is about to be created for the same data entry,
+            // so let the old widget commit any pending changes first
+            this.discardWidget(widget);
+        }
+
+        return null;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    protected <DATATYPE> BaseListEntryWidget getReboundWidget(DATATYPE data, DataListEntryWidgetData constructData)
+    {
+        int listIndex = constructData.listIndex;
+        ObjectIterator<Int2ObjectMap.Entry<BaseListEntryWidget>> iter = this.widgetsByListIndex.int2ObjectEntrySet().fastIterator();
+
+        while (iter.hasNext())
+        {
+            Int2ObjectMap.Entry<BaseListEntryWidget> entry = iter.next();
+            int oldListIndex = entry.getIntKey();
+
+            // Only use widgets that are not going to be needed for same-data re-use later in this pass.
+            // The widgets are created in the list index order, so the widgets before the current
+            // index, and those after the expected last visible index, are safe to use.
+            if (this.allowSameDataReuse &&
+                oldListIndex >= listIndex && oldListIndex <= this.expectedLastListIndex)
+            {
+                continue;
+            }
+
+            BaseListEntryWidget widget = entry.getValue();
+
+            if (widget instanceof BaseDataListEntryWidget &&
+                ((BaseDataListEntryWidget<DATATYPE>) widget).rebind(data, constructData))
+            {
+                iter.remove();
+                return widget;
+            }
+        }
+
+        return null;
+    }
+
+    public void onWidgetCreated()
+    {
+        ++this.createdWidgets;
+    }
+
+    /**
+     * Destroys the remaining unused widgets in the pool, and resets the per-pass state
+     */
+    public void finishPass()
+    {
+        this.destroyPooledWidgets();
+        this.allowSameDataReuse = true;
+    }
+
+    protected void destroyPooledWidgets()
+    {
+        for (BaseListEntryWidget widget : this.widgetsByListIndex.values())
+        {
+            this.discardWidget(widget);
+        }
+
+        this.widgetsByListIndex.clear();
+    }
+
+    protected void discardWidget(BaseListEntryWidget widget)
+    {
+        widget.onAboutToDestroy();
+        ++this.discardedWidgets;
+    }
+
+    public long getCreatedWidgetCount()
+    {
+        return this.createdWidgets;
+    }
+
+    public long getReusedWidgetCount()
+    {
+        return this.reusedWidgets;
+    }
+
+    public long getReboundWidgetCount()
+    {
+        return this.reboundWidgets;
+    }
+
+    public long getDiscardedWidgetCount()
+    {
+        return this.discardedWidgets;
+    }
+
+    public void resetStatistics()
+    {
+        this.createdWidgets = 0;
+        this.reusedWidgets = 0;
+        this.reboundWidgets = 0;
+        this.discardedWidgets = 0;
+    }
+}
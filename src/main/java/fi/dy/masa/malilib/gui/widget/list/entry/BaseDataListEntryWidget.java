@@ -6,7 +6,7 @@ import fi.dy.masa.malilib.gui.widget.list.DataListWidget;
 
 public class BaseDataListEntryWidget<DATATYPE> extends BaseListEntryWidget
 {
-    protected final DATATYPE data;
+    protected DATATYPE data;
     @Nullable protected final DataListWidget<DATATYPE> listWidget;
 
     @SuppressWarnings("unchecked")
@@ -24,6 +24,35 @@ public class BaseDataListEntryWidget<DATATYPE> extends BaseListEntryWidget
         return this.data;
     }
 
+    /**
+     * Tries to re-bind this widget to display a different data entry (or the same data entry
+     * in a different list position), so that the list widget can re-use this widget
+     * instead of creating a new one when the list is scrolled or refreshed.
+     * <br><br>
+     * This is only called if the list widget has enabled re-binding
+     * (see {@link fi.dy.masa.malilib.gui.widget.list.BaseListWidget#setAllowEntryWidgetRebinding(boolean)}),
+     * which means that its widget factory creates the same type of widget for all the data entries.
+     * <br><br>
+     * An implementation must re-initialize all of its data dependent state, so that the widget
+     * is identical to a newly created widget for the new data.
+     * The default implementation does not support re-binding.
+     * @return true if the widget was re-bound to the new data, false if re-binding is not supported
+     */
+    public boolean rebind(DATATYPE data, DataListEntryWidgetData constructData)
+    {
+        return false;
+    }
+
+    /**
+     * Sets the new data and list position. This is meant to be called from the
+     * {@link #rebind(Object, DataListEntryWidgetData)} implementations.
+     */
+    protected void rebindData(DATATYPE data, DataListEntryWidgetData constructData)
+    {
+        this.data = data;
+        this.rebindListPosition(constructData);
+    }
+
     @Override
     protected boolean isSelected()
     {
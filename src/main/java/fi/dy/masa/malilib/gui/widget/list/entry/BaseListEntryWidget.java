@@ -11,8 +11,8 @@ public class BaseListEntryWidget extends ContainerWidget
 {
     protected final BackgroundSettings selectedBgSettings = new BackgroundSettings(0x50FFFFFF);
     protected final BorderSettings selectedBorderSettings = new BorderSettings();
-    protected final int listIndex;
-    protected final int originalListIndex;
+    protected int listIndex;
+    protected int originalListIndex;
     protected boolean isOdd;
     protected int keyboardNavigationHighlightColor = 0xFFFF5000;
 
@@ -36,6 +36,20 @@ public class BaseListEntryWidget extends ContainerWidget
         this.getBackgroundRenderer().getHoverSettings().setEnabledAndColor(true, hoverColor);
     }
 
+    /**
+     * Updates the list indices, position and size of this widget, when the widget
+     * is being re-bound to a new data entry (or to a new position in the list).
+     * Note: The odd/even background color is not updated here, that is up to the widget
+     * implementation, as the colors are defined by the subclasses.
+     */
+    protected void rebindListPosition(DataListEntryWidgetData constructData)
+    {
+        this.listIndex = constructData.listIndex;
+        this.originalListIndex = constructData.originalListIndex;
+        this.setIsOdd((this.listIndex & 0x1) != 0);
+        this.setPositionAndSize(constructData.x, constructData.y, constructData.width, constructData.height);
+    }
+
     public void setIsOdd(boolean isOdd)
     {
         this.isOdd = isOdd;
@@ -50,6 +64,15 @@ public class BaseListEntryWidget extends ContainerWidget
         return this.listIndex;
     }
 
+    /**
+     * @return the index of the data entry this widget corresponds to, in the original
+     * (non-filtered) data list. This can be -1 if the widget does not correspond to a data entry.
+     */
+    public int getOriginalDataListIndex()
+    {
+        return this.originalListIndex;
+    }
+
     /**
      * This gets called from BaseListWidget before the widgets
      * are cleared before being re-created. This allows for example
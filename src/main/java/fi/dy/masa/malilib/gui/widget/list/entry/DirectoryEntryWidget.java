@@ -40,9 +40,10 @@ public class DirectoryEntryWidget extends BaseDataListEntryWidget<DirectoryEntry
     protected static final DecimalFormat FILE_SIZE_FORMAT = new DecimalFormat("###,###,###.#");
 
     protected final BaseFileBrowserWidget fileBrowserWidget;
-    protected final StyledTextLine fileSizeText;
-    protected final StyledTextLine modificationTimeText;
-    protected final StyledTextLine fullNameText;
+    @Nullable protected final FileBrowserIconProvider iconProvider;
+    protected StyledTextLine fileSizeText;
+    protected StyledTextLine modificationTimeText;
+    protected StyledTextLine fullNameText;
     @Nullable protected StyledTextLine clampedNameText;
     protected boolean showSize;
     protected boolean showMTime;
@@ -57,22 +58,50 @@ public class DirectoryEntryWidget extends BaseDataListEntryWidget<DirectoryEntry
         super(entry, constructData);
 
         this.fileBrowserWidget = fileBrowserWidget;
+        this.iconProvider = iconProvider;
         this.getTextSettings().setTextShadowEnabled(false);
+        this.getBackgroundRenderer().getHoverSettings().setColor(0xFF404040);
+        this.getBorderRenderer().getHoverSettings().setEnabled(true);
+
+        this.initEntryState(entry);
+    }
+
+    @Override
+    public boolean rebind(DirectoryEntry entry, DataListEntryWidgetData constructData)
+    {
+        if (this.getClass() != DirectoryEntryWidget.class)
+        {
+            return false;
+        }
 
+        this.rebindData(entry, constructData);
+        this.clampedNameText = null;
+        this.initEntryState(entry);
+
+        return true;
+    }
+
+    /**
+     * Initializes all the state that depends on the directory entry or the list index
+     */
+    protected void initEntryState(DirectoryEntry entry)
+    {
         this.fullNameText = StyledTextLine.raw(this.getDisplayName());
         this.getBackgroundRenderer().getNormalSettings().setEnabledAndColor(true, this.isOdd ? 0xFF202020 : 0xFF303030);
-        this.getBackgroundRenderer().getHoverSettings().setColor(0xFF404040);
-        this.getBorderRenderer().getHoverSettings().setEnabled(true);
 
         int textXOffset = 3;
-        @Nullable MultiIcon icon = iconProvider != null ? iconProvider.getIconForEntry(entry) : null;
+        @Nullable MultiIcon icon = this.iconProvider != null ? this.iconProvider.getIconForEntry(entry) : null;
 
         if (icon != null)
         {
-            textXOffset += iconProvider.getEntryIconWidth(entry) + 2;
+            textXOffset += this.iconProvider.getEntryIconWidth(entry) + 2;
             this.iconOffset.setXOffset(2);
             this.setIcon(icon);
         }
+        else
+        {
+            this.setIcon(null);
+        }
 
         this.textOffset.setXOffset(textXOffset);
 
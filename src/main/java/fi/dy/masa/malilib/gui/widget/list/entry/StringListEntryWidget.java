@@ -12,4 +12,19 @@ public class StringListEntryWidget extends BaseDataListEntryWidget<String>
         this.getBackgroundRenderer().getNormalSettings().setColor(this.isOdd ? 0xA0101010 : 0xA0303030);
         this.getBackgroundRenderer().getHoverSettings().setColor(0xA0707070);
     }
+
+    @Override
+    public boolean rebind(String data, DataListEntryWidgetData constructData)
+    {
+        if (this.getClass() != StringListEntryWidget.class)
+        {
+            return false;
+        }
+
+        this.rebindData(data, constructData);
+        this.setText(StyledTextLine.raw(data));
+        this.getBackgroundRenderer().getNormalSettings().setColor(this.isOdd ? 0xA0101010 : 0xA0303030);
+
+        return true;
+    }
 }
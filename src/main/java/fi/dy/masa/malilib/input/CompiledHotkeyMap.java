@@ -0,0 +1,246 @@
+package fi.dy.masa.malilib.input;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+
+/**
+ * An immutable lookup from a key code to all the keybinds that use that key,
+ * already sorted by their priority. A new instance is built whenever the
+ * used keys change, and the old instance is just replaced (copy-on-write),
+ * so the key event dispatch can iterate the arrays without copying them
+ * and without being affected by changes to the keybinds during the dispatch.
+ */
+public class CompiledHotkeyMap
+{
+    public static final CompiledHotkeyMap EMPTY = new CompiledHotkeyMap(new Int2ObjectOpenHashMap<>(), 0);
+
+    protected static final KeyBind[] NO_KEYBINDS = new KeyBind[0];
+    protected static final Comparator<KeyBind> PRIORITY_COMPARATOR = Comparator.comparingInt((v) -> v.getSettings().getPriority());
+
+    protected final Int2ObjectOpenHashMap<KeyBind[]> keyBindsByKey;
+    protected final int keyBindCount;
+
+    protected CompiledHotkeyMap(Int2ObjectOpenHashMap<KeyBind[]> keyBindsByKey, int keyBindCount)
+    {
+        this.keyBindsByKey = keyBindsByKey;
+        this.keyBindsByKey.defaultReturnValue(NO_KEYBINDS);
+        this.keyBindCount = keyBindCount;
+    }
+
+    /**
+     * @return the keybinds that use the given key, sorted by their priority.
+     *         <b>Note:</b> The returned array is shared, and must not be modified!
+     */
+    public KeyBind[] getKeyBindsForKey(int keyCode)
+    {
+        return this.keyBindsByKey.get(keyCode);
+    }
+
+    /**
+     * @return the number of distinct keybinds with at least one key
+     */
+    public int getKeyBindCount()
+    {
+        return this.keyBindCount;
+    }
+
+    /**
+     * @return the number of distinct keys used by all the keybinds
+     */
+    public int getUsedKeyCount()
+    {
+        return this.keyBindsByKey.size();
+    }
+
+    /**
+     * Creates a new map where the given keybind is listed under its current keys, and not under any other keys.
+     * Only the arrays of the affected keys are re-created, all the other arrays are shared with this map.
+     * The keybind is inserted last among the keybinds with the same priority,
+     * so the order can differ from a full rebuild, which retains the registration order.
+     * <b>Note:</b> This should only be used for keybinds of hotkeys that are provided by some registered provider.
+     */
+    public CompiledHotkeyMap withKeyBindUpdated(KeyBind keyBind)
+    {
+        Int2ObjectOpenHashMap<KeyBind[]> map = new Int2ObjectOpenHashMap<>(this.keyBindsByKey);
+        boolean existed = removeFromMap(map, keyBind);
+        IntArrayList keys = new IntArrayList();
+        keyBind.getKeysToList(keys);
+        int priority = keyBind.getSettings().getPriority();
+
+        for (int i = 0; i < keys.size(); ++i)
+        {
+            int key = keys.getInt(i);
+            KeyBind[] oldArr = map.get(key);
+
+            if (oldArr == null || containsIdentity(oldArr, keyBind) == false)
+            {
+                map.put(key, insertByPriority(oldArr != null ? oldArr : NO_KEYBINDS, keyBind, priority));
+            }
+        }
+
+        int keyBindCount = this.keyBindCount - (existed ? 1 : 0) + (keys.isEmpty() ? 0 : 1);
+
+        return new CompiledHotkeyMap(map, keyBindCount);
+    }
+
+    /**
+     * Creates a new map where the given keybind is not listed under any keys.
+     * All the arrays that did not contain the keybind are shared with this map.
+     */
+    public CompiledHotkeyMap withKeyBindRemoved(KeyBind keyBind)
+    {
+        Int2ObjectOpenHashMap<KeyBind[]> map = new Int2ObjectOpenHashMap<>(this.keyBindsByKey);
+
+        if (removeFromMap(map, keyBind))
+        {
+            return new CompiledHotkeyMap(map, this.keyBindCount - 1);
+        }
+
+        return this;
+    }
+
+    /**
+     * Removes the given keybind from all the arrays in the given map
+     * @return true if the keybind was found in at least one array
+     */
+    protected static boolean removeFromMap(Int2ObjectOpenHashMap<KeyBind[]> map, KeyBind keyBind)
+    {
+        boolean found = false;
+        ObjectIterator<Int2ObjectMap.Entry<KeyBind[]>> iter = map.int2ObjectEntrySet().fastIterator();
+
+        while (iter.hasNext())
+        {
+            Int2ObjectMap.Entry<KeyBind[]> entry = iter.next();
+            KeyBind[] arr = entry.getValue();
+
+            if (containsIdentity(arr, keyBind) == false)
+            {
+                continue;
+            }
+
+            found = true;
+
+            if (arr.length == 1)
+            {
+                iter.remove();
+                continue;
+            }
+
+            KeyBind[] newArr = new KeyBind[arr.length - 1];
+            int index = 0;
+
+            for (KeyBind kb : arr)
+            {
+                if (kb != keyBind)
+                {
+                    newArr[index++] = kb;
+                }
+            }
+
+            entry.setValue(newArr);
+        }
+
+        return found;
+    }
+
+    protected static KeyBind[] insertByPriority(KeyBind[] arr, KeyBind keyBind, int priority)
+    {
+        int index = arr.length;
+
+        while (index > 0 && arr[index - 1].getSettings().getPriority() > priority)
+        {
+            --index;
+        }
+
+        KeyBind[] newArr = new KeyBind[arr.length + 1];
+        System.arraycopy(arr, 0, newArr, 0, index);
+        newArr[index] = keyBind;
+        System.arraycopy(arr, index, newArr, index + 1, arr.length - index);
+
+        return newArr;
+    }
+
+    public static CompiledHotkeyMap of(Collection<HotkeyProvider> providers)
+    {
+        Int2ObjectOpenHashMap<ArrayList<KeyBind>> map = new Int2ObjectOpenHashMap<>();
+        IntArrayList keys = new IntArrayList();
+        int keyBindCount = 0;
+
+        for (HotkeyProvider provider : providers)
+        {
+            for (Hotkey hotkey : provider.getAllHotkeys())
+            {
+                KeyBind keyBind = hotkey.getKeyBind();
+
+                keys.clear();
+                keyBind.getKeysToList(keys);
+                final int size = keys.size();
+
+                if (size > 0)
+                {
+                    ++keyBindCount;
+                }
+
+                for (int i = 0; i < size; ++i)
+                {
+                    ArrayList<KeyBind> list = map.computeIfAbsent(keys.getInt(i), (k) -> new ArrayList<>());
+
+                    // Don't add the same keybind multiple times for the same key (this could
+                    // happen with the same key in the keybind multiple times, or the same keybind being
+                    // provided by multiple providers). The lists are short, so an identity check is fine.
+                    if (containsIdentity(list, keyBind) == false)
+                    {
+                        list.add(keyBind);
+                    }
+                }
+            }
+        }
+
+        Int2ObjectOpenHashMap<KeyBind[]> compiled = new Int2ObjectOpenHashMap<>(map.size());
+
+        for (Int2ObjectMap.Entry<ArrayList<KeyBind>> entry : map.int2ObjectEntrySet())
+        {
+            KeyBind[] arr = entry.getValue().toArray(NO_KEYBINDS);
+            // Note: This is a stable sort, so the registration order is retained for equal priorities
+            Arrays.sort(arr, PRIORITY_COMPARATOR);
+            compiled.put(entry.getIntKey(), arr);
+        }
+
+        compiled.trim();
+
+        return new CompiledHotkeyMap(compiled, keyBindCount);
+    }
+
+    protected static boolean containsIdentity(KeyBind[] arr, KeyBind keyBind)
+    {
+        for (KeyBind kb : arr)
+        {
+            if (kb == keyBind)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    protected static boolean containsIdentity(List<KeyBind> list, KeyBind keyBind)
+    {
+        for (KeyBind kb : list)
+        {
+            if (kb == keyBind)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -57,12 +57,14 @@ public class CustomHotkeyManager implements HotkeyProvider
     {
         this.hotkeys.add(hotkey);
         this.dirty = true;
+        Registry.HOTKEY_MANAGER.updateKeyBind(hotkey.getKeyBind());
     }
 
     public void removeCustomHotkey(CustomHotkeyDefinition hotkey)
     {
         this.hotkeys.remove(hotkey);
         this.dirty = true;
+        Registry.HOTKEY_MANAGER.removeKeyBind(hotkey.getKeyBind());
     }
 
     public void clear()
@@ -78,24 +80,30 @@ public class CustomHotkeyManager implements HotkeyProvider
 
     public boolean checkIfDirtyAndSaveAndUpdate()
     {
-        boolean dirty = false;
+        List<KeyBind> dirtyKeyBinds = new ArrayList<>();
 
         for (CustomHotkeyDefinition hotkey : this.hotkeys)
         {
             if (hotkey.getKeyBind().isDirty())
             {
-                dirty = true;
-                break;
+                dirtyKeyBinds.add(hotkey.getKeyBind());
             }
         }
 
-        if (dirty)
+        if (dirtyKeyBinds.isEmpty() == false)
         {
             this.saveToFile();
-            Registry.HOTKEY_MANAGER.updateUsedKeys();
+
+            // Only the changed keybinds need to be updated, instead of rebuilding the whole map
+            for (KeyBind keyBind : dirtyKeyBinds)
+            {
+                Registry.HOTKEY_MANAGER.updateKeyBind(keyBind);
+            }
+
+            return true;
         }
 
-        return dirty;
+        return false;
     }
 
     public boolean saveToFileIfDirty()
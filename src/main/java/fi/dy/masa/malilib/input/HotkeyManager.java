@@ -23,6 +23,54 @@ public interface HotkeyManager
 
     /**
      * Causes the key -> keybinds map to be rebuilt for all registered hotkeys.
+     * If called inside a batch (see {@link #beginBatch()}), then the rebuild
+     * is deferred until the end of the outermost batch.
      */
     void updateUsedKeys();
+
+    /**
+     * Updates the keys of just the given keybind in the key -> keybinds map,
+     * without rebuilding the whole map. This can be used when the keys of a single
+     * keybind of an already registered hotkey have changed, or when a hotkey has been added
+     * to a registered provider.
+     */
+    void updateKeyBind(KeyBind keyBind);
+
+    /**
+     * Removes the given keybind from the key -> keybinds map, without rebuilding the whole map.
+     * This can be used when a hotkey has been removed from a registered provider.
+     */
+    void removeKeyBind(KeyBind keyBind);
+
+    /**
+     * Starts a batch of hotkey provider registrations and/or key updates.
+     * Until the matching {@link #endBatch()} call, all the {@link #updateUsedKeys()} calls
+     * only mark the key -> keybinds map as needing a rebuild, and the map
+     * is then rebuilt just once at the end of the outermost batch.
+     * Batches can be nested, and every call must be paired with an {@link #endBatch()} call.
+     */
+    void beginBatch();
+
+    /**
+     * Ends a batch started by {@link #beginBatch()}. If this ends the outermost batch,
+     * then the key -> keybinds map is rebuilt if it was requested during the batch.
+     */
+    void endBatch();
+
+    /**
+     * Runs the given task inside a batch, see {@link #beginBatch()}
+     */
+    default void runBatched(Runnable task)
+    {
+        this.beginBatch();
+
+        try
+        {
+            task.run();
+        }
+        finally
+        {
+            this.endBatch();
+        }
+    }
 }
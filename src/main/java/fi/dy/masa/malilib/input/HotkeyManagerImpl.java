@@ -1,19 +1,26 @@
 package fi.dy.masa.malilib.input;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import javax.annotation.Nullable;
 import com.google.common.collect.ImmutableList;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
-import it.unimi.dsi.fastutil.ints.IntArrayList;
+import fi.dy.masa.malilib.MaLiLib;
 
 public class HotkeyManagerImpl implements HotkeyManager
 {
-    protected final Int2ObjectOpenHashMap<ArrayList<KeyBind>> hotkeyMap = new Int2ObjectOpenHashMap<>();
+    protected CompiledHotkeyMap hotkeyMap = CompiledHotkeyMap.EMPTY;
     protected final List<HotkeyCategory> keyBindCategories = new ArrayList<>();
-    protected final List<HotkeyProvider> keyBindProviders = new ArrayList<>();
+    protected final Set<HotkeyProvider> keyBindProviders = new LinkedHashSet<>();
     @Nullable protected ImmutableList<HotkeyCategory> immutableKeyBindCategories;
+    protected int batchDepth;
+    protected boolean rebuildPending;
+    protected int deferredUpdateCount;
+    protected int rebuildCount;
+    protected int incrementalUpdateCount;
+    protected long lastRebuildNanos;
+    protected long totalRebuildNanos;
 
     public HotkeyManagerImpl()
     {
@@ -22,10 +29,7 @@ public class HotkeyManagerImpl implements HotkeyManager
     @Override
     public void registerHotkeyProvider(HotkeyProvider provider)
     {
-        if (this.keyBindProviders.contains(provider) == false)
-        {
-            this.keyBindProviders.add(provider);
-        }
+        this.keyBindProviders.add(provider);
 
         for (HotkeyCategory category : provider.getHotkeysByCategories())
         {
@@ -53,32 +57,98 @@ public class HotkeyManagerImpl implements HotkeyManager
     @Override
     public void updateUsedKeys()
     {
-        this.hotkeyMap.clear();
+        if (this.batchDepth > 0)
+        {
+            this.rebuildPending = true;
+            ++this.deferredUpdateCount;
+            return;
+        }
+
+        this.rebuildHotkeyMap();
+    }
 
-        for (HotkeyProvider handler : this.keyBindProviders)
+    @Override
+    public void updateKeyBind(KeyBind keyBind)
+    {
+        // A pending full rebuild will include the change anyway
+        if (this.rebuildPending == false)
         {
-            for (Hotkey hotkey : handler.getAllHotkeys())
-            {
-                this.addKeyBindToMap(hotkey.getKeyBind());
-            }
+            this.hotkeyMap = this.hotkeyMap.withKeyBindUpdated(keyBind);
+            ++this.incrementalUpdateCount;
+        }
+    }
+
+    @Override
+    public void removeKeyBind(KeyBind keyBind)
+    {
+        if (this.rebuildPending == false)
+        {
+            this.hotkeyMap = this.hotkeyMap.withKeyBindRemoved(keyBind);
+            ++this.incrementalUpdateCount;
         }
+    }
 
-        this.hotkeyMap.values().forEach((list) -> list.sort(Comparator.comparingInt((v) -> v.getSettings().getPriority())));
+    @Override
+    public void beginBatch()
+    {
+        ++this.batchDepth;
     }
 
-    protected void addKeyBindToMap(KeyBind keybind)
+    @Override
+    public void endBatch()
     {
-        IntArrayList keys = new IntArrayList();
-        keybind.getKeysToList(keys);
-        final int size = keys.size();
+        if (this.batchDepth <= 0)
+        {
+            MaLiLib.LOGGER.warn("HotkeyManager#endBatch() called without a matching beginBatch() call");
+            return;
+        }
 
-        for (int i = 0; i < size; ++i)
+        if (--this.batchDepth == 0 && this.rebuildPending)
         {
-            int key = keys.getInt(i);
-            this.hotkeyMap.computeIfAbsent(key, (k) -> new ArrayList<>()).add(keybind);
+            this.rebuildHotkeyMap();
         }
     }
 
+    protected void rebuildHotkeyMap()
+    {
+        long start = System.nanoTime();
+
+        // The old map is replaced and not modified, so any currently
+        // running key event dispatch can keep using the old map
+        this.hotkeyMap = CompiledHotkeyMap.of(this.keyBindProviders);
+
+        this.lastRebuildNanos = System.nanoTime() - start;
+        this.totalRebuildNanos += this.lastRebuildNanos;
+        ++this.rebuildCount;
+
+        MaLiLib.debugLog("Rebuilt the hotkey map from {} providers: {} keybinds using {} keys in {} ms ({} deferred updates coalesced)",
+                         this.keyBindProviders.size(), this.hotkeyMap.getKeyBindCount(), this.hotkeyMap.getUsedKeyCount(),
+                         String.format("%.3f", this.lastRebuildNanos / 1000000.0), this.deferredUpdateCount);
+
+        this.rebuildPending = false;
+        this.deferredUpdateCount = 0;
+    }
+
+    public int getRebuildCount()
+    {
+        return this.rebuildCount;
+    }
+
+    public int getIncrementalUpdateCount()
+    {
+        return this.incrementalUpdateCount;
+    }
+
+    public long getLastRebuildNanos()
+    {
+        return this.lastRebuildNanos;
+    }
+
+    public long getTotalRebuildNanos()
+    {
+        return this.totalRebuildNanos;
+    }
+
     protected void addKeyBindCategory(HotkeyCategory category)
     {
         // Remove a previous entry, if any (matched based on the modName and keyCategory only!)
@@ -94,25 +164,19 @@ public class HotkeyManagerImpl implements HotkeyManager
     {
         boolean cancel = false;
         boolean isFirst = true;
-        List<KeyBind> keyBinds = this.hotkeyMap.get(eventKey);
+        KeyBind[] keyBinds = this.hotkeyMap.getKeyBindsForKey(eventKey);
 
-        if (keyBinds != null && keyBinds.isEmpty() == false)
+        for (KeyBind keyBind : keyBinds)
         {
-            // FIXME is there a better way to avoid CMEs when switching config screens?
-            keyBinds = new ArrayList<>(keyBinds);
+            // Note: updateIsPressed() has to be called for key releases too, to reset the state
+            KeyUpdateResult result = keyBind.updateIsPressed(isFirst);
 
-            for (KeyBind keyBind : keyBinds)
+            if (result.triggered)
             {
-                // Note: updateIsPressed() has to be called for key releases too, to reset the state
-                KeyUpdateResult result = keyBind.updateIsPressed(isFirst);
-
-                if (result.triggered)
-                {
-                    isFirst = false;
-                }
-
-                cancel |= result.cancel;
+                isFirst = false;
             }
+
+            cancel |= result.cancel;
         }
 
         return cancel;
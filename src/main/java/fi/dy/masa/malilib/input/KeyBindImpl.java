@@ -242,8 +242,8 @@ public class KeyBindImpl implements KeyBind
 
         if (sizePressed >= sizeRequired && (allowExtraKeys || sizePressed == sizeRequired))
         {
-            this.pressed = PRESSED_KEYS.containsAll(this.keyCodes);
-            final int pressedSize = PRESSED_KEYS.size();;
+            this.pressed = containsAllKeys(PRESSED_KEYS, this.keyCodes);
+            final int pressedSize = PRESSED_KEYS.size();
             int keyCodeIndex = 0;
 
             for (int i = 0; i < pressedSize; ++i)
@@ -508,6 +508,25 @@ public class KeyBindImpl implements KeyBind
         return obj;
     }
 
+    /**
+     * An indexed version of containsAll(), which doesn't allocate an iterator.
+     * Both lists are very short, so the nested loop is fine.
+     */
+    protected static boolean containsAllKeys(IntArrayList list, IntArrayList keys)
+    {
+        final int size = keys.size();
+
+        for (int i = 0; i < size; ++i)
+        {
+            if (list.contains(keys.getInt(i)) == false)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     public static boolean hotkeyMatchesKeyBind(Hotkey hotkey, KeyBinding keybind)
     {
         return hotkey.getKeyBind().matches(keybind.getKeyCode());
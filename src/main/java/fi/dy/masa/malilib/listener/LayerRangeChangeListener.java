@@ -1,5 +1,9 @@
 package fi.dy.masa.malilib.listener;
 
+import java.util.List;
+import net.minecraft.util.EnumFacing;
+import fi.dy.masa.malilib.util.position.SubChunkPos;
+
 public interface LayerRangeChangeListener
 {
     /**
@@ -24,4 +28,57 @@ public interface LayerRangeChangeListener
      * only between the given Z coordinate range is sufficient
      */
     void updateBetweenZ(int minZ, int maxZ);
+
+    /**
+     * This method is called with the coalesced updates of a {@link fi.dy.masa.malilib.util.position.LayerRange}
+     * that defers its updates (see {@link fi.dy.masa.malilib.util.position.LayerRange#setDeferRenderUpdates(boolean)}).
+     * Only the given sub-chunks need to be updated. The positions are ordered by their layer along the given axis.
+     * <br><br>
+     * The default implementation calls the updateBetween method of the given axis
+     * once for each continuous range of sub-chunk layers.
+     * @param axis the layer axis of the range
+     * @param positions the sub-chunks that need to be updated
+     */
+    default void updateSubChunks(EnumFacing.Axis axis, List<SubChunkPos> positions)
+    {
+        int rangeStart = Integer.MIN_VALUE;
+        int rangeEnd = Integer.MIN_VALUE;
+
+        for (SubChunkPos pos : positions)
+        {
+            int layer = axis == EnumFacing.Axis.X ? pos.getX() : (axis == EnumFacing.Axis.Y ? pos.getY() : pos.getZ());
+
+            if (layer == rangeEnd || layer == rangeEnd + 1)
+            {
+                rangeEnd = layer;
+                continue;
+            }
+
+            if (rangeStart != Integer.MIN_VALUE)
+            {
+                this.updateBetweenSubChunkLayers(axis, rangeStart, rangeEnd);
+            }
+
+            rangeStart = layer;
+            rangeEnd = layer;
+        }
+
+        if (rangeStart != Integer.MIN_VALUE)
+        {
+            this.updateBetweenSubChunkLayers(axis, rangeStart, rangeEnd);
+        }
+    }
+
+    default void updateBetweenSubChunkLayers(EnumFacing.Axis axis, int minLayer, int maxLayer)
+    {
+        int min = minLayer << 4;
+        int max = (maxLayer << 4) + 15;
+
+        switch (axis)
+        {
+            case X: this.updateBetweenX(min, max); break;
+            case Y: this.updateBetweenY(min, max); break;
+            case Z: this.updateBetweenZ(min, max); break;
+        }
+    }
 }
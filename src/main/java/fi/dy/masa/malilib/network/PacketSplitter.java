@@ -1,9 +1,13 @@
 package fi.dy.masa.malilib.network;
 
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import javax.annotation.Nullable;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 import org.apache.commons.lang3.tuple.Pair;
 import net.minecraft.client.network.NetHandlerPlayClient;
@@ -26,6 +30,8 @@ public class PacketSplitter
     public static final int DEFAULT_MAX_RECEIVE_SIZE_C2S = 1048576;
     public static final int DEFAULT_MAX_RECEIVE_SIZE_S2C = 67108864;
 
+    public static final long READING_SESSION_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
     private static final Map<Pair<INetHandler, ResourceLocation>, ReadingSession> READING_SESSIONS = new HashMap<>();
 
     public static void send(ResourceLocation channel,
@@ -42,21 +48,25 @@ public class PacketSplitter
     {
         int totalSize = packet.writerIndex();
 
-        packet.resetReaderIndex();
-
+        // The split packets are just retained slices of the original packet, so the
+        // payload data doesn't get copied here. The packets are written out later on the
+        // network thread, so each slice needs to keep the original buffer alive until then.
         for (int offset = 0; offset < totalSize; offset += payloadLimit)
         {
             int packetSize = Math.min(totalSize - offset, payloadLimit);
-            PacketBuffer buf = new PacketBuffer(Unpooled.buffer(packetSize));
-
-            buf.resetWriterIndex();
+            ByteBuf slice = packet.retainedSlice(offset, packetSize);
+            PacketBuffer buf;
 
             if (offset == 0)
             {
-                buf.writeVarInt(totalSize);
+                PacketBuffer header = new PacketBuffer(Unpooled.buffer(5));
+                header.writeVarInt(totalSize);
+                buf = new PacketBuffer(Unpooled.wrappedBuffer(header, slice));
+            }
+            else
+            {
+                buf = new PacketBuffer(slice);
             }
-
-            buf.writeBytes(packet, packetSize);
 
             sender.accept(buf);
         }
@@ -76,18 +86,63 @@ public class PacketSplitter
                                         SPacketCustomPayload message,
                                         int maxLength)
     {
+        long currentTime = System.nanoTime();
+        evictStaleReadingSessions(networkHandler, currentTime);
+
         Pair<INetHandler, ResourceLocation> key = Pair.of(networkHandler,
                                                           new ResourceLocation(message.getChannelName()));
 
         return READING_SESSIONS.computeIfAbsent(key, ReadingSession::new)
-                .receive(PacketUtils.slice(message.getBufferData()), maxLength);
+                .receive(PacketUtils.slice(message.getBufferData()), maxLength, currentTime);
+    }
+
+    /**
+     * Discards all the partially received packets.
+     * This is called when disconnecting from a server.
+     */
+    public static void clearReadingSessions()
+    {
+        for (ReadingSession session : READING_SESSIONS.values())
+        {
+            session.discard();
+        }
+
+        READING_SESSIONS.clear();
+    }
+
+    /**
+     * Discards the partially received packets from old connections,
+     * and the ones that haven't received any new data within the timeout
+     */
+    private static void evictStaleReadingSessions(INetHandler currentNetHandler, long currentTime)
+    {
+        if (READING_SESSIONS.isEmpty())
+        {
+            return;
+        }
+
+        Iterator<ReadingSession> iter = READING_SESSIONS.values().iterator();
+
+        while (iter.hasNext())
+        {
+            ReadingSession session = iter.next();
+
+            if (session.key.getLeft() != currentNetHandler ||
+                currentTime - session.lastReceiveTime > READING_SESSION_TIMEOUT_NANOS)
+            {
+                session.discard();
+                iter.remove();
+            }
+        }
     }
 
     private static class ReadingSession
     {
         private final Pair<INetHandler, ResourceLocation> key;
         private int expectedSize = -1;
-        private PacketBuffer received;
+        private int receivedSize;
+        private long lastReceiveTime;
+        private CompositeByteBuf received;
 
         private ReadingSession(Pair<INetHandler, ResourceLocation> key)
         {
@@ -95,29 +150,48 @@ public class PacketSplitter
         }
 
         @Nullable
-        private PacketBuffer receive(PacketBuffer data, int maxLength)
+        private PacketBuffer receive(PacketBuffer data, int maxLength, long currentTime)
         {
+            this.lastReceiveTime = currentTime;
+
             if (this.expectedSize < 0)
             {
                 this.expectedSize = data.readVarInt();
 
                 if (this.expectedSize > maxLength)
                 {
+                    READING_SESSIONS.remove(this.key);
                     throw new IllegalArgumentException("Payload too large");
                 }
 
-                this.received = new PacketBuffer(Unpooled.buffer(this.expectedSize));
+                // Use an unlimited number of components, so that the
+                // composite buffer doesn't consolidate (ie. copy) the fragments
+                this.received = Unpooled.compositeBuffer(Integer.MAX_VALUE);
             }
 
-            this.received.writeBytes(data.readBytes(data.readableBytes()));
+            int length = data.readableBytes();
 
-            if (this.received.writerIndex() >= this.expectedSize)
+            // The fragment is added as a retained slice of the received packet's data,
+            // it gets released along with the composite buffer
+            this.received.addComponent(true, data.retainedSlice(data.readerIndex(), length));
+            this.receivedSize += length;
+
+            if (this.receivedSize >= this.expectedSize)
             {
                 READING_SESSIONS.remove(this.key);
-                return this.received;
+                return new PacketBuffer(this.received);
             }
 
             return null;
         }
+
+        private void discard()
+        {
+            if (this.received != null)
+            {
+                this.received.release();
+                this.received = null;
+            }
+        }
     }
 }
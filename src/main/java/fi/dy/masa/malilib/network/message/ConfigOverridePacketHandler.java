@@ -34,6 +34,9 @@ public class ConfigOverridePacketHandler extends BasePacketHandler
 
             if (el != null && el.isJsonObject())
             {
+                // The overrides sent by the server take precedence over any still pending MOTD override fetches
+                ConfigOverrideUtils.cancelPendingOverrideFetches();
+
                 if (resetFirst)
                 {
                     ConfigOverrideUtils.resetConfigOverrides();
@@ -197,6 +197,11 @@ public class InfoArea
         this.needsReLayout = false;
     }
 
+    public boolean needsReLayout()
+    {
+        return this.needsReLayout;
+    }
+
     public void updateState()
     {
         if (this.needsReLayout)
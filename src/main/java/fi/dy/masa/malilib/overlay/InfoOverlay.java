@@ -19,7 +19,9 @@ import fi.dy.masa.malilib.gui.widget.BaseWidget;
 import fi.dy.masa.malilib.overlay.widget.InfoRendererWidget;
 import fi.dy.masa.malilib.overlay.widget.StringListRendererWidget;
 import fi.dy.masa.malilib.registry.Registry;
+import fi.dy.masa.malilib.render.OffscreenRenderCache;
 import fi.dy.masa.malilib.render.RenderUtils;
+import fi.dy.masa.malilib.render.TextRenderUtils;
 import fi.dy.masa.malilib.util.GameUtils;
 
 public class InfoOverlay implements PostGameOverlayRenderer, PostScreenRenderer, ClientTickHandler
@@ -31,6 +33,15 @@ public class InfoOverlay implements PostGameOverlayRenderer, PostScreenRenderer,
     protected final List<InfoArea> activeInfoAreas = new ArrayList<>();
     protected final Minecraft mc = GameUtils.getClient();
     protected boolean needsReFetch;
+    protected long tickCounter;
+    protected int updatedWidgets;
+    protected int skippedWidgetUpdates;
+    protected int skippedSubWidgetUpdates;
+    protected int reLayouts;
+    protected int lastUpdatedWidgets;
+    protected int lastSkippedWidgetUpdates;
+    protected int lastSkippedSubWidgetUpdates;
+    protected int lastReLayouts;
 
     public InfoArea getOrCreateInfoArea(ScreenLocation location)
     {
@@ -104,6 +115,8 @@ public class InfoOverlay implements PostGameOverlayRenderer, PostScreenRenderer,
 
     /**
      * Calls the InfoRendererWidget#updateState() method on all the currently enabled widgets.
+     * If the event driven updates are enabled, then only the widgets that requested an update,
+     * need to be laid out again or whose update interval has elapsed, are updated.
      * Don't call this unless you have your own instance of the InfoOverlay,
      * ie. don't call this on InfoOverlay.INSTANCE
      */
@@ -115,28 +128,62 @@ public class InfoOverlay implements PostGameOverlayRenderer, PostScreenRenderer,
             this.needsReFetch = false;
         }
 
+        boolean eventDriven = MaLiLibConfigs.Generic.INFO_OVERLAY_EVENT_UPDATES.getBooleanValue();
+        long tick = ++this.tickCounter;
+
         if (GuiUtils.getCurrentScreen() != null)
         {
-            for (InfoRendererWidget widget : this.enabledGuiWidgets)
-            {
-                // This allows the widgets to update their contents, which may also change their dimensions
-                widget.updateState();
-            }
+            this.updateWidgets(this.enabledGuiWidgets, tick, eventDriven);
         }
         else
         {
-            for (InfoRendererWidget widget : this.enabledInGameWidgets)
-            {
-                // This allows the widgets to update their contents, which may also change their dimensions
-                widget.updateState();
-            }
+            this.updateWidgets(this.enabledInGameWidgets, tick, eventDriven);
         }
 
         for (InfoArea infoArea : this.activeInfoAreas)
         {
+            if (infoArea.needsReLayout())
+            {
+                ++this.reLayouts;
+            }
+
             // This allows the InfoArea to re-layout its widgets
             infoArea.updateState();
         }
+
+        // Update the statistics for the debug info once per second
+        if (tick % 20 == 0)
+        {
+            this.lastUpdatedWidgets = this.updatedWidgets;
+            this.lastSkippedWidgetUpdates = this.skippedWidgetUpdates;
+            this.lastSkippedSubWidgetUpdates = this.skippedSubWidgetUpdates;
+            this.lastReLayouts = this.reLayouts;
+            this.updatedWidgets = 0;
+            this.skippedWidgetUpdates = 0;
+            this.skippedSubWidgetUpdates = 0;
+            this.reLayouts = 0;
+        }
+    }
+
+    protected void updateWidgets(List<InfoRendererWidget> widgets, long tick, boolean eventDriven)
+    {
+        for (InfoRendererWidget widget : widgets)
+        {
+            if (eventDriven == false || widget.needsStateUpdate(tick))
+            {
+                // This allows the widgets to update their contents, which may also change their dimensions
+                widget.onPreStateUpdate(tick);
+                widget.updateState();
+                widget.onStateUpdated(tick);
+                ++this.updatedWidgets;
+            }
+            else
+            {
+                ++this.skippedWidgetUpdates;
+            }
+
+            this.skippedSubWidgetUpdates += widget.getAndResetSkippedSubWidgetUpdates();
+        }
     }
 
     /**
@@ -171,6 +218,11 @@ public class InfoOverlay implements PostGameOverlayRenderer, PostScreenRenderer,
             if (debug)
             {
                 BaseWidget.renderDebugTextAndClear(ctx);
+
+                if (isScreenOpen == false)
+                {
+                    this.renderUpdateStatistics();
+                }
             }
         }
     }
@@ -206,7 +258,55 @@ public class InfoOverlay implements PostGameOverlayRenderer, PostScreenRenderer,
         if (debug)
         {
             BaseWidget.renderDebugTextAndClear(ctx);
+            this.renderUpdateStatistics();
+        }
+    }
+
+    /**
+     * Renders the widget update statistics of the last second, for the info overlay debug mode
+     */
+    protected void renderUpdateStatistics()
+    {
+        List<String> lines = new ArrayList<>();
+
+        for (InfoRendererWidget widget : this.allEnabledWidgets)
+        {
+            OffscreenRenderCache cache = widget.getRenderCache();
+
+            if (cache != null)
+            {
+                lines.add(String.format("Render cache '%s': hit rate %.1f %% (%d / %d), saved ~%.1f ms",
+                                        widget.getName(), cache.getHitRate() * 100.0, cache.getHits(),
+                                        cache.getHits() + cache.getMisses(), cache.getSavedNanos() / 1000000.0));
+            }
         }
+
+        lines.add(String.format("InfoOverlay updates/s: %d, skipped: %d, skipped sub-widgets: %d, re-layouts: %d",
+                                this.lastUpdatedWidgets, this.lastSkippedWidgetUpdates,
+                                this.lastSkippedSubWidgetUpdates, this.lastReLayouts));
+
+        int y = GuiUtils.getScaledWindowHeight() - lines.size() * 11;
+        TextRenderUtils.renderText(2, y, 0xFFFFFF00, lines);
+    }
+
+    public int getLastSecondUpdatedWidgets()
+    {
+        return this.lastUpdatedWidgets;
+    }
+
+    public int getLastSecondSkippedWidgetUpdates()
+    {
+        return this.lastSkippedWidgetUpdates;
+    }
+
+    public int getLastSecondSkippedSubWidgetUpdates()
+    {
+        return this.lastSkippedSubWidgetUpdates;
+    }
+
+    public int getLastSecondReLayouts()
+    {
+        return this.lastReLayouts;
     }
 
     /**
@@ -45,6 +45,7 @@ public class ConfigStatusIndicatorContainerWidget extends InfoRendererWidget
     protected final List<BaseConfigStatusIndicatorWidget<?>> enabledWidgets = new ArrayList<>();
     protected final HotkeyConfig hotkey = new HotkeyConfig("csiToggleKey", "");
     protected boolean enabledWidgetsChanged;
+    protected int skippedSubWidgetUpdates;
 
     public ConfigStatusIndicatorContainerWidget()
     {
@@ -53,6 +54,10 @@ public class ConfigStatusIndicatorContainerWidget extends InfoRendererWidget
         this.hotkey.getKeyBind().setCallback(this::toggleIndicatorGroupEnabled);
         this.hotkey.setModInfo(MaLiLibReference.MOD_INFO);
         this.shouldSerialize = true;
+
+        // The indicators get updated via the config value change listeners. This interval
+        // is for the changes that don't fire the listeners, such as changed keys of a key bind.
+        this.updateInterval = 20;
     }
 
     @Override
@@ -61,6 +66,25 @@ public class ConfigStatusIndicatorContainerWidget extends InfoRendererWidget
         return MaLiLibReference.MOD_ID + ":csi_container";
     }
 
+    @Override
+    public boolean supportsRenderCache()
+    {
+        return true;
+    }
+
+    @Override
+    protected int getRenderCacheContentHash()
+    {
+        int hash = super.getRenderCacheContentHash();
+
+        for (BaseConfigStatusIndicatorWidget<?> widget : this.enabledWidgets)
+        {
+            hash = 31 * hash + widget.getRenderStateHash();
+        }
+
+        return hash;
+    }
+
     public Collection<ConfigOnTab> getConfigs()
     {
         return this.configs;
@@ -81,9 +105,7 @@ public class ConfigStatusIndicatorContainerWidget extends InfoRendererWidget
             if (factory != null)
             {
                 BaseConfigStatusIndicatorWidget<?> widget = factory.create(config.getConfig(), config);
-                widget.setGeometryChangeListener(this::requestConditionalReLayout);
-                widget.setEnabledChangeListener(this::notifyEnabledWidgetsChanged);
-                widget.setHeight(this.getLineHeight());
+                this.initStatusWidget(widget);
                 this.allWidgets.add(widget);
                 this.configs.add(config);
                 this.notifyEnabledWidgetsChanged();
@@ -95,6 +117,7 @@ public class ConfigStatusIndicatorContainerWidget extends InfoRendererWidget
     public void removeWidget(BaseConfigStatusIndicatorWidget<?> widget)
     {
         this.allWidgets.remove(widget);
+        widget.stopListeningForValueChanges();
 
         if (widget.isEnabled())
         {
@@ -128,14 +151,14 @@ public class ConfigStatusIndicatorContainerWidget extends InfoRendererWidget
 
     public void setStatusIndicatorWidgets(List<BaseConfigStatusIndicatorWidget<?>> widgets)
     {
-        this.allWidgets.clear();
-        this.configs.clear();
+        this.clearStatusWidgets();
 
         this.allWidgets.addAll(widgets);
 
         for (BaseConfigStatusIndicatorWidget<?> widget : widgets)
         {
             this.configs.add(widget.getConfigOnTab());
+            this.initStatusWidget(widget);
         }
 
         this.notifyEnabledWidgetsChanged();
@@ -155,6 +178,37 @@ public class ConfigStatusIndicatorContainerWidget extends InfoRendererWidget
         this.requestUnconditionalReLayout();
     }
 
+    protected void initStatusWidget(BaseConfigStatusIndicatorWidget<?> widget)
+    {
+        widget.setGeometryChangeListener(this::requestConditionalReLayout);
+        widget.setEnabledChangeListener(this::notifyEnabledWidgetsChanged);
+        widget.setStateChangeListener(this::requestStateUpdate);
+        widget.setHeight(this.getLineHeight());
+        widget.startListeningForValueChanges();
+    }
+
+    protected void clearStatusWidgets()
+    {
+        for (BaseConfigStatusIndicatorWidget<?> widget : this.allWidgets)
+        {
+            widget.stopListeningForValueChanges();
+        }
+
+        this.allWidgets.clear();
+        this.configs.clear();
+    }
+
+    @Override
+    public void invalidate()
+    {
+        super.invalidate();
+
+        for (BaseConfigStatusIndicatorWidget<?> widget : this.allWidgets)
+        {
+            widget.stopListeningForValueChanges();
+        }
+    }
+
     protected void notifyEnabledWidgetsChanged()
     {
         this.enabledWidgetsChanged = true;
@@ -172,7 +226,7 @@ public class ConfigStatusIndicatorContainerWidget extends InfoRendererWidget
                 if (widget.isEnabled())
                 {
                     this.enabledWidgets.add(widget);
-                    widget.updateState(true);
+                    widget.updateStateAndClearDirty(true);
                 }
             }
 
@@ -232,14 +286,36 @@ public class ConfigStatusIndicatorContainerWidget extends InfoRendererWidget
     @Override
     public void updateState()
     {
+        // If this update was requested by a config value change, then only the indicators
+        // of the changed configs need to be updated, otherwise all of them are polled.
+        // All of them are also polled once the update interval has passed, because not all
+        // state changes (such as loaded values, override locks or keybind changes) fire the value listeners.
+        boolean pollAll = this.stateUpdateRequested == false || this.periodicStateUpdateDue;
+        this.partialStateUpdate = pollAll == false;
+
         for (BaseConfigStatusIndicatorWidget<?> widget : this.allWidgets)
         {
-            widget.updateState(false);
+            if (pollAll || widget.isStateDirty())
+            {
+                widget.updateStateAndClearDirty(false);
+            }
+            else
+            {
+                ++this.skippedSubWidgetUpdates;
+            }
         }
 
         super.updateState();
     }
 
+    @Override
+    public int getAndResetSkippedSubWidgetUpdates()
+    {
+        int count = this.skippedSubWidgetUpdates;
+        this.skippedSubWidgetUpdates = 0;
+        return count;
+    }
+
     @Override
     protected void renderOddEvenTextLineBackgrounds(int x, int y, float z, ScreenContext ctx)
     {
@@ -336,7 +412,7 @@ public class ConfigStatusIndicatorContainerWidget extends InfoRendererWidget
             this.hotkey.getKeyBind().setValueFromJsonElement(obj.get("hotkey"), "");
         }
 
-        this.allWidgets.clear();
+        this.clearStatusWidgets();
 
         List<ConfigTab> tabs = Registry.CONFIG_TAB.getAllRegisteredConfigTabs();
         Map<String, ConfigOnTab> configMap = ConfigUtils.getConfigIdToConfigMapFromTabs(tabs);
@@ -353,10 +429,8 @@ public class ConfigStatusIndicatorContainerWidget extends InfoRendererWidget
 
         if (widget != null)
         {
-            widget.setGeometryChangeListener(this::requestConditionalReLayout);
-            widget.setEnabledChangeListener(this::notifyEnabledWidgetsChanged);
-            widget.setHeight(this.getLineHeight());
-            widget.updateState(true);
+            this.initStatusWidget(widget);
+            widget.updateStateAndClearDirty(true);
             this.allWidgets.add(widget);
         }
     }
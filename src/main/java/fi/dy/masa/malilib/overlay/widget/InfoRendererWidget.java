@@ -2,6 +2,7 @@ package fi.dy.masa.malilib.overlay.widget;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.IntSupplier;
 import javax.annotation.Nullable;
@@ -21,6 +22,7 @@ import fi.dy.masa.malilib.gui.widget.list.entry.BaseInfoRendererWidgetEntryWidge
 import fi.dy.masa.malilib.overlay.InfoOverlay;
 import fi.dy.masa.malilib.overlay.InfoWidgetRegistry;
 import fi.dy.masa.malilib.registry.Registry;
+import fi.dy.masa.malilib.render.OffscreenRenderCache;
 import fi.dy.masa.malilib.render.RenderUtils;
 import fi.dy.masa.malilib.render.ShapeRenderUtils;
 import fi.dy.masa.malilib.render.text.MultiLineTextRenderSettings;
@@ -40,12 +42,20 @@ public abstract class InfoRendererWidget extends BaseOverlayWidget
     protected IntSupplier viewportWidthSupplier = GuiUtils::getScaledWindowWidth;
     protected String name = "?";
     @Nullable protected StyledTextLine styledName;
+    @Nullable protected OffscreenRenderCache renderCache;
+    protected boolean partialStateUpdate;
+    protected boolean periodicStateUpdateDue;
     protected boolean renderAboveScreen;
     protected boolean renderName;
     protected boolean shouldSerialize;
+    protected boolean stateUpdateRequested = true;
+    protected boolean useRenderCache = true;
     protected boolean valid = true;
     protected double scale = 1.0;
+    protected int renderCacheContentVersion;
     protected int sortIndex = 100;
+    protected int updateInterval = 1;
+    protected long lastStateUpdateTick;
 
     public InfoRendererWidget()
     {
@@ -140,6 +150,160 @@ public abstract class InfoRendererWidget extends BaseOverlayWidget
         this.sortIndex = index;
     }
 
+    public int getUpdateInterval()
+    {
+        return this.updateInterval;
+    }
+
+    /**
+     * Sets how often (in client ticks) this widget wants its {@link #updateState()} method to be called,
+     * when the event driven InfoOverlay updates are enabled.
+     * The default interval is 1, which means every tick. An interval of 0 means that the
+     * state is only updated when requested via {@link #requestStateUpdate()}, or when
+     * the widget needs to be laid out again.
+     */
+    public void setUpdateInterval(int updateInterval)
+    {
+        this.updateInterval = Math.max(updateInterval, 0);
+    }
+
+    /**
+     * Requests the {@link #updateState()} method to be called on the next client tick,
+     * for example because some data displayed by this widget has changed.
+     * This only matters for widgets that have an update interval other than 1.
+     */
+    public void requestStateUpdate()
+    {
+        this.stateUpdateRequested = true;
+    }
+
+    /**
+     * Used by the InfoOverlay when the event driven updates are enabled,
+     * to check whether this widget needs its state updated on the current tick.
+     */
+    public boolean needsStateUpdate(long currentTick)
+    {
+        return this.stateUpdateRequested ||
+               this.needsReLayout ||
+               this.geometryResizeNotifier.hasPendingDelayedUpdate() ||
+               this.isPeriodicStateUpdateDue(currentTick);
+    }
+
+    /**
+     * @return true if the update interval has passed since the last full state update
+     */
+    protected boolean isPeriodicStateUpdateDue(long currentTick)
+    {
+        return this.updateInterval > 0 && currentTick - this.lastStateUpdateTick >= this.updateInterval;
+    }
+
+    /**
+     * Called by the InfoOverlay before the {@link #updateState()} method gets called.
+     * An {@link #updateState()} implementation that only updates some of its state when the
+     * update was requested should check {@link #periodicStateUpdateDue}, and set
+     * {@link #partialStateUpdate} to true when it only did such a partial update.
+     */
+    public void onPreStateUpdate(long currentTick)
+    {
+        this.periodicStateUpdateDue = this.isPeriodicStateUpdateDue(currentTick);
+        this.partialStateUpdate = false;
+    }
+
+    /**
+     * Called by the InfoOverlay after the {@link #updateState()} method has been called
+     */
+    public void onStateUpdated(long currentTick)
+    {
+        this.stateUpdateRequested = false;
+
+        // Partial updates don't reset the interval, so that the periodic full update still happens on time
+        if (this.partialStateUpdate == false)
+        {
+            this.lastStateUpdateTick = currentTick;
+        }
+    }
+
+    /**
+     * Returns the number of sub-widget state updates that this widget skipped since the last call,
+     * because their data had not changed. This is only used for the InfoOverlay debug statistics.
+     */
+    public int getAndResetSkippedSubWidgetUpdates()
+    {
+        return 0;
+    }
+
+    /**
+     * Returns whether or not the rendered output of this widget only depends on
+     * the data included in {@link #getRenderCacheContentHash()}, and the widget can thus
+     * be rendered from an offscreen framebuffer when the render cache is enabled.
+     * Widgets that animate or otherwise change on their own between ticks must return false.
+     */
+    public boolean supportsRenderCache()
+    {
+        return false;
+    }
+
+    public boolean getUseRenderCache()
+    {
+        return this.useRenderCache;
+    }
+
+    /**
+     * Sets whether or not this widget should use the render cache, if the widget supports it
+     * and the render cache is enabled in the malilib configs
+     */
+    public void setUseRenderCache(boolean useRenderCache)
+    {
+        this.useRenderCache = useRenderCache;
+
+        if (useRenderCache == false)
+        {
+            this.deleteRenderCache();
+        }
+    }
+
+    @Nullable
+    public OffscreenRenderCache getRenderCache()
+    {
+        return this.renderCache;
+    }
+
+    /**
+     * Marks the cached rendered output of this widget as outdated.
+     * This needs to be called whenever something that is not included in
+     * {@link #getRenderCacheContentHash()} changes the rendered output of the widget.
+     */
+    public void invalidateRenderCache()
+    {
+        ++this.renderCacheContentVersion;
+    }
+
+    /**
+     * Returns a hash of all the data that affects the rendered output of this widget.
+     * The size and scale of the widget are always checked separately.
+     */
+    protected int getRenderCacheContentHash()
+    {
+        return Objects.hash(this.renderCacheContentVersion, this.renderName, this.styledName);
+    }
+
+    protected void deleteRenderCache()
+    {
+        if (this.renderCache != null)
+        {
+            this.renderCache.deleteFramebuffer();
+            this.renderCache = null;
+        }
+    }
+
+    protected boolean shouldUseRenderCache(ScreenContext ctx)
+    {
+        return this.useRenderCache &&
+               this.supportsRenderCache() &&
+               MaLiLibConfigs.Generic.INFO_OVERLAY_RENDER_CACHE.getBooleanValue() &&
+               OffscreenRenderCache.isSupported();
+    }
+
     /**
      * Adds a listener that gets notified when the ScreenLocation of this widget gets changed.
      */
@@ -208,6 +372,7 @@ public abstract class InfoRendererWidget extends BaseOverlayWidget
     public void invalidate()
     {
         this.valid = false;
+        this.deleteRenderCache();
     }
 
     public void openEditScreen()
@@ -298,6 +463,55 @@ public abstract class InfoRendererWidget extends BaseOverlayWidget
             return;
         }
 
+        if (this.shouldUseRenderCache(ctx))
+        {
+            this.renderCached(x, y, z, ctx);
+        }
+        else
+        {
+            this.renderWidget(x, y, z, ctx);
+        }
+
+        if (MaLiLibConfigs.Debug.INFO_OVERLAY_DEBUG.getBooleanValue())
+        {
+            this.renderDebug(x, y, z, false, ctx);
+        }
+    }
+
+    protected void renderCached(int x, int y, float z, ScreenContext ctx)
+    {
+        // Any changes to the widget settings happen while a screen is open,
+        // so don't use the cache during that time, to always show the current settings
+        if (GuiUtils.getCurrentScreen() != null)
+        {
+            if (this.renderCache != null)
+            {
+                this.renderCache.invalidate();
+            }
+
+            this.renderWidget(x, y, z, ctx);
+            return;
+        }
+
+        int width = (int) Math.ceil(this.getWidth() * this.scale);
+        int height = (int) Math.ceil(this.getHeight() * this.scale);
+
+        if (width <= 0 || height <= 0)
+        {
+            return;
+        }
+
+        if (this.renderCache == null)
+        {
+            this.renderCache = new OffscreenRenderCache();
+        }
+
+        this.renderCache.render(x, y, z, width, height, this.getRenderCacheContentHash(),
+                                () -> this.renderWidget(0, 0, 0f, ctx));
+    }
+
+    protected void renderWidget(int x, int y, float z, ScreenContext ctx)
+    {
         RenderUtils.color(1f, 1f, 1f, 1f);
         RenderUtils.setupBlend();
 
@@ -305,6 +519,8 @@ public abstract class InfoRendererWidget extends BaseOverlayWidget
 
         if (scaled)
         {
+            // Any batched shapes need to be drawn with the matrix that they were added with
+            ctx.flushBatchedRendering();
             GlStateManager.pushMatrix();
             GlStateManager.translate(x, y, z);
             GlStateManager.scale(this.scale, this.scale, 1);
@@ -322,13 +538,9 @@ public abstract class InfoRendererWidget extends BaseOverlayWidget
 
         if (scaled)
         {
+            ctx.flushBatchedRendering();
             GlStateManager.popMatrix();
         }
-
-        if (MaLiLibConfigs.Debug.INFO_OVERLAY_DEBUG.getBooleanValue())
-        {
-            this.renderDebug(x, y, z, false, ctx);
-        }
     }
 
     protected int renderName(int x, int y, float z, ScreenContext ctx)
@@ -403,6 +615,7 @@ public abstract class InfoRendererWidget extends BaseOverlayWidget
         if (this.getZ() != 0.0F) { obj.addProperty("z", this.getZ()); }
         if (this.scale != 1.0) { obj.addProperty("scale", this.scale); }
         if (this.sortIndex != 100) { obj.addProperty("sort_index", this.getSortIndex()); }
+        if (this.useRenderCache == false) { obj.addProperty("render_cache", false); }
         this.getTextSettings().writeToJsonIfModified(obj, "text_settings");
         this.backgroundRenderer.getNormalSettings().writeToJsonIfModified(obj, "bg");
         this.borderRenderer.getNormalSettings().writeToJsonIfModified(obj, "border");
@@ -422,6 +635,8 @@ public abstract class InfoRendererWidget extends BaseOverlayWidget
         this.scale = JsonUtils.getDoubleOrDefault(obj, "scale", 1.0);
         this.setSortIndex(JsonUtils.getIntegerOrDefault(obj, "sort_index", 100));
         this.setZ(JsonUtils.getFloatOrDefault(obj, "z", this.getZ()));
+        this.setUseRenderCache(JsonUtils.getBooleanOrDefault(obj, "render_cache", true));
+        this.invalidateRenderCache();
         JsonUtils.readObjectIfExists(obj, "text_settings", this.getTextSettings()::fromJson);
         JsonUtils.readObjectIfExists(obj, "bg", this.backgroundRenderer.getNormalSettings()::fromJson);
         JsonUtils.readObjectIfExists(obj, "border", this.borderRenderer.getNormalSettings()::fromJson);
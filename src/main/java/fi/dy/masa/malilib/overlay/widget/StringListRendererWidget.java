@@ -29,6 +29,9 @@ public class StringListRendererWidget extends InfoRendererWidget
         this.padding.setChangeListener(this::onPaddingChanged);
         this.padding.setAll(1, 2, 0, 2);
         this.shouldSerialize = true;
+
+        // The lines are only re-built when they are marked dirty
+        this.updateInterval = 0;
     }
 
     @Override
@@ -37,6 +40,12 @@ public class StringListRendererWidget extends InfoRendererWidget
         return MaLiLibReference.MOD_ID + ":string_list_renderer";
     }
 
+    @Override
+    public boolean supportsRenderCache()
+    {
+        return true;
+    }
+
     @Override
     public void initListEntryWidget(BaseInfoRendererWidgetEntryWidget widget)
     {
@@ -123,6 +132,7 @@ public class StringListRendererWidget extends InfoRendererWidget
     {
         //System.out.print("StringListRendererWidget#markDirty()\n");
         this.dirty = true;
+        this.requestStateUpdate();
     }
 
     protected void updateLines()
@@ -133,6 +143,7 @@ public class StringListRendererWidget extends InfoRendererWidget
         {
             this.stringListFactory.markDirty();
             this.stringListRenderer.setStyledTextLines(this.stringListFactory.getStyledLines());
+            this.invalidateRenderCache();
 
             this.requestConditionalReLayout();
         }
@@ -1,6 +1,7 @@
 package fi.dy.masa.malilib.overlay.widget.sub;
 
 import java.util.Map;
+import java.util.Objects;
 import javax.annotation.Nullable;
 import com.google.common.collect.ImmutableList;
 import com.google.gson.JsonElement;
@@ -8,6 +9,7 @@ import com.google.gson.JsonObject;
 import fi.dy.masa.malilib.MaLiLib;
 import fi.dy.masa.malilib.MaLiLibReference;
 import fi.dy.masa.malilib.config.option.ConfigInfo;
+import fi.dy.masa.malilib.config.option.ConfigOption;
 import fi.dy.masa.malilib.gui.BaseScreen;
 import fi.dy.masa.malilib.gui.config.BaseConfigTab;
 import fi.dy.masa.malilib.gui.config.ConfigTab;
@@ -15,6 +17,7 @@ import fi.dy.masa.malilib.gui.config.indicator.BaseConfigStatusIndicatorEditScre
 import fi.dy.masa.malilib.gui.config.indicator.ConfigStatusWidgetFactory;
 import fi.dy.masa.malilib.gui.util.GuiUtils;
 import fi.dy.masa.malilib.gui.util.ScreenContext;
+import fi.dy.masa.malilib.listener.EventListener;
 import fi.dy.masa.malilib.overlay.widget.BaseOverlayWidget;
 import fi.dy.masa.malilib.registry.Registry;
 import fi.dy.masa.malilib.render.text.StyledTextLine;
@@ -26,10 +29,14 @@ public abstract class BaseConfigStatusIndicatorWidget<C extends ConfigInfo> exte
     protected final C config;
     protected final ConfigOnTab configOnTab;
     protected final String widgetTypeId;
+    protected final EventListener configValueChangeListener = this::onConfigValueChanged;
+    @Nullable protected EventListener stateChangeListener;
     protected String name = "?";
     protected StyledTextLine styledName;
     @Nullable protected StyledTextLine valueDisplayText;
+    protected boolean listeningForValueChanges;
     protected boolean nameShadow = true;
+    protected boolean stateDirty = true;
     protected boolean valueShadow = true;
     protected int nameColor = 0xFFFFFFFF;
     protected int valueColor = 0xFF00FFFF;
@@ -131,8 +138,82 @@ public abstract class BaseConfigStatusIndicatorWidget<C extends ConfigInfo> exte
         BaseScreen.openScreen(screen);
     }
 
+    /**
+     * Sets a listener that gets notified when the value of the config of this widget
+     * changes, and this widget thus needs its state updated.
+     */
+    public void setStateChangeListener(@Nullable EventListener listener)
+    {
+        this.stateChangeListener = listener;
+    }
+
+    /**
+     * @return true if the config value has changed since the last call to {@link #updateState(boolean)}
+     */
+    public boolean isStateDirty()
+    {
+        return this.stateDirty;
+    }
+
+    /**
+     * Starts listening for value changes of the config, if it is a config option.
+     * Note that values loaded from the config file, and key bind changes, don't fire
+     * the value change listeners, so the widget still needs to be polled occasionally.
+     */
+    public void startListeningForValueChanges()
+    {
+        if (this.listeningForValueChanges == false && this.config instanceof ConfigOption)
+        {
+            ((ConfigOption<?>) this.config).addValueChangeListener(this.configValueChangeListener);
+            this.listeningForValueChanges = true;
+        }
+    }
+
+    /**
+     * Stops listening for value changes of the config.
+     * This must be called when the widget is removed, to not leak the widget via the config.
+     */
+    public void stopListeningForValueChanges()
+    {
+        if (this.listeningForValueChanges)
+        {
+            ((ConfigOption<?>) this.config).removeValueChangeListener(this.configValueChangeListener);
+            this.listeningForValueChanges = false;
+        }
+    }
+
+    protected void onConfigValueChanged()
+    {
+        this.stateDirty = true;
+
+        if (this.stateChangeListener != null)
+        {
+            this.stateChangeListener.onEvent();
+        }
+    }
+
+    /**
+     * Updates the state of this widget, and clears the dirty flag
+     */
+    public void updateStateAndClearDirty(boolean force)
+    {
+        this.updateState(force);
+        this.stateDirty = false;
+    }
+
     public abstract void updateState(boolean force);
 
+    /**
+     * Returns a hash of everything that affects the rendered output of this widget.
+     * This is used by the render cache of the container widget.
+     */
+    public int getRenderStateHash()
+    {
+        return Objects.hash(this.styledName, this.valueDisplayText, this.getIcon(),
+                            this.nameColor, this.valueColor, this.nameShadow, this.valueShadow,
+                            this.getX(), this.getY(), this.getWidth(), this.getHeight());
+    }
+
     @Override
     public void renderAt(int x, int y, float z, ScreenContext ctx)
     {
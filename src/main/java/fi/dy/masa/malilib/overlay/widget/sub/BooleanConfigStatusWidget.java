@@ -75,6 +75,12 @@ public class BooleanConfigStatusWidget extends BaseConfigStatusIndicatorWidget<B
         BaseScreen.openScreen(screen);
     }
 
+    @Override
+    public int getRenderStateHash()
+    {
+        return 31 * (31 * super.getRenderStateHash() + Boolean.hashCode(this.lastValue)) + this.renderStyle.hashCode();
+    }
+
     @Override
     public void updateState(boolean force)
     {
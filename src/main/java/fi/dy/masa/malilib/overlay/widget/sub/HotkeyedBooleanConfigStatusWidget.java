@@ -1,5 +1,6 @@
 package fi.dy.masa.malilib.overlay.widget.sub;
 
+import java.util.Objects;
 import java.util.function.Supplier;
 import javax.annotation.Nullable;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
@@ -70,6 +71,12 @@ public class HotkeyedBooleanConfigStatusWidget extends BooleanConfigStatusWidget
         BaseScreen.openScreen(screen);
     }
 
+    @Override
+    public int getRenderStateHash()
+    {
+        return 31 * super.getRenderStateHash() + Objects.hash(this.keysText, this.showKeys, this.showBoolean);
+    }
+
     @Override
     protected boolean isModified()
     {
@@ -1,6 +1,7 @@
 package fi.dy.masa.malilib.registry;
 
 import fi.dy.masa.malilib.action.ActionRegistry;
+import fi.dy.masa.malilib.action.MacroExecutor;
 import fi.dy.masa.malilib.command.ClientCommandHandler;
 import fi.dy.masa.malilib.config.ConfigManager;
 import fi.dy.masa.malilib.config.ConfigManagerImpl;
@@ -51,6 +52,7 @@ public class Registry
     public static final HotkeyManager HOTKEY_MANAGER = new HotkeyManagerImpl();
     public static final InfoOverlay INFO_OVERLAY = new InfoOverlay();
     public static final InfoWidgetManager INFO_WIDGET_MANAGER = new InfoWidgetManager(INFO_OVERLAY);
+    public static final MacroExecutor MACRO_EXECUTOR = new MacroExecutor();
     public static final MessageRedirectManager MESSAGE_REDIRECT_MANAGER = new MessageRedirectManager();
 
     // Event dispatchers and handlers
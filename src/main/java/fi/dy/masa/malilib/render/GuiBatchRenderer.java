@@ -0,0 +1,265 @@
+package fi.dy.masa.malilib.render;
+
+import javax.annotation.Nullable;
+import org.lwjgl.opengl.GL11;
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.WorldVertexBufferUploader;
+import net.minecraft.client.renderer.vertex.VertexFormat;
+import net.minecraft.util.ResourceLocation;
+import fi.dy.masa.malilib.MaLiLibConfigs;
+import fi.dy.masa.malilib.util.GameUtils;
+
+/**
+ * Collects the simple GUI quads (the rectangles, outlines and textured rectangles
+ * of {@link ShapeRenderUtils} and {@link RenderUtils}) during a screen render pass,
+ * and draws consecutive quads that use the same vertex format, texture and color state
+ * in one draw call, instead of each rectangle being its own draw call.
+ * <br><br>
+ * The draw order is always preserved, a batch is only extended while the following
+ * quads can be drawn with the same GL state. The pending batch gets drawn at the explicit flush points
+ * of the malilib rendering code (text, item and inventory rendering, the scaled screen setup, the
+ * scaled info widgets, the offscreen render cache etc.), and at the end of the screen render pass.
+ * <br><br>
+ * <b>Note:</b> The GlStateManager matrix and scissor changes are not tracked.
+ * Custom rendering code that changes the matrices, the scissor area or any other GL state
+ * without going through the malilib render utils needs to call
+ * {@link RenderContext#flushBatchedRendering()} before doing so, and also before restoring
+ * the previous state (for example before popMatrix()), otherwise the already batched
+ * quads get drawn with the wrong transformation.
+ * <br><br>
+ * This also counts the draw calls per frame, for the GUI debug draw call counter.
+ */
+public class GuiBatchRenderer
+{
+    public static final GuiBatchRenderer INSTANCE = new GuiBatchRenderer();
+
+    protected final BufferBuilder buffer = new BufferBuilder(262144);
+    protected final WorldVertexBufferUploader vboUploader = new WorldVertexBufferUploader();
+    protected int passDepth;
+    protected boolean batchingEnabled;
+
+    // The state of the currently pending batch
+    protected boolean building;
+    @Nullable protected VertexFormat batchFormat;
+    @Nullable protected ResourceLocation batchTexture;
+    protected float batchR, batchG, batchB, batchA;
+
+    // The tracked GL state, as set via the RenderUtils methods
+    @Nullable protected ResourceLocation boundTexture;
+    protected boolean colorKnown;
+    protected float colorR, colorG, colorB, colorA;
+
+    protected int drawCalls;
+    protected int mergedDraws;
+    protected int lastFrameDrawCalls;
+    protected int lastFrameMergedDraws;
+
+    /**
+     * Starts a batched render pass. The passes can be nested (a screen rendering its parent screen),
+     * in which case the batching ends at the end of the outermost pass.
+     */
+    public void beginPass()
+    {
+        if (this.passDepth++ == 0)
+        {
+            this.batchingEnabled = MaLiLibConfigs.Generic.GUI_BATCH_RENDERING.getBooleanValue();
+        }
+
+        this.invalidateState();
+    }
+
+    /**
+     * Draws any pending batch, and ends the render pass.
+     * At the end of the outermost pass the draw call counts of the frame are stored
+     * for the debug counter, and the counters are reset.
+     */
+    public void endPass()
+    {
+        this.flush();
+
+        if (this.passDepth > 0 && --this.passDepth == 0)
+        {
+            this.batchingEnabled = false;
+            this.lastFrameDrawCalls = this.drawCalls;
+            this.lastFrameMergedDraws = this.mergedDraws;
+            this.drawCalls = 0;
+            this.mergedDraws = 0;
+        }
+    }
+
+    public boolean isBatchingEnabled()
+    {
+        return this.batchingEnabled;
+    }
+
+    /**
+     * @return true if there is currently a batch being built
+     */
+    public boolean isBuilding()
+    {
+        return this.building;
+    }
+
+    /**
+     * Tries to add a new quad draw to the current batch, or starts a new batch.
+     * If the draw can't be batched, then any pending batch is drawn first and null is returned,
+     * and the caller should draw the quads directly.
+     * @param useTexture if true, then the quads use the texture most recently bound via {@link RenderUtils#bindTexture(ResourceLocation)}
+     * @return the BufferBuilder to add the GL_QUADS vertices to, or null if the draw can't be batched
+     */
+    @Nullable
+    public BufferBuilder tryStartBatch(VertexFormat format, boolean useTexture)
+    {
+        if (this.batchingEnabled == false)
+        {
+            return null;
+        }
+
+        ResourceLocation texture = useTexture ? this.boundTexture : null;
+        boolean usesGlColor = format.hasColor() == false;
+
+        if ((useTexture && texture == null) || (usesGlColor && this.colorKnown == false))
+        {
+            this.flush();
+            return null;
+        }
+
+        if (this.building)
+        {
+            if (this.canExtendBatch(format, texture, usesGlColor))
+            {
+                ++this.mergedDraws;
+                return this.buffer;
+            }
+
+            this.flush();
+        }
+
+        // Keep the same blend state side effect as RenderUtils.startBuffer() has
+        RenderUtils.setupBlend();
+
+        this.buffer.begin(GL11.GL_QUADS, format);
+        this.building = true;
+        this.batchFormat = format;
+        this.batchTexture = texture;
+        this.batchR = this.colorR;
+        this.batchG = this.colorG;
+        this.batchB = this.colorB;
+        this.batchA = this.colorA;
+
+        return this.buffer;
+    }
+
+    protected boolean canExtendBatch(VertexFormat format, @Nullable ResourceLocation texture, boolean usesGlColor)
+    {
+        if (this.batchFormat != format || this.batchTexture != texture)
+        {
+            return false;
+        }
+
+        return usesGlColor == false ||
+               (this.batchR == this.colorR && this.batchG == this.colorG &&
+                this.batchB == this.colorB && this.batchA == this.colorA);
+    }
+
+    /**
+     * Draws the pending batch, if any. The tracked texture and color state stays valid.
+     */
+    public void flush()
+    {
+        if (this.building == false)
+        {
+            return;
+        }
+
+        this.building = false;
+        this.buffer.finishDrawing();
+
+        if (this.buffer.getVertexCount() == 0)
+        {
+            this.buffer.reset();
+            return;
+        }
+
+        if (this.batchTexture != null)
+        {
+            GlStateManager.enableTexture2D();
+            GameUtils.getClient().getTextureManager().bindTexture(this.batchTexture);
+        }
+        else
+        {
+            GlStateManager.disableTexture2D();
+        }
+
+        if (this.batchFormat != null && this.batchFormat.hasColor() == false)
+        {
+            GlStateManager.color(this.batchR, this.batchG, this.batchB, this.batchA);
+        }
+
+        RenderUtils.setupBlend();
+        this.vboUploader.draw(this.buffer);
+        ++this.drawCalls;
+
+        GlStateManager.enableTexture2D();
+
+        // Restore the GL state that was set after the batch was started
+        if (this.boundTexture != null && this.boundTexture != this.batchTexture)
+        {
+            GameUtils.getClient().getTextureManager().bindTexture(this.boundTexture);
+        }
+
+        if (this.colorKnown)
+        {
+            GlStateManager.color(this.colorR, this.colorG, this.colorB, this.colorA);
+        }
+    }
+
+    /**
+     * Draws the pending batch, and forgets the tracked texture and color state.
+     * This needs to be called before any rendering that may bind textures or set
+     * the color without going through the RenderUtils methods.
+     */
+    public void invalidateState()
+    {
+        this.flush();
+        this.boundTexture = null;
+        this.colorKnown = false;
+    }
+
+    public void onBindTexture(ResourceLocation texture)
+    {
+        this.boundTexture = texture;
+    }
+
+    public void onSetColor(float r, float g, float b, float a)
+    {
+        this.colorR = r;
+        this.colorG = g;
+        this.colorB = b;
+        this.colorA = a;
+        this.colorKnown = true;
+    }
+
+    public void onDrawCall()
+    {
+        ++this.drawCalls;
+    }
+
+    /**
+     * @return the number of actual draw calls during the previous frame
+     */
+    public int getLastFrameDrawCalls()
+    {
+        return this.lastFrameDrawCalls;
+    }
+
+    /**
+     * @return the number of draw calls that were merged into a previous draw call during the previous frame.
+     *         The draw call count without the batching would be the sum of this and {@link #getLastFrameDrawCalls()}.
+     */
+    public int getLastFrameMergedDraws()
+    {
+        return this.lastFrameMergedDraws;
+    }
+}
@@ -17,6 +17,7 @@ public class ItemRenderUtils
             return;
         }
 
+        GuiBatchRenderer.INSTANCE.invalidateState();
         GlStateManager.pushMatrix();
         GlStateManager.translate(x, y, 0);
 
@@ -0,0 +1,238 @@
+package fi.dy.masa.malilib.render;
+
+import javax.annotation.Nullable;
+import org.lwjgl.opengl.GL11;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.ScaledResolution;
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.OpenGlHelper;
+import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.shader.Framebuffer;
+import fi.dy.masa.malilib.util.GameUtils;
+
+/**
+ * Caches the rendered output of something (for example a HUD widget) in an offscreen framebuffer.
+ * The contents get rendered to the framebuffer only when the content hash or the size changes,
+ * and otherwise the cached texture is just drawn as a single textured quad.
+ * <br><br>
+ * The contents are rendered using pre-multiplied alpha (see {@link RenderUtils#setupBlend()}),
+ * so that translucent backgrounds look the same when the cached texture is drawn on top of the game.
+ * <br><br>
+ * The render time statistics are measured on the CPU side, and without waiting for the GPU,
+ * so the saved time is only an estimate.
+ */
+public class OffscreenRenderCache
+{
+    @Nullable protected Framebuffer framebuffer;
+    protected boolean valid;
+    protected int contentHash;
+    protected int width;
+    protected int height;
+    protected int scaleFactor;
+    protected long lastFullRenderNanos;
+    protected long hits;
+    protected long misses;
+    protected long savedNanos;
+
+    public static boolean isSupported()
+    {
+        return OpenGlHelper.isFramebufferEnabled();
+    }
+
+    public static int getCurrentScaleFactor()
+    {
+        return new ScaledResolution(GameUtils.getClient()).getScaleFactor();
+    }
+
+    /**
+     * Marks the cached contents as invalid, so that they get rendered again on the next use
+     */
+    public void invalidate()
+    {
+        this.valid = false;
+    }
+
+    /**
+     * @return true if the cached contents were rendered with the given content hash and dimensions
+     */
+    public boolean isValidFor(int contentHash, int width, int height, int scaleFactor)
+    {
+        return this.valid &&
+               this.framebuffer != null &&
+               this.contentHash == contentHash &&
+               this.width == width &&
+               this.height == height &&
+               this.scaleFactor == scaleFactor;
+    }
+
+    /**
+     * Renders the contents from the cache, or renders them to the cache first if the cache is not valid.
+     * @param x the screen x position of the contents
+     * @param y the screen y position of the contents
+     * @param width the width of the contents, in the scaled GUI units
+     * @param height the height of the contents, in the scaled GUI units
+     * @param renderer the renderer that renders the contents to the position 0, 0
+     */
+    public void render(int x, int y, float z, int width, int height, int contentHash, Runnable renderer)
+    {
+        int scaleFactor = getCurrentScaleFactor();
+
+        if (this.isValidFor(contentHash, width, height, scaleFactor))
+        {
+            long start = System.nanoTime();
+            this.drawCachedTexture(x, y, z);
+            long drawNanos = System.nanoTime() - start;
+
+            ++this.hits;
+            this.savedNanos += Math.max(this.lastFullRenderNanos - drawNanos, 0L);
+            return;
+        }
+
+        long start = System.nanoTime();
+
+        this.renderToFramebuffer(width, height, scaleFactor, renderer);
+        this.contentHash = contentHash;
+        this.width = width;
+        this.height = height;
+        this.scaleFactor = scaleFactor;
+        this.valid = true;
+
+        this.drawCachedTexture(x, y, z);
+        ++this.misses;
+        this.lastFullRenderNanos = System.nanoTime() - start;
+    }
+
+    protected void renderToFramebuffer(int width, int height, int scaleFactor, Runnable renderer)
+    {
+        Minecraft mc = GameUtils.getClient();
+        int fbWidth = width * scaleFactor;
+        int fbHeight = height * scaleFactor;
+
+        GuiBatchRenderer.INSTANCE.invalidateState();
+
+        if (this.framebuffer == null)
+        {
+            this.framebuffer = new Framebuffer(fbWidth, fbHeight, false);
+            this.framebuffer.setFramebufferColor(0.0F, 0.0F, 0.0F, 0.0F);
+        }
+        else if (this.framebuffer.framebufferWidth != fbWidth || this.framebuffer.framebufferHeight != fbHeight)
+        {
+            this.framebuffer.createBindFramebuffer(fbWidth, fbHeight);
+        }
+
+        this.framebuffer.framebufferClear();
+        this.framebuffer.bindFramebuffer(true);
+
+        GlStateManager.matrixMode(GL11.GL_PROJECTION);
+        GlStateManager.pushMatrix();
+        GlStateManager.loadIdentity();
+        GlStateManager.ortho(0.0D, width, height, 0.0D, 1000.0D, 3000.0D);
+        GlStateManager.matrixMode(GL11.GL_MODELVIEW);
+        GlStateManager.pushMatrix();
+        GlStateManager.loadIdentity();
+        GlStateManager.translate(0.0F, 0.0F, -2000.0F);
+
+        RenderUtils.setPremultipliedAlphaBlending(true);
+
+        try
+        {
+            renderer.run();
+        }
+        finally
+        {
+            RenderUtils.setPremultipliedAlphaBlending(false);
+            GuiBatchRenderer.INSTANCE.invalidateState();
+
+            GlStateManager.matrixMode(GL11.GL_PROJECTION);
+            GlStateManager.popMatrix();
+            GlStateManager.matrixMode(GL11.GL_MODELVIEW);
+            GlStateManager.popMatrix();
+
+            mc.getFramebuffer().bindFramebuffer(true);
+        }
+    }
+
+    protected void drawCachedTexture(int x, int y, float z)
+    {
+        if (this.framebuffer == null)
+        {
+            return;
+        }
+
+        GuiBatchRenderer.INSTANCE.invalidateState();
+
+        GlStateManager.enableTexture2D();
+        GlStateManager.enableBlend();
+        GlStateManager.blendFunc(GlStateManager.SourceFactor.ONE, GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA);
+        GlStateManager.color(1.0F, 1.0F, 1.0F, 1.0F);
+        this.framebuffer.bindFramebufferTexture();
+
+        int x2 = x + this.width;
+        int y2 = y + this.height;
+        Tessellator tessellator = Tessellator.getInstance();
+        BufferBuilder buffer = tessellator.getBuffer();
+
+        // The framebuffer texture has its origin at the bottom left corner
+        buffer.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX);
+        buffer.pos(x , y2, z).tex(0.0, 0.0).endVertex();
+        buffer.pos(x2, y2, z).tex(1.0, 0.0).endVertex();
+        buffer.pos(x2, y , z).tex(1.0, 1.0).endVertex();
+        buffer.pos(x , y , z).tex(0.0, 1.0).endVertex();
+        tessellator.draw();
+        GuiBatchRenderer.INSTANCE.onDrawCall();
+
+        this.framebuffer.unbindFramebufferTexture();
+        RenderUtils.setupBlend();
+    }
+
+    /**
+     * Deletes the framebuffer. The cache can still be used after this,
+     * the framebuffer just gets re-created on the next use.
+     */
+    public void deleteFramebuffer()
+    {
+        if (this.framebuffer != null)
+        {
+            this.framebuffer.deleteFramebuffer();
+            this.framebuffer = null;
+        }
+
+        this.valid = false;
+    }
+
+    public long getHits()
+    {
+        return this.hits;
+    }
+
+    public long getMisses()
+    {
+        return this.misses;
+    }
+
+    /**
+     * @return the cache hit rate, between 0.0 and 1.0
+     */
+    public double getHitRate()
+    {
+        long total = this.hits + this.misses;
+        return total > 0 ? (double) this.hits / (double) total : 0.0;
+    }
+
+    /**
+     * @return the estimated render time saved by using the cache, in nanoseconds
+     */
+    public long getSavedNanos()
+    {
+        return this.savedNanos;
+    }
+
+    public void resetStatistics()
+    {
+        this.hits = 0;
+        this.misses = 0;
+        this.savedNanos = 0;
+    }
+}
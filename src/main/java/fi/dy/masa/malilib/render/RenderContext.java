@@ -2,4 +2,14 @@ package fi.dy.masa.malilib.render;
 
 public class RenderContext
 {
+    /**
+     * Draws any pending batched GUI shapes, and forgets the tracked texture and color state.
+     * This needs to be called by any custom rendering code that changes the GL state
+     * (the matrices, the bound texture, the color etc.) without going through
+     * the malilib render utils, before doing so.
+     */
+    public void flushBatchedRendering()
+    {
+        GuiBatchRenderer.INSTANCE.invalidateState();
+    }
 }
@@ -42,25 +42,66 @@ public class RenderUtils
     //private static final Vec3d LIGHT0_POS = (new Vec3d( 0.2D, 1.0D, -0.7D)).normalize();
     //private static final Vec3d LIGHT1_POS = (new Vec3d(-0.2D, 1.0D,  0.7D)).normalize();
 
+    private static boolean premultipliedAlphaBlending;
+
     public static void setupBlend()
     {
         GlStateManager.enableBlend();
-        GlStateManager.tryBlendFuncSeparate(GlStateManager.SourceFactor.SRC_ALPHA, GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA, GlStateManager.SourceFactor.ONE, GlStateManager.DestFactor.ZERO);
+
+        if (premultipliedAlphaBlending)
+        {
+            setupPremultipliedAlphaBlend();
+        }
+        else
+        {
+            GlStateManager.tryBlendFuncSeparate(GlStateManager.SourceFactor.SRC_ALPHA, GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA, GlStateManager.SourceFactor.ONE, GlStateManager.DestFactor.ZERO);
+        }
     }
 
     public static void setupBlendSimple()
     {
         GlStateManager.enableBlend();
-        GlStateManager.blendFunc(GlStateManager.SourceFactor.SRC_ALPHA, GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA);
+
+        if (premultipliedAlphaBlending)
+        {
+            setupPremultipliedAlphaBlend();
+        }
+        else
+        {
+            GlStateManager.blendFunc(GlStateManager.SourceFactor.SRC_ALPHA, GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA);
+        }
+    }
+
+    private static void setupPremultipliedAlphaBlend()
+    {
+        GlStateManager.tryBlendFuncSeparate(GlStateManager.SourceFactor.SRC_ALPHA, GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA, GlStateManager.SourceFactor.ONE, GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA);
+    }
+
+    /**
+     * When enabled, the blend functions set up by {@link #setupBlend()} and {@link #setupBlendSimple()}
+     * also blend the alpha channel, so that the result is a texture with pre-multiplied alpha.
+     * This is used while rendering into an offscreen framebuffer (see {@link OffscreenRenderCache}).
+     */
+    public static void setPremultipliedAlphaBlending(boolean enabled)
+    {
+        premultipliedAlphaBlending = enabled;
+
+        if (enabled)
+        {
+            GlStateManager.enableBlend();
+            setupPremultipliedAlphaBlend();
+        }
     }
 
     public static void bindTexture(ResourceLocation texture)
     {
+        GuiBatchRenderer.INSTANCE.onBindTexture(texture);
         GameUtils.getClient().getTextureManager().bindTexture(texture);
     }
 
     public static void color(float r, float g, float b, float a)
     {
+        GuiBatchRenderer.INSTANCE.onSetColor(r, g, b, a);
         GlStateManager.color(r, g, b, a);
     }
 
@@ -90,6 +131,9 @@ public class RenderUtils
      */
     public static BufferBuilder startBuffer(int glMode, VertexFormat format, boolean useTexture)
     {
+        // Any pending batched quads need to be drawn first, to keep the draw order
+        GuiBatchRenderer.INSTANCE.flush();
+
         Tessellator tessellator = Tessellator.getInstance();
         BufferBuilder buffer = tessellator.getBuffer();
 
@@ -116,6 +160,34 @@ public class RenderUtils
     {
         Tessellator.getInstance().draw();
         GlStateManager.enableTexture2D();
+        GuiBatchRenderer.INSTANCE.onDrawCall();
+    }
+
+    /**
+     * Gets a BufferBuilder initialized in GL_QUADS mode with the given vertex format,
+     * for rendering simple GUI quads that can be batched with other similar quads
+     * during a screen render pass, if the GUI batch rendering is enabled.
+     * If the quads can't be batched, then this is the same as {@link #startBuffer(int, VertexFormat, boolean)}.<br>
+     * <b>Note:</b> The quads must be finished by calling {@link #drawBatchableBuffer()}
+     * @param useTexture if true, then the quads use the texture most recently bound via {@link #bindTexture(ResourceLocation)}
+     * @return the initialized BufferBuilder
+     */
+    public static BufferBuilder startBatchableBuffer(VertexFormat format, boolean useTexture)
+    {
+        BufferBuilder buffer = GuiBatchRenderer.INSTANCE.tryStartBatch(format, useTexture);
+        return buffer != null ? buffer : startBuffer(GL11.GL_QUADS, format, useTexture);
+    }
+
+    /**
+     * Draws the buffer started via {@link #startBatchableBuffer(VertexFormat, boolean)},
+     * unless it was added to a pending batch, which will get drawn later.
+     */
+    public static void drawBatchableBuffer()
+    {
+        if (GuiBatchRenderer.INSTANCE.isBuilding() == false)
+        {
+            drawBuffer();
+        }
     }
 
     public static void setupScaledScreenRendering(double scaleFactor)
@@ -145,6 +217,7 @@ public class RenderUtils
 
     public static void setupScaledScreenRendering(double width, double height)
     {
+        GuiBatchRenderer.INSTANCE.flush();
         GlStateManager.clear(256);
         GlStateManager.matrixMode(GL11.GL_PROJECTION);
         GlStateManager.loadIdentity();
@@ -202,7 +275,7 @@ public class RenderUtils
     public static void renderNineSplicedTexture(int x, int y, float z, int u, int v, int width, int height,
                                                 int texWidth, int texHeight, int edgeThickness)
     {
-        BufferBuilder buffer = startBuffer(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX, true);
+        BufferBuilder buffer = startBatchableBuffer(DefaultVertexFormats.POSITION_TEX, true);
 
         int e = edgeThickness;
         
@@ -291,7 +364,7 @@ public class RenderUtils
             ShapeRenderUtils.renderTexturedRectangle256(x + e, y + e, z, u + e, v + e, width - 2 * e, height - 2 * e, buffer); // center
         }
 
-        drawBuffer();
+        drawBatchableBuffer();
     }
 
     public static void renderBlockTargetingOverlay(Entity entity, BlockPos pos, EnumFacing side, Vec3d hitVec,
@@ -483,6 +556,7 @@ public class RenderUtils
     {
         if (stack.getItem() instanceof ItemMap)
         {
+            GuiBatchRenderer.INSTANCE.invalidateState();
             GlStateManager.pushMatrix();
             GlStateManager.disableLighting();
             color(1f, 1f, 1f, 1f);
@@ -531,6 +605,8 @@ public class RenderUtils
             GlStateManager.enableLighting();
             GlStateManager.popMatrix();
 
+            // The map renderer binds its own texture
+            GuiBatchRenderer.INSTANCE.invalidateState();
             color(1f, 1f, 1f, 1f);
         }
     }
@@ -542,6 +618,7 @@ public class RenderUtils
             return;
         }
 
+        GuiBatchRenderer.INSTANCE.invalidateState();
         GlStateManager.pushMatrix();
 
         bindTexture(TextureMap.LOCATION_BLOCKS_TEXTURE);
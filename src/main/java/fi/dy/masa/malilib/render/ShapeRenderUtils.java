@@ -26,11 +26,11 @@ public class ShapeRenderUtils
     public static void renderGrid(float x, float y, float z, int width, int height,
                                   int gridInterval, int lineWidth, int color)
     {
-        BufferBuilder buffer = RenderUtils.startBuffer(GL11.GL_QUADS, DefaultVertexFormats.POSITION_COLOR, false);
+        BufferBuilder buffer = RenderUtils.startBatchableBuffer(DefaultVertexFormats.POSITION_COLOR, false);
 
         renderGrid(x, y, z, width, height, gridInterval, lineWidth, color, buffer);
 
-        RenderUtils.drawBuffer();
+        RenderUtils.drawBatchableBuffer();
     }
 
     public static void renderGrid(float x, float y, float z, int width, int height,
@@ -52,7 +52,7 @@ public class ShapeRenderUtils
 
     public static void renderOutlinedRectangle(float x, float y, float z, int width, int height, int colorBg, int colorBorder)
     {
-        BufferBuilder buffer = RenderUtils.startBuffer(GL11.GL_QUADS, DefaultVertexFormats.POSITION_COLOR, false);
+        BufferBuilder buffer = RenderUtils.startBatchableBuffer(DefaultVertexFormats.POSITION_COLOR, false);
 
         // Draw the background
         renderRectangle(x + 1, y + 1, z, width - 2, height - 2, colorBg, buffer);
@@ -60,12 +60,12 @@ public class ShapeRenderUtils
         // Draw the border
         renderOutline(x, y, z, width, height, 1, colorBorder, buffer);
 
-        RenderUtils.drawBuffer();
+        RenderUtils.drawBatchableBuffer();
     }
 
     public static void renderOutlinedRectangle(float x, float y, float z, int width, int height, int bgColor, EdgeInt borderColor)
     {
-        BufferBuilder buffer = RenderUtils.startBuffer(GL11.GL_QUADS, DefaultVertexFormats.POSITION_COLOR, false);
+        BufferBuilder buffer = RenderUtils.startBatchableBuffer(DefaultVertexFormats.POSITION_COLOR, false);
 
         // Draw the background
         renderRectangle(x + 1, y + 1, z, width - 2, height - 2, bgColor, buffer);
@@ -73,25 +73,25 @@ public class ShapeRenderUtils
         // Draw the border
         renderOutline(x, y, z, width, height, 1, borderColor, buffer);
 
-        RenderUtils.drawBuffer();
+        RenderUtils.drawBatchableBuffer();
     }
 
     public static void renderOutline(float x, float y, float z, int width, int height, int borderWidth, int color)
     {
-        BufferBuilder buffer = RenderUtils.startBuffer(GL11.GL_QUADS, DefaultVertexFormats.POSITION_COLOR, false);
+        BufferBuilder buffer = RenderUtils.startBatchableBuffer(DefaultVertexFormats.POSITION_COLOR, false);
 
         renderOutline(x, y, z, width, height, borderWidth, color, buffer);
 
-        RenderUtils.drawBuffer();
+        RenderUtils.drawBatchableBuffer();
     }
 
     public static void renderOutline(float x, float y, float z, int width, int height, int borderWidth, EdgeInt color)
     {
-        BufferBuilder buffer = RenderUtils.startBuffer(GL11.GL_QUADS, DefaultVertexFormats.POSITION_COLOR, false);
+        BufferBuilder buffer = RenderUtils.startBatchableBuffer(DefaultVertexFormats.POSITION_COLOR, false);
 
         renderOutline(x, y, z, width, height, borderWidth, color, buffer);
 
-        RenderUtils.drawBuffer();
+        RenderUtils.drawBatchableBuffer();
     }
 
     /**
@@ -138,11 +138,11 @@ public class ShapeRenderUtils
 
     public static void renderRectangle(float x, float y, float z, int width, int height, int color)
     {
-        BufferBuilder buffer = RenderUtils.startBuffer(GL11.GL_QUADS, DefaultVertexFormats.POSITION_COLOR, false);
+        BufferBuilder buffer = RenderUtils.startBatchableBuffer(DefaultVertexFormats.POSITION_COLOR, false);
 
         renderRectangle(x, y, z, width, height, color, buffer);
 
-        RenderUtils.drawBuffer();
+        RenderUtils.drawBatchableBuffer();
     }
 
     /**
@@ -182,11 +182,11 @@ public class ShapeRenderUtils
                                                   int u, int v,
                                                   int width, int height)
     {
-        BufferBuilder buffer = RenderUtils.startBuffer(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX, true);
+        BufferBuilder buffer = RenderUtils.startBatchableBuffer(DefaultVertexFormats.POSITION_TEX, true);
 
         renderTexturedRectangle256(x, y, z, u, v, width, height, buffer);
 
-        RenderUtils.drawBuffer();
+        RenderUtils.drawBatchableBuffer();
     }
 
     /**
@@ -250,14 +250,14 @@ public class ShapeRenderUtils
                                                      int textureWidth, int textureHeight,
                                                      float pixelWidth, float pixelHeight)
     {
-        BufferBuilder buffer = RenderUtils.startBuffer(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX, true);
+        BufferBuilder buffer = RenderUtils.startBatchableBuffer(DefaultVertexFormats.POSITION_TEX, true);
 
         renderScaledTexturedRectangle(x, y, z, u, v,
                                       renderWidth, renderHeight,
                                       textureWidth, textureHeight,
                                       pixelWidth, pixelHeight, buffer);
 
-        RenderUtils.drawBuffer();
+        RenderUtils.drawBatchableBuffer();
     }
 
     /**
@@ -300,12 +300,12 @@ public class ShapeRenderUtils
                                                            float pixelWidth, float pixelHeight,
                                                            int backgroundTintColor)
     {
-        BufferBuilder buffer = RenderUtils.startBuffer(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX_COLOR, true);
+        BufferBuilder buffer = RenderUtils.startBatchableBuffer(DefaultVertexFormats.POSITION_TEX_COLOR, true);
 
         renderScaledTintedTexturedRectangle(x, y, z, u, v, renderWidth, renderHeight, textureWidth, textureHeight,
                                             pixelWidth, pixelHeight, backgroundTintColor, buffer);
 
-        RenderUtils.drawBuffer();
+        RenderUtils.drawBatchableBuffer();
     }
 
     /**
@@ -26,6 +26,7 @@ public class TextRenderUtils
     {
         String[] parts = text.split("\\\\n");
         FontRenderer textRenderer = GameUtils.getClient().fontRenderer;
+        GuiBatchRenderer.INSTANCE.invalidateState();
 
         for (String line : parts)
         {
@@ -39,6 +40,7 @@ public class TextRenderUtils
         if (lines.isEmpty() == false)
         {
             FontRenderer textRenderer = GameUtils.getClient().fontRenderer;
+            GuiBatchRenderer.INSTANCE.invalidateState();
 
             for (String line : lines)
             {
@@ -63,6 +65,8 @@ public class TextRenderUtils
             return 0;
         }
 
+        GuiBatchRenderer.INSTANCE.invalidateState();
+
         if (scale != 1d)
         {
             xOff = (int) (xOff * scale);
@@ -112,6 +116,8 @@ public class TextRenderUtils
 
         if (scale != 1d)
         {
+            // Draw any batched shapes with the scaled matrix that they were added with
+            GuiBatchRenderer.INSTANCE.flush();
             GlStateManager.popMatrix();
         }
 
@@ -281,6 +287,7 @@ public class TextRenderUtils
     public static void renderHoverTextBackground(int x, int y, float z, int width, int height,
                                                  int fillColor, int borderColor1, int borderColor2)
     {
+        GuiBatchRenderer.INSTANCE.flush();
         GlStateManager.disableTexture2D();
         GlStateManager.disableAlpha();
         RenderUtils.setupBlend();
@@ -8,6 +8,7 @@ import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import net.minecraft.client.renderer.GlStateManager;
 import fi.dy.masa.malilib.gui.icon.Icon;
 import fi.dy.masa.malilib.gui.icon.PositionedIcon;
+import fi.dy.masa.malilib.render.GuiBatchRenderer;
 import fi.dy.masa.malilib.render.RenderUtils;
 import fi.dy.masa.malilib.util.inventory.InventoryView;
 import fi.dy.masa.malilib.util.position.Vec2i;
@@ -70,6 +71,7 @@ public class InventoryRenderDefinition
             InventoryRenderUtils.renderEmptySlotBackgrounds(x, y, z, backgroundTintColor, inv, this.emptySlotTextures);
         }
 
+        GuiBatchRenderer.INSTANCE.flush();
         GlStateManager.pushMatrix();
         GlStateManager.translate(0f, 0f, z + 1);
 
@@ -89,6 +91,7 @@ public class InventoryRenderDefinition
             InventoryRenderUtils.renderGenericInventoryItems(x, y, 100f, 0, -1, slotsPerRow, this.slotOffset, inv);
         }
 
+        GuiBatchRenderer.INSTANCE.flush();
         GlStateManager.popMatrix();
 
         RenderUtils.color(1f, 1f, 1f, 1f);
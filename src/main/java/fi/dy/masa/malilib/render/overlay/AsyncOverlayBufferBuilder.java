@@ -0,0 +1,176 @@
+package fi.dy.masa.malilib.render.overlay;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.vertex.VertexFormat;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.Vec3d;
+import fi.dy.masa.malilib.MaLiLib;
+
+/**
+ * Builds the vertex data of overlay renderers that have opted in to
+ * asynchronous updates via {@link BaseOverlayRenderer#useAsyncUpdates()}.
+ * The vertex data is built on a worker thread into the renderer's private buffers,
+ * and the finished buffers are handed back to the render thread through a queue,
+ * where they get uploaded to the renderer's render objects.
+ * Until the upload happens, the renderer keeps drawing its previous data.
+ */
+public class AsyncOverlayBufferBuilder
+{
+    protected final ConcurrentLinkedQueue<BuildResult> finishedBuilds = new ConcurrentLinkedQueue<>();
+    protected ExecutorService executor;
+
+    /**
+     * Starts an asynchronous update for the given renderer.
+     * This must be called on the render thread.
+     */
+    public void startUpdate(BaseOverlayRenderer renderer, Vec3d cameraPos, Entity entity, Minecraft mc)
+    {
+        List<BaseRenderObject> renderObjects = renderer.renderObjects;
+        final int count = renderObjects.size();
+        final int[] glModes = new int[count];
+        final VertexFormat[] formats = new VertexFormat[count];
+
+        for (int i = 0; i < count; ++i)
+        {
+            BaseRenderObject obj = renderObjects.get(i);
+            glModes[i] = obj.getGlMode();
+            formats[i] = obj.getVertexFormat();
+        }
+
+        final BufferBuilder[] buffers = renderer.getPrivateBuffers(count);
+        final int generation = renderer.glResourceGeneration;
+
+        renderer.prepareAsyncUpdate(cameraPos, entity, mc);
+        renderer.asyncUpdatePending = true;
+
+        this.getExecutor().execute(() -> {
+            boolean success = false;
+
+            try
+            {
+                for (int i = 0; i < count; ++i)
+                {
+                    buffers[i].begin(glModes[i], formats[i]);
+                }
+
+                renderer.buildBuffersAsync(cameraPos, buffers);
+
+                for (int i = 0; i < count; ++i)
+                {
+                    buffers[i].finishDrawing();
+                }
+
+                success = true;
+            }
+            catch (Throwable t)
+            {
+                MaLiLib.LOGGER.warn("Exception while building the buffers for overlay renderer '{}'",
+                                    renderer.getClass().getName(), t);
+            }
+
+            this.finishedBuilds.add(new BuildResult(renderer, cameraPos, buffers, generation, success));
+        });
+    }
+
+    /**
+     * Uploads all the buffers that have finished building since the last call.
+     * This must be called on the render thread.
+     */
+    public void uploadFinishedBuilds()
+    {
+        BuildResult result;
+
+        while ((result = this.finishedBuilds.poll()) != null)
+        {
+            BaseOverlayRenderer renderer = result.renderer;
+            renderer.asyncUpdatePending = false;
+
+            // The buffers may have been left in the middle of building,
+            // so just discard them and let them get re-created for the next update
+            if (result.success == false)
+            {
+                if (renderer.privateBuffers == result.buffers)
+                {
+                    renderer.privateBuffers = null;
+                }
+
+                // The needsUpdate flag was already cleared when the build was started
+                renderer.setNeedsUpdate();
+                continue;
+            }
+
+            // The GL resources were re-allocated or deleted while the build was running,
+            // so the render objects the buffers were built for don't exist anymore
+            if (result.generation != renderer.glResourceGeneration)
+            {
+                for (BufferBuilder buffer : result.buffers)
+                {
+                    buffer.reset();
+                }
+
+                renderer.setNeedsUpdate();
+                continue;
+            }
+
+            List<BaseRenderObject> renderObjects = renderer.renderObjects;
+            final int count = Math.min(renderObjects.size(), result.buffers.length);
+
+            for (int i = 0; i < count; ++i)
+            {
+                renderObjects.get(i).uploadData(result.buffers[i]);
+            }
+
+            renderer.setUpdatePosition(result.cameraPos);
+        }
+    }
+
+    protected ExecutorService getExecutor()
+    {
+        if (this.executor == null)
+        {
+            int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+            this.executor = Executors.newFixedThreadPool(threads, new BuilderThreadFactory());
+        }
+
+        return this.executor;
+    }
+
+    protected static class BuildResult
+    {
+        protected final BaseOverlayRenderer renderer;
+        protected final Vec3d cameraPos;
+        protected final BufferBuilder[] buffers;
+        protected final int generation;
+        protected final boolean success;
+
+        protected BuildResult(BaseOverlayRenderer renderer, Vec3d cameraPos,
+                              BufferBuilder[] buffers, int generation, boolean success)
+        {
+            this.renderer = renderer;
+            this.cameraPos = cameraPos;
+            this.buffers = buffers;
+            this.generation = generation;
+            this.success = success;
+        }
+    }
+
+    protected static class BuilderThreadFactory implements ThreadFactory
+    {
+        protected final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task)
+        {
+            Thread thread = new Thread(task, "MaLiLib Overlay Builder " + this.threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
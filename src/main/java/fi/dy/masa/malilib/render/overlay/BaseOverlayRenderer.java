@@ -30,6 +30,9 @@ public abstract class BaseOverlayRenderer
     protected boolean needsUpdate;
     protected boolean renderThrough;
     protected float lineWidth = 1f;
+    @Nullable protected BufferBuilder[] privateBuffers;
+    protected int glResourceGeneration;
+    protected boolean asyncUpdatePending;
 
     public void setNeedsUpdate()
     {
@@ -104,6 +107,79 @@ public abstract class BaseOverlayRenderer
      */
     public abstract void update(Vec3d cameraPos, Entity entity, Minecraft mc);
 
+    /**
+     * If this returns true, then instead of {@link #update(Vec3d, Entity, Minecraft)},
+     * the renderer is updated by first calling {@link #prepareAsyncUpdate(Vec3d, Entity, Minecraft)}
+     * on the render thread, and then {@link #buildBuffersAsync(Vec3d, BufferBuilder[])} on a worker thread.
+     * The finished buffers are uploaded on the render thread once they are ready,
+     * and until then the renderer keeps drawing its previous data.
+     * @return true if this renderer should build its vertex data asynchronously
+     */
+    public boolean useAsyncUpdates()
+    {
+        return false;
+    }
+
+    /**
+     * @return true if an asynchronous update has been started, but the buffers have not been uploaded yet
+     */
+    public boolean isAsyncUpdatePending()
+    {
+        return this.asyncUpdatePending;
+    }
+
+    /**
+     * Called on the render thread before an asynchronous update is started.
+     * Any world or game state needed for building the buffers should be copied here,
+     * because {@link #buildBuffersAsync(Vec3d, BufferBuilder[])} runs on a worker thread.
+     * This is also the place to clear the needsUpdate flag.
+     * @param cameraPos The position of the camera, the same value will be passed to the build method
+     */
+    public void prepareAsyncUpdate(Vec3d cameraPos, Entity entity, Minecraft mc)
+    {
+        this.needsUpdate = false;
+    }
+
+    /**
+     * Builds the vertex data for an asynchronous update. <b>This is called on a worker thread</b>,
+     * so no GL calls or unsynchronized game state access should happen here.
+     * @param cameraPos The position of the camera when the update was started.
+     *                  The camera position should be subtracted from any world coordinates for the vertex positions.
+     * @param buffers The private buffers of this renderer, one for each render object, in the same order
+     *                as the render objects. The buffers have already been started with the
+     *                GL mode and vertex format of the corresponding render object.
+     */
+    public void buildBuffersAsync(Vec3d cameraPos, BufferBuilder[] buffers)
+    {
+    }
+
+    /**
+     * @return the initial size in bytes of each of the private buffers used for asynchronous updates
+     */
+    protected int getPrivateBufferSize()
+    {
+        return 262144;
+    }
+
+    /**
+     * @return the private buffers of this renderer used for the asynchronous updates,
+     *         (re-)creating them if the number of render objects has changed
+     */
+    protected BufferBuilder[] getPrivateBuffers(int count)
+    {
+        if (this.privateBuffers == null || this.privateBuffers.length != count)
+        {
+            this.privateBuffers = new BufferBuilder[count];
+
+            for (int i = 0; i < count; ++i)
+            {
+                this.privateBuffers[i] = new BufferBuilder(this.getPrivateBufferSize());
+            }
+        }
+
+        return this.privateBuffers;
+    }
+
     protected void preRender()
     {
         GlStateManager.glLineWidth(this.lineWidth);
@@ -159,6 +235,9 @@ public abstract class BaseOverlayRenderer
         }
 
         this.renderObjects.clear();
+
+        // Invalidates any currently running asynchronous build
+        ++this.glResourceGeneration;
     }
 
     /**
@@ -24,6 +24,7 @@ public class OverlayRendererContainer
 
     protected final List<BaseOverlayRenderer> renderers = new ArrayList<>();
     protected final List<BaseOverlayRenderer> enabledRenderers = new ArrayList<>();
+    protected final AsyncOverlayBufferBuilder asyncBufferBuilder = new AsyncOverlayBufferBuilder();
     protected boolean resourcesAllocated;
     protected boolean useVbo;
     protected int countActive;
@@ -133,6 +134,7 @@ public class OverlayRendererContainer
         }
 
         this.checkVideoSettings();
+        this.asyncBufferBuilder.uploadFinishedBuilds();
         this.countActive = 0;
 
         for (BaseOverlayRenderer renderer : this.enabledRenderers)
@@ -141,7 +143,16 @@ public class OverlayRendererContainer
 
             if (renderer.shouldRender(mc))
             {
-                if (renderer.needsUpdate(entity, mc))
+                if (renderer.useAsyncUpdates())
+                {
+                    // The update position gets set once the built buffers get uploaded
+                    if (renderer.isAsyncUpdatePending() == false && renderer.needsUpdate(entity, mc))
+                    {
+                        renderer.setLastUpdatePos(new BlockPos(entity));
+                        this.asyncBufferBuilder.startUpdate(renderer, cameraPos, entity, mc);
+                    }
+                }
+                else if (renderer.needsUpdate(entity, mc))
                 {
                     renderer.setLastUpdatePos(new BlockPos(entity));
                     renderer.setUpdatePosition(cameraPos);
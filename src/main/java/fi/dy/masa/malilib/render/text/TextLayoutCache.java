@@ -0,0 +1,394 @@
+package fi.dy.masa.malilib.render.text;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.lwjgl.opengl.GL11;
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.OpenGlHelper;
+import net.minecraft.client.renderer.texture.TextureManager;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.renderer.vertex.VertexFormat;
+import net.minecraft.util.ResourceLocation;
+import fi.dy.masa.malilib.listener.EventListener;
+import fi.dy.masa.malilib.render.GuiBatchRenderer;
+import fi.dy.masa.malilib.render.RenderUtils;
+import fi.dy.masa.malilib.render.overlay.BaseRenderObject;
+import fi.dy.masa.malilib.render.overlay.DisplayListRenderObject;
+import fi.dy.masa.malilib.render.overlay.VboRenderObject;
+
+/**
+ * A cache of already built and uploaded glyph quads for text lines.
+ * The cached layouts are built at the origin, and get translated to the
+ * render position when drawn, so a cached line can be drawn at any position
+ * with one draw call per font texture sheet used on the line.
+ * To avoid constantly building and throwing away layouts for lines that change
+ * all the time (for example coordinates or other HUD lines that change every tick),
+ * a line only gets cached once it has been rendered over a stable run of frames,
+ * meaning at least {@link #MIN_STABLE_RENDERS} times over at least {@link #MIN_STABLE_NANOS},
+ * without any longer gaps than {@link #MAX_RENDER_GAP_NANOS} between the renders.
+ */
+public class TextLayoutCache
+{
+    public static final int MIN_STABLE_RENDERS = 4;
+    public static final long MIN_STABLE_NANOS = 250000000L;
+    public static final long MAX_RENDER_GAP_NANOS = 100000000L;
+
+    protected final LinkedHashMap<CacheKey, CachedTextLayout> layouts;
+    protected final LinkedHashMap<CacheKey, SeenLine> seenLines;
+    protected final int maxSize;
+    protected long hitCount;
+    protected long missCount;
+    protected long buildCount;
+    protected long evictionCount;
+    protected boolean useVbo;
+
+    public TextLayoutCache(int maxSize)
+    {
+        this.maxSize = maxSize;
+        this.useVbo = OpenGlHelper.useVbo();
+
+        this.layouts = new LinkedHashMap<CacheKey, CachedTextLayout>(maxSize, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedTextLayout> eldest)
+            {
+                if (this.size() > TextLayoutCache.this.maxSize)
+                {
+                    eldest.getValue().deleteGlResources();
+                    ++TextLayoutCache.this.evictionCount;
+                    return true;
+                }
+
+                return false;
+            }
+        };
+
+        this.seenLines = new LinkedHashMap<CacheKey, SeenLine>(maxSize, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, SeenLine> eldest)
+            {
+                return this.size() > TextLayoutCache.this.maxSize * 4;
+            }
+        };
+    }
+
+    public long getHitCount()
+    {
+        return this.hitCount;
+    }
+
+    public long getMissCount()
+    {
+        return this.missCount;
+    }
+
+    public long getBuildCount()
+    {
+        return this.buildCount;
+    }
+
+    public long getEvictionCount()
+    {
+        return this.evictionCount;
+    }
+
+    public int getSize()
+    {
+        return this.layouts.size();
+    }
+
+    public void resetCounters()
+    {
+        this.hitCount = 0;
+        this.missCount = 0;
+        this.buildCount = 0;
+        this.evictionCount = 0;
+    }
+
+    /**
+     * @return true if the given line can be cached at all. Lines with the random
+     *         style are re-randomized on every render, so they can't be cached.
+     */
+    public static boolean canCache(StyledTextLine line)
+    {
+        for (StyledTextSegment segment : line.segments)
+        {
+            if (segment.style.random)
+            {
+                return false;
+            }
+        }
+
+        return line.segments.isEmpty() == false;
+    }
+
+    /**
+     * @return the cached layout for the given line and settings, if one exists
+     */
+    @Nullable
+    public CachedTextLayout get(StyledTextLine line, int defaultColor, boolean shadow)
+    {
+        this.checkVideoSettings();
+
+        CachedTextLayout layout = this.layouts.get(new CacheKey(line, defaultColor, shadow));
+
+        if (layout != null)
+        {
+            ++this.hitCount;
+        }
+        else
+        {
+            ++this.missCount;
+        }
+
+        return layout;
+    }
+
+    /**
+     * Marks the given line as seen. Returns true if the line has now been
+     * rendered over a stable run of frames, and thus a layout should be built and cached for it.
+     */
+    public boolean markSeen(StyledTextLine line, int defaultColor, boolean shadow)
+    {
+        CacheKey key = new CacheKey(line, defaultColor, shadow);
+        SeenLine seen = this.seenLines.get(key);
+        long time = System.nanoTime();
+
+        if (seen == null)
+        {
+            this.seenLines.put(key, new SeenLine(time));
+            return false;
+        }
+
+        return seen.markRendered(time);
+    }
+
+    public void put(StyledTextLine line, int defaultColor, boolean shadow, CachedTextLayout layout)
+    {
+        CacheKey key = new CacheKey(line, defaultColor, shadow);
+        CachedTextLayout old = this.layouts.put(key, layout);
+        this.seenLines.remove(key);
+        ++this.buildCount;
+
+        if (old != null)
+        {
+            old.deleteGlResources();
+        }
+    }
+
+    public CachedTextLayout createLayout()
+    {
+        return new CachedTextLayout(this.useVbo);
+    }
+
+    /**
+     * Creates a new render object for a cached layout, and uploads the given buffer to it
+     */
+    public BaseRenderObject createRenderObject(BufferBuilder buffer, VertexFormat format)
+    {
+        BaseRenderObject obj;
+
+        if (this.useVbo)
+        {
+            EventListener pointerSetter = format == DefaultVertexFormats.POSITION_TEX_COLOR ?
+                                                  VboRenderObject::setupArrayPointersPosUvColor :
+                                                  VboRenderObject::setupArrayPointersPosColor;
+            obj = new VboRenderObject(GL11.GL_QUADS, format, pointerSetter);
+        }
+        else
+        {
+            obj = new DisplayListRenderObject(GL11.GL_QUADS, format);
+        }
+
+        obj.uploadData(buffer);
+
+        return obj;
+    }
+
+    /**
+     * Clears the cache and frees all the GL resources of the cached layouts
+     */
+    public void clear()
+    {
+        for (CachedTextLayout layout : this.layouts.values())
+        {
+            layout.deleteGlResources();
+        }
+
+        this.layouts.clear();
+        this.seenLines.clear();
+    }
+
+    protected void checkVideoSettings()
+    {
+        boolean useVbo = OpenGlHelper.useVbo();
+
+        if (useVbo != this.useVbo)
+        {
+            this.clear();
+            this.useVbo = useVbo;
+        }
+    }
+
+    public static class CachedTextLayout
+    {
+        protected final List<TextPart> parts = new ArrayList<>();
+        @Nullable protected BaseRenderObject styleObject;
+        protected final boolean useVbo;
+
+        public CachedTextLayout(boolean useVbo)
+        {
+            this.useVbo = useVbo;
+        }
+
+        public void addTextPart(ResourceLocation texture, BaseRenderObject renderObject)
+        {
+            this.parts.add(new TextPart(texture, renderObject));
+        }
+
+        public void setStylePart(BaseRenderObject renderObject)
+        {
+            this.styleObject = renderObject;
+        }
+
+        public void draw(float x, float y, float z, TextureManager textureManager)
+        {
+            GlStateManager.pushMatrix();
+            GlStateManager.translate(x, y, z);
+
+            RenderUtils.color(1f, 1f, 1f, 1f);
+            RenderUtils.setupBlend();
+
+            if (this.useVbo)
+            {
+                GlStateManager.glEnableClientState(GL11.GL_VERTEX_ARRAY);
+                GlStateManager.glEnableClientState(GL11.GL_COLOR_ARRAY);
+            }
+
+            for (TextPart part : this.parts)
+            {
+                textureManager.bindTexture(part.texture);
+                part.renderObject.draw();
+                GuiBatchRenderer.INSTANCE.onDrawCall();
+            }
+
+            if (this.styleObject != null)
+            {
+                this.styleObject.draw();
+                GuiBatchRenderer.INSTANCE.onDrawCall();
+            }
+
+            if (this.useVbo)
+            {
+                OpenGlHelper.glBindBuffer(OpenGlHelper.GL_ARRAY_BUFFER, 0);
+                GlStateManager.glDisableClientState(GL11.GL_VERTEX_ARRAY);
+                GlStateManager.glDisableClientState(GL11.GL_COLOR_ARRAY);
+            }
+
+            GlStateManager.resetColor();
+            GlStateManager.enableTexture2D();
+            GlStateManager.popMatrix();
+        }
+
+        public void deleteGlResources()
+        {
+            for (TextPart part : this.parts)
+            {
+                part.renderObject.deleteGlResources();
+            }
+
+            if (this.styleObject != null)
+            {
+                this.styleObject.deleteGlResources();
+            }
+
+            this.parts.clear();
+            this.styleObject = null;
+        }
+    }
+
+    protected static class TextPart
+    {
+        public final ResourceLocation texture;
+        public final BaseRenderObject renderObject;
+
+        public TextPart(ResourceLocation texture, BaseRenderObject renderObject)
+        {
+            this.texture = texture;
+            this.renderObject = renderObject;
+        }
+    }
+
+    protected static class SeenLine
+    {
+        protected long runStartTime;
+        protected long lastRenderTime;
+        protected int renderCount;
+
+        public SeenLine(long time)
+        {
+            this.runStartTime = time;
+            this.lastRenderTime = time;
+            this.renderCount = 1;
+        }
+
+        /**
+         * @return true if the line has been rendered over a long enough run of frames
+         */
+        public boolean markRendered(long time)
+        {
+            // The line wasn't rendered for a while, start a new run
+            if (time - this.lastRenderTime > MAX_RENDER_GAP_NANOS)
+            {
+                this.runStartTime = time;
+                this.renderCount = 0;
+            }
+
+            this.lastRenderTime = time;
+            ++this.renderCount;
+
+            return this.renderCount >= MIN_STABLE_RENDERS && time - this.runStartTime >= MIN_STABLE_NANOS;
+        }
+    }
+
+    protected static class CacheKey
+    {
+        protected final StyledTextLine line;
+        protected final int defaultColor;
+        protected final boolean shadow;
+
+        public CacheKey(StyledTextLine line, int defaultColor, boolean shadow)
+        {
+            this.line = line;
+            this.defaultColor = defaultColor;
+            this.shadow = shadow;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) { return true; }
+            if (o == null || this.getClass() != o.getClass()) { return false; }
+
+            CacheKey cacheKey = (CacheKey) o;
+
+            if (this.defaultColor != cacheKey.defaultColor) { return false; }
+            if (this.shadow != cacheKey.shadow) { return false; }
+            return this.line.equals(cacheKey.line);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int result = this.line.hashCode();
+            result = 31 * result + this.defaultColor;
+            result = 31 * result + (this.shadow ? 1 : 0);
+            return result;
+        }
+    }
+}
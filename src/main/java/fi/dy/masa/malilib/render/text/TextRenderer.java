@@ -21,7 +21,9 @@ import net.minecraft.client.resources.IReloadableResourceManager;
 import net.minecraft.client.resources.IResourceManager;
 import net.minecraft.client.resources.IResourceManagerReloadListener;
 import net.minecraft.util.ResourceLocation;
+import fi.dy.masa.malilib.MaLiLibConfigs;
 import fi.dy.masa.malilib.gui.util.ScreenContext;
+import fi.dy.masa.malilib.render.GuiBatchRenderer;
 import fi.dy.masa.malilib.render.RenderUtils;
 import fi.dy.masa.malilib.render.ShapeRenderUtils;
 import fi.dy.masa.malilib.util.GameUtils;
@@ -45,6 +47,7 @@ public class TextRenderer implements IResourceManagerReloadListener
     protected final WorldVertexBufferUploader vboUploader = new WorldVertexBufferUploader();
     protected final BufferBuilder textBuffer = new BufferBuilder(1048576);
     protected final BufferBuilder styleBuffer = new BufferBuilder(8192);
+    protected final TextLayoutCache layoutCache = new TextLayoutCache(512);
     protected final TextureManager textureManager;
     protected final ResourceLocation asciiTexture;
 
@@ -135,6 +138,7 @@ public class TextRenderer implements IResourceManagerReloadListener
         }
 
         StyledText.clearCache();
+        this.layoutCache.clear();
         this.glyphs.clear();
         this.glyphsBySize.clear();
         Arrays.fill(this.charWidth, 0);
@@ -155,6 +159,11 @@ public class TextRenderer implements IResourceManagerReloadListener
         return this.lineHeight;
     }
 
+    public TextLayoutCache getLayoutCache()
+    {
+        return this.layoutCache;
+    }
+
     public int getColorCode(char colorCodeChar)
     {
         int index = VANILLA_COLOR_CODES.indexOf(colorCodeChar);
@@ -283,6 +292,9 @@ public class TextRenderer implements IResourceManagerReloadListener
     {
         Minecraft mc = GameUtils.getClient();
 
+        // The text rendering binds the font textures directly
+        GuiBatchRenderer.INSTANCE.invalidateState();
+
         if (this.unicode != mc.isUnicode())
         {
             this.onResourceManagerReload(mc.getResourceManager());
@@ -310,6 +322,7 @@ public class TextRenderer implements IResourceManagerReloadListener
             GlStateManager.disableTexture2D();
             this.styleBuffer.finishDrawing();
             this.vboUploader.draw(this.styleBuffer);
+            GuiBatchRenderer.INSTANCE.onDrawCall();
             this.buildingStyleBuffer = false;
             GlStateManager.enableTexture2D();
         }
@@ -326,6 +339,7 @@ public class TextRenderer implements IResourceManagerReloadListener
                 GlStateManager.enableTexture2D();
                 this.textureManager.bindTexture(this.currentFontTexture);
                 this.vboUploader.draw(this.textBuffer);
+                GuiBatchRenderer.INSTANCE.onDrawCall();
                 GlStateManager.disableTexture2D();
             }
 
@@ -351,6 +365,13 @@ public class TextRenderer implements IResourceManagerReloadListener
                            boolean shadow, StyledText text, int lineHeight,
                            @Nullable FloatUnaryOperator alphaModifier)
     {
+        // Multi-line text is rendered in one batch, which is cheaper than drawing each line separately
+        if (alphaModifier == null && text.lines.size() == 1 && this.canUseLayoutCache())
+        {
+            this.renderLineUsingCache(x, y, z, defaultColor, shadow, text.lines.get(0));
+            return;
+        }
+
         this.startBuffers();
 
         for (StyledTextLine line : text.lines)
@@ -365,11 +386,121 @@ public class TextRenderer implements IResourceManagerReloadListener
     public void renderLine(int x, int y, float z, int defaultColor, boolean shadow,
                            StyledTextLine line, ScreenContext ctx)
     {
+        if (this.canUseLayoutCache())
+        {
+            this.renderLineUsingCache(x, y, z, defaultColor, shadow, line);
+            return;
+        }
+
         this.startBuffers();
         this.renderLineToBuffer(x, y, z, defaultColor, shadow, line);
         this.renderBuffers();
     }
 
+    /**
+     * @return true if the layout cache is enabled, and there is no
+     *         other text currently being batched into the buffers
+     */
+    protected boolean canUseLayoutCache()
+    {
+        return MaLiLibConfigs.Generic.TEXT_LAYOUT_CACHE.getBooleanValue() &&
+               this.buildingTextBuffer == false &&
+               this.buildingStyleBuffer == false;
+    }
+
+    /**
+     * Renders the given line using an already cached layout, or builds and caches
+     * the layout if the line has been rendered over a stable run of frames, or otherwise
+     * just renders the line normally without caching.
+     */
+    protected void renderLineUsingCache(int x, int y, float z, int defaultColor, boolean shadow, StyledTextLine line)
+    {
+        Minecraft mc = GameUtils.getClient();
+
+        if (this.unicode != mc.isUnicode())
+        {
+            this.onResourceManagerReload(mc.getResourceManager());
+        }
+
+        if (TextLayoutCache.canCache(line) == false)
+        {
+            this.startBuffers();
+            this.renderLineToBuffer(x, y, z, defaultColor, shadow, line);
+            this.renderBuffers();
+            return;
+        }
+
+        TextLayoutCache.CachedTextLayout layout = this.layoutCache.get(line, defaultColor, shadow);
+
+        if (layout == null && this.layoutCache.markSeen(line, defaultColor, shadow))
+        {
+            layout = this.buildCachedLayout(line, defaultColor, shadow);
+            this.layoutCache.put(line, defaultColor, shadow, layout);
+        }
+
+        if (layout != null)
+        {
+            GuiBatchRenderer.INSTANCE.invalidateState();
+            layout.draw(x, y, z, this.textureManager);
+        }
+        else
+        {
+            this.startBuffers();
+            this.renderLineToBuffer(x, y, z, defaultColor, shadow, line);
+            this.renderBuffers();
+        }
+    }
+
+    /**
+     * Builds the glyph quads and the style quads of the given line at the origin,
+     * and uploads them into a new cached layout.
+     */
+    protected TextLayoutCache.CachedTextLayout buildCachedLayout(StyledTextLine line, int defaultColor, boolean shadow)
+    {
+        TextLayoutCache.CachedTextLayout layout = this.layoutCache.createLayout();
+        Color4f defaultColor4f = Color4f.fromColor(defaultColor);
+        ResourceLocation texture = null;
+        int segmentX = 0;
+
+        this.styleBuffer.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_COLOR);
+
+        for (StyledTextSegment segment : line.segments)
+        {
+            if (texture != segment.texture)
+            {
+                if (texture != null)
+                {
+                    this.textBuffer.finishDrawing();
+                    layout.addTextPart(texture, this.layoutCache.createRenderObject(this.textBuffer, DefaultVertexFormats.POSITION_TEX_COLOR));
+                }
+
+                this.textBuffer.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX_COLOR);
+                texture = segment.texture;
+            }
+
+            segmentX += this.renderTextSegmentWithShadow(segmentX, 0, 0f, defaultColor4f, shadow, segment, null);
+        }
+
+        if (texture != null)
+        {
+            this.textBuffer.finishDrawing();
+            layout.addTextPart(texture, this.layoutCache.createRenderObject(this.textBuffer, DefaultVertexFormats.POSITION_TEX_COLOR));
+        }
+
+        this.styleBuffer.finishDrawing();
+
+        if (this.styleBuffer.getVertexCount() > 0)
+        {
+            layout.setStylePart(this.layoutCache.createRenderObject(this.styleBuffer, DefaultVertexFormats.POSITION_COLOR));
+        }
+        else
+        {
+            this.styleBuffer.reset();
+        }
+
+        return layout;
+    }
+
     public void renderLineToBuffer(int x, int y, float z, int defaultColor, boolean shadow, StyledTextLine line)
     {
         this.renderLineToBuffer(x, y, z, defaultColor, shadow, line, null);
@@ -400,14 +531,6 @@ public class TextRenderer implements IResourceManagerReloadListener
                                     boolean shadow, StyledTextSegment segment,
                                     @Nullable FloatUnaryOperator alphaModifier)
     {
-        TextStyle style = segment.style;
-        Color4f color = style.color != null ? style.color : defaultColor;
-
-        if (alphaModifier != null)
-        {
-            color = color.withAlpha(alphaModifier.apply(color.a));
-        }
-
         // Reference equality is fine here, as the sheets are fixed/pre-determined
         if (this.currentFontTexture != segment.texture)
         {
@@ -420,6 +543,21 @@ public class TextRenderer implements IResourceManagerReloadListener
             this.currentFontTexture = segment.texture;
         }
 
+        return this.renderTextSegmentWithShadow(x, y, z, defaultColor, shadow, segment, alphaModifier);
+    }
+
+    protected int renderTextSegmentWithShadow(int x, int y, float z, Color4f defaultColor,
+                                              boolean shadow, StyledTextSegment segment,
+                                              @Nullable FloatUnaryOperator alphaModifier)
+    {
+        TextStyle style = segment.style;
+        Color4f color = style.color != null ? style.color : defaultColor;
+
+        if (alphaModifier != null)
+        {
+            color = color.withAlpha(alphaModifier.apply(color.a));
+        }
+
         if (style.shadow != null)
         {
             shadow = style.shadow;
@@ -1,6 +1,8 @@
 package fi.dy.masa.malilib.util;
 
 import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
 
 /*
  * The Alphanum Algorithm is an improved sorting algorithm for strings
@@ -35,50 +37,40 @@ import java.util.Comparator;
 /**
  * This is an updated version with enhancements made by Daniel Migowski,
  * Andre Bogus, and David Koelle. Updated by David Koelle in 2017.
+ * Modified to compare the chunks in place over the character ranges,
+ * instead of creating new Strings for every chunk of every comparison.
  *
  * To use this class:
  *   Use the static "sort" method from the java.util.Collections class:
  *   Collections.sort(your list, new AlphaNumComparator());
+ *
+ * For sorting large lists of objects by a String key that is not just a
+ * field value, use {@link #sortByKey(List, Function)}, which gets the key only once per entry.
  */
 public class AlphaNumComparator
 {
-    private final boolean isDigit(char ch)
+    public static final AlphaNumStringComparator STRING_COMPARATOR = new AlphaNumStringComparator();
+
+    private static boolean isDigit(char ch)
     {
         return ((ch >= 48) && (ch <= 57));
     }
 
-    /** Length of string is passed in for improved efficiency (only need to calculate it once) **/
-    protected final String getChunk(String s, int slength, int marker)
+    /**
+     * Length of string is passed in for improved efficiency (only need to calculate it once)
+     * @return the end index (exclusive) of the chunk starting at the given marker
+     */
+    protected static int getChunkEnd(String s, int slength, int marker)
     {
-        StringBuilder chunk = new StringBuilder();
-        char c = s.charAt(marker);
-        chunk.append(c);
+        boolean digit = isDigit(s.charAt(marker));
         marker++;
 
-        if (isDigit(c))
+        while (marker < slength && isDigit(s.charAt(marker)) == digit)
         {
-            while (marker < slength)
-            {
-                c = s.charAt(marker);
-                if (!isDigit(c))
-                    break;
-                chunk.append(c);
-                marker++;
-            }
-        }
-        else
-        {
-            while (marker < slength)
-            {
-                c = s.charAt(marker);
-                if (isDigit(c))
-                    break;
-                chunk.append(c);
-                marker++;
-            }
+            marker++;
         }
 
-        return chunk.toString();
+        return marker;
     }
 
     public int compare(String s1, String s2)
@@ -95,27 +87,24 @@ public class AlphaNumComparator
 
         while (thisMarker < s1Length && thatMarker < s2Length)
         {
-            String thisChunk = getChunk(s1, s1Length, thisMarker);
-            thisMarker += thisChunk.length();
-
-            String thatChunk = getChunk(s2, s2Length, thatMarker);
-            thatMarker += thatChunk.length();
-
-            // If both chunks contain numeric characters, sort them numerically
+            int thisChunkEnd = getChunkEnd(s1, s1Length, thisMarker);
+            int thatChunkEnd = getChunkEnd(s2, s2Length, thatMarker);
+            int thisChunkLength = thisChunkEnd - thisMarker;
+            int thatChunkLength = thatChunkEnd - thatMarker;
             int result = 0;
 
-            if (isDigit(thisChunk.charAt(0)) && isDigit(thatChunk.charAt(0)))
+            // If both chunks contain numeric characters, sort them numerically
+            if (isDigit(s1.charAt(thisMarker)) && isDigit(s2.charAt(thatMarker)))
             {
                 // Simple chunk comparison by length.
-                int thisChunkLength = thisChunk.length();
-                result = thisChunkLength - thatChunk.length();
+                result = thisChunkLength - thatChunkLength;
 
                 // If equal, the first different number counts
                 if (result == 0)
                 {
                     for (int i = 0; i < thisChunkLength; i++)
                     {
-                        result = thisChunk.charAt(i) - thatChunk.charAt(i);
+                        result = s1.charAt(thisMarker + i) - s2.charAt(thatMarker + i);
 
                         if (result != 0)
                         {
@@ -126,16 +115,43 @@ public class AlphaNumComparator
             }
             else
             {
-                result = thisChunk.compareTo(thatChunk);
+                // Same as String#compareTo() over the chunk ranges
+                int minLength = Math.min(thisChunkLength, thatChunkLength);
+
+                for (int i = 0; i < minLength; i++)
+                {
+                    result = s1.charAt(thisMarker + i) - s2.charAt(thatMarker + i);
+
+                    if (result != 0)
+                    {
+                        return result;
+                    }
+                }
+
+                result = thisChunkLength - thatChunkLength;
             }
 
             if (result != 0)
+            {
                 return result;
+            }
+
+            thisMarker = thisChunkEnd;
+            thatMarker = thatChunkEnd;
         }
 
         return s1Length - s2Length;
     }
 
+    /**
+     * Sorts the given list in the natural alpha-numeric order of the keys returned by the key function.
+     * The key is only fetched once per entry, instead of twice per comparison.
+     */
+    public static <T> void sortByKey(List<T> list, Function<T, String> keyFunction)
+    {
+        ListUtils.sortByKey(list, keyFunction, STRING_COMPARATOR);
+    }
+
     public static class AlphaNumStringComparator extends AlphaNumComparator implements Comparator<String>
     {
     }
@@ -0,0 +1,158 @@
+package fi.dy.masa.malilib.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import fi.dy.masa.malilib.MaLiLib;
+
+/**
+ * Runs file write operations on a dedicated background thread.
+ * The writes are keyed by the target file, and are delayed by a short debounce
+ * period, so that repeated saves of the same file within that period
+ * get coalesced into just one write of the most recent data.
+ * The write tasks are expected to already have a snapshot of the data they write,
+ * they must not access any live game or config state.
+ */
+public class BackgroundFileWriter
+{
+    public static final BackgroundFileWriter INSTANCE = new BackgroundFileWriter(500L);
+
+    protected final Map<File, BooleanSupplier> pendingWrites = new HashMap<>();
+    protected final long debounceMs;
+    protected ScheduledExecutorService executor;
+    protected int runningCount;
+
+    public BackgroundFileWriter(long debounceMs)
+    {
+        this.debounceMs = debounceMs;
+    }
+
+    /**
+     * Schedules the given write task for the given file. If there already is
+     * a pending (not yet started) write for the same file, it gets replaced by this new task.
+     * @param file the file being written, used as the key for coalescing the writes
+     * @param writeTask the task that does the actual writing. Returns true on success.
+     */
+    public void scheduleWrite(File file, BooleanSupplier writeTask)
+    {
+        boolean needsScheduling;
+
+        synchronized (this)
+        {
+            needsScheduling = this.pendingWrites.put(file, writeTask) == null;
+        }
+
+        if (needsScheduling)
+        {
+            this.getExecutor().schedule(() -> this.runPendingWrite(file), this.debounceMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return true if there are pending or currently running write tasks
+     */
+    public synchronized boolean hasPendingWrites()
+    {
+        return this.pendingWrites.isEmpty() == false || this.runningCount > 0;
+    }
+
+    /**
+     * Immediately runs all the pending writes, and waits for them
+     * and any currently running writes to finish.
+     * This should be called before reading any files that might have pending writes,
+     * and when the game is shutting down.
+     */
+    public void flush()
+    {
+        if (this.hasPendingWrites() == false)
+        {
+            return;
+        }
+
+        try
+        {
+            // The executor is single threaded, so this will also wait for any currently running write
+            this.getExecutor().submit(this::runAllPendingWrites).get();
+        }
+        catch (Exception e)
+        {
+            MaLiLib.LOGGER.warn("Exception while waiting for the pending file writes to finish", e);
+        }
+    }
+
+    protected void runPendingWrite(File file)
+    {
+        BooleanSupplier task;
+
+        synchronized (this)
+        {
+            task = this.pendingWrites.remove(file);
+
+            if (task == null)
+            {
+                return;
+            }
+
+            ++this.runningCount;
+        }
+
+        this.runTask(file, task);
+    }
+
+    protected void runAllPendingWrites()
+    {
+        List<File> files;
+
+        synchronized (this)
+        {
+            files = new ArrayList<>(this.pendingWrites.keySet());
+        }
+
+        for (File file : files)
+        {
+            this.runPendingWrite(file);
+        }
+    }
+
+    protected void runTask(File file, BooleanSupplier task)
+    {
+        try
+        {
+            if (task.getAsBoolean() == false)
+            {
+                MaLiLib.LOGGER.warn("Failed to write the file '{}'", file.getAbsolutePath());
+            }
+        }
+        catch (Exception e)
+        {
+            MaLiLib.LOGGER.warn("Exception while writing the file '{}'", file.getAbsolutePath(), e);
+        }
+        finally
+        {
+            synchronized (this)
+            {
+                --this.runningCount;
+            }
+        }
+    }
+
+    protected synchronized ScheduledExecutorService getExecutor()
+    {
+        if (this.executor == null)
+        {
+            this.executor = Executors.newSingleThreadScheduledExecutor((task) -> {
+                Thread thread = new Thread(task, "MaLiLib File Writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        return this.executor;
+    }
+}
@@ -232,10 +232,10 @@ public class BackupUtils
                 // lazy initialization, only calculate the current file's hash if it's needed
                 if (currentHash == null)
                 {
-                    currentHash = HashUtils.getHashAsHexString(fileIn, digest);
+                    currentHash = HashUtils.getCachedHashAsHexString(fileIn, digest);
                 }
 
-                if (HashUtils.getHashAsHexString(tmp, digest).equals(currentHash))
+                if (HashUtils.getCachedHashAsHexString(tmp, digest).equals(currentHash))
                 {
                     files.add(tmp);
                 }
@@ -89,7 +89,7 @@ public class BlockUtils
             blocks.add(block);
         }
 
-        blocks.sort(Comparator.comparing(BlockUtils::getBlockRegistryName));
+        ListUtils.sortByKey(blocks, BlockUtils::getBlockRegistryName, Comparator.naturalOrder());
 
         return blocks;
     }
@@ -0,0 +1,299 @@
+package fi.dy.masa.malilib.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+import fi.dy.masa.malilib.MaLiLib;
+
+/**
+ * A thread safe cache of the raw (non-filtered) contents of directories.
+ * The cached directories are registered to a {@link WatchService}, and their listings
+ * get invalidated when any entries are created or removed in them.
+ * As a fallback for file systems that don't deliver watch events (for example
+ * network mounts), the modification time of the directory is also checked
+ * before returning a cached listing.
+ */
+public class DirectoryListingCache
+{
+    public static final DirectoryListingCache INSTANCE = new DirectoryListingCache(512);
+
+    protected final LinkedHashMap<Path, CachedListing> listings;
+    protected final int maxSize;
+    @Nullable protected WatchService watchService;
+    protected boolean watchServiceFailed;
+
+    public DirectoryListingCache(int maxSize)
+    {
+        this.maxSize = maxSize;
+        this.listings = new LinkedHashMap<Path, CachedListing>(64, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, CachedListing> eldest)
+            {
+                if (this.size() > DirectoryListingCache.this.maxSize)
+                {
+                    eldest.getValue().cancelWatch();
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return the cached contents of the given directory, if there is a valid and complete cached listing
+     */
+    @Nullable
+    public synchronized List<File> getCachedListing(File dir)
+    {
+        Path path = dir.toPath();
+        CachedListing listing = this.listings.get(path);
+
+        if (listing == null || listing.files == null)
+        {
+            return null;
+        }
+
+        if (listing.isValid() == false)
+        {
+            this.removeListing(path);
+            return null;
+        }
+
+        return listing.files;
+    }
+
+    /**
+     * Reads the contents of the given directory, passing each entry to the given consumer.
+     * The contents are taken from the cache if there is a valid cached listing,
+     * otherwise the directory is read and the listing gets cached, if it was completely read
+     * and the directory didn't change while it was being read.
+     * @param isCancelled the reading is aborted if this returns true
+     * @return true if the directory was read completely, false if it was cancelled or could not be read
+     */
+    public boolean readListing(File dir, BooleanSupplier isCancelled, Consumer<File> entryConsumer)
+    {
+        List<File> cachedFiles = this.getCachedListing(dir);
+
+        if (cachedFiles != null)
+        {
+            for (File file : cachedFiles)
+            {
+                if (isCancelled.getAsBoolean())
+                {
+                    return false;
+                }
+
+                entryConsumer.accept(file);
+            }
+
+            return true;
+        }
+
+        // The watch is registered before reading the directory,
+        // so that any changes during the read will invalidate the new listing
+        CachedListing listing = this.startListing(dir);
+        List<File> files = new ArrayList<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir.toPath()))
+        {
+            for (Path path : stream)
+            {
+                if (isCancelled.getAsBoolean())
+                {
+                    return false;
+                }
+
+                File file = path.toFile();
+                files.add(file);
+                entryConsumer.accept(file);
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            MaLiLib.LOGGER.warn("Failed to read the contents of the directory '{}'", dir.getAbsolutePath(), e);
+            this.invalidate(dir);
+            return false;
+        }
+
+        this.finishListing(listing, files);
+
+        return true;
+    }
+
+    /**
+     * Removes the cached listing of the given directory
+     */
+    public synchronized void invalidate(File dir)
+    {
+        this.removeListing(dir.toPath());
+    }
+
+    public synchronized void clear()
+    {
+        for (CachedListing listing : this.listings.values())
+        {
+            listing.cancelWatch();
+        }
+
+        this.listings.clear();
+    }
+
+    protected synchronized CachedListing startListing(File dir)
+    {
+        Path path = dir.toPath();
+        CachedListing listing = new CachedListing(dir, dir.lastModified(), this.tryWatch(path));
+        CachedListing old = this.listings.put(path, listing);
+
+        // Registering an already registered directory returns the same key
+        if (old != null && old.watchKey != listing.watchKey)
+        {
+            old.cancelWatch();
+        }
+
+        return listing;
+    }
+
+    protected synchronized void finishListing(CachedListing listing, List<File> files)
+    {
+        // If the listing was invalidated while the directory was being read, then don't cache the results
+        if (this.listings.get(listing.dir.toPath()) == listing)
+        {
+            listing.files = Collections.unmodifiableList(files);
+        }
+    }
+
+    protected void removeListing(Path path)
+    {
+        CachedListing listing = this.listings.remove(path);
+
+        if (listing != null)
+        {
+            listing.cancelWatch();
+        }
+    }
+
+    @Nullable
+    protected WatchKey tryWatch(Path path)
+    {
+        WatchService service = this.getWatchService();
+
+        if (service != null)
+        {
+            try
+            {
+                return path.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+            catch (Exception e)
+            {
+                MaLiLib.debugLog("Failed to watch the directory '{}'", path.toAbsolutePath(), e);
+            }
+        }
+
+        return null;
+    }
+
+    @Nullable
+    protected WatchService getWatchService()
+    {
+        if (this.watchService == null && this.watchServiceFailed == false)
+        {
+            try
+            {
+                WatchService service = FileSystems.getDefault().newWatchService();
+                Thread thread = new Thread(() -> this.runWatchLoop(service), "MaLiLib Directory Watcher");
+                thread.setDaemon(true);
+                thread.start();
+                this.watchService = service;
+            }
+            catch (Exception e)
+            {
+                MaLiLib.LOGGER.warn("Failed to create a directory watch service", e);
+                this.watchServiceFailed = true;
+            }
+        }
+
+        return this.watchService;
+    }
+
+    protected void runWatchLoop(WatchService service)
+    {
+        while (true)
+        {
+            WatchKey key;
+
+            try
+            {
+                key = service.take();
+            }
+            catch (InterruptedException | ClosedWatchServiceException e)
+            {
+                return;
+            }
+
+            key.pollEvents();
+
+            // The watch gets cancelled along with the listing,
+            // and it will be registered again if the directory is listed again
+            synchronized (this)
+            {
+                Path path = (Path) key.watchable();
+                CachedListing listing = this.listings.get(path);
+
+                if (listing != null && listing.watchKey == key)
+                {
+                    this.removeListing(path);
+                }
+                else
+                {
+                    key.cancel();
+                }
+            }
+        }
+    }
+
+    protected static class CachedListing
+    {
+        protected final File dir;
+        protected final long lastModified;
+        @Nullable protected final WatchKey watchKey;
+        @Nullable protected List<File> files;
+
+        protected CachedListing(File dir, long lastModified, @Nullable WatchKey watchKey)
+        {
+            this.dir = dir;
+            this.lastModified = lastModified;
+            this.watchKey = watchKey;
+        }
+
+        protected boolean isValid()
+        {
+            return (this.watchKey == null || this.watchKey.isValid()) &&
+                   this.dir.lastModified() == this.lastModified;
+        }
+
+        protected void cancelWatch()
+        {
+            if (this.watchKey != null)
+            {
+                this.watchKey.cancel();
+            }
+        }
+    }
+}
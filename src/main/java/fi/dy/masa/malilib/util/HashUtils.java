@@ -2,12 +2,54 @@ package fi.dy.masa.malilib.util;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import fi.dy.masa.malilib.MaLiLib;
 
 public class HashUtils
 {
+    private static final ConcurrentHashMap<FileHashKey, String> FILE_HASH_CACHE = new ConcurrentHashMap<>();
+    private static final int MAX_CACHED_HASHES = 4096;
+
+    /**
+     * Returns the hash of the given file, using a cache keyed by the file's identity
+     * (or path, if the file system doesn't provide an identity), size and modification time,
+     * and the digest algorithm. The file identity stays the same when a file gets renamed,
+     * so this avoids re-hashing all the rotated backup files on every backup.
+     */
+    public static String getCachedHashAsHexString(File file, MessageDigest digest)
+    {
+        try
+        {
+            BasicFileAttributes attr = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+            Object fileId = attr.fileKey() != null ? attr.fileKey() : file.getAbsolutePath();
+            FileHashKey key = new FileHashKey(fileId, attr.size(), attr.lastModifiedTime().toMillis(), digest.getAlgorithm());
+            String hash = FILE_HASH_CACHE.get(key);
+
+            if (hash == null)
+            {
+                hash = getHashAsHexString(file, digest);
+
+                if (FILE_HASH_CACHE.size() >= MAX_CACHED_HASHES)
+                {
+                    FILE_HASH_CACHE.clear();
+                }
+
+                FILE_HASH_CACHE.put(key, hash);
+            }
+
+            return hash;
+        }
+        catch (Exception e)
+        {
+            return getHashAsHexString(file, digest);
+        }
+    }
+
     public static String getHashAsHexString(File file, MessageDigest digest)
     {
         StringBuilder sb = new StringBuilder(64);
@@ -35,4 +77,40 @@ public class HashUtils
 
          return sb.toString();
     }
+
+    private static class FileHashKey
+    {
+        private final Object fileId;
+        private final long size;
+        private final long lastModified;
+        private final String algorithm;
+
+        private FileHashKey(Object fileId, long size, long lastModified, String algorithm)
+        {
+            this.fileId = fileId;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) { return true; }
+            if (o == null || this.getClass() != o.getClass()) { return false; }
+
+            FileHashKey that = (FileHashKey) o;
+
+            if (this.size != that.size) { return false; }
+            if (this.lastModified != that.lastModified) { return false; }
+            if (!this.fileId.equals(that.fileId)) { return false; }
+            return this.algorithm.equals(that.algorithm);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(this.fileId, this.size, this.lastModified, this.algorithm);
+        }
+    }
 }
@@ -43,7 +43,7 @@ public class ItemUtils
             items.add(item);
         }
 
-        items.sort(Comparator.comparing(ItemUtils::getItemRegistryName));
+        ListUtils.sortByKey(items, ItemUtils::getItemRegistryName, Comparator.naturalOrder());
 
         return items;
     }
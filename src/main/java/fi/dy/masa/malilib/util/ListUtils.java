@@ -1,8 +1,11 @@
 package fi.dy.masa.malilib.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import com.google.common.collect.ImmutableList;
 
@@ -151,6 +154,40 @@ public class ListUtils
         return builder.build();
     }
 
+    /**
+     * Sorts the given list by the keys returned by the key function, using the given key comparator.
+     * The keys are fetched only once per entry, which is a lot cheaper than using
+     * <b>Comparator.comparing(keyFunction)</b> when the key function is not just a simple
+     * field getter (for example if it creates a String or strips formatting codes),
+     * as that would get the keys twice per comparison.
+     * The sort is stable.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, K> void sortByKey(List<T> list, Function<T, K> keyFunction, Comparator<? super K> keyComparator)
+    {
+        final int size = list.size();
+
+        if (size < 2)
+        {
+            return;
+        }
+
+        KeyedEntry<T, K>[] entries = new KeyedEntry[size];
+
+        for (int i = 0; i < size; ++i)
+        {
+            T value = list.get(i);
+            entries[i] = new KeyedEntry<>(value, keyFunction.apply(value));
+        }
+
+        Arrays.sort(entries, (e1, e2) -> keyComparator.compare(e1.key, e2.key));
+
+        for (int i = 0; i < size; ++i)
+        {
+            list.set(i, entries[i].value);
+        }
+    }
+
     public static <T> boolean containsAny(Collection<T> hayStack, Collection<T> needles)
     {
         for (T needle : needles)
@@ -163,4 +200,16 @@ public class ListUtils
 
         return false;
     }
+
+    private static class KeyedEntry<T, K>
+    {
+        private final T value;
+        private final K key;
+
+        private KeyedEntry(T value, K key)
+        {
+            this.value = value;
+            this.key = key;
+        }
+    }
 }
@@ -0,0 +1,7 @@
+package fi.dy.masa.malilib.util.data;
+
+@FunctionalInterface
+public interface IntObjConsumer<T>
+{
+    void accept(int value, T obj);
+}
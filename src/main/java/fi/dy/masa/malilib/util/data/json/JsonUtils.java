@@ -6,6 +6,9 @@ import java.io.FileOutputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -672,26 +675,42 @@ public class JsonUtils
 
         try (OutputStreamWriter writer = new OutputStreamWriter(new FileOutputStream(fileTmp), StandardCharsets.UTF_8))
         {
-            writer.write(gson.toJson(root));
-            writer.close();
+            gson.toJson(root, writer);
+        }
+        catch (Exception e)
+        {
+            MaLiLib.LOGGER.warn("Failed to write JSON data to file '{}'", fileTmp.getAbsolutePath(), e);
+            return false;
+        }
+
+        return replaceFile(fileTmp, file);
+    }
 
-            if (file.exists() && file.isFile() && file.delete() == false)
+    /**
+     * Moves the temporary file over the target file, atomically if the file system supports it.
+     * This way the target file is never left missing or half-written, even if the game crashes.
+     * @return true on success
+     */
+    public static boolean replaceFile(File tmpFile, File targetFile)
+    {
+        try
+        {
+            try
             {
-                MaLiLib.LOGGER.warn("Failed to delete file '{}'", file.getAbsolutePath());
+                Files.move(tmpFile.toPath(), targetFile.toPath(),
+                           StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
             }
-
-            if (fileTmp.renameTo(file) == false)
+            catch (AtomicMoveNotSupportedException e)
             {
-                MaLiLib.LOGGER.warn("Failed to rename file '{}' to '{}'",
-                                    fileTmp.getAbsolutePath(), file.getAbsolutePath());
-                return false;
+                Files.move(tmpFile.toPath(), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
             }
 
             return true;
         }
         catch (Exception e)
         {
-            MaLiLib.LOGGER.warn("Failed to write JSON data to file '{}'", fileTmp.getAbsolutePath(), e);
+            MaLiLib.LOGGER.warn("Failed to move file '{}' to '{}'",
+                                tmpFile.getAbsolutePath(), targetFile.getAbsolutePath(), e);
         }
 
         return false;
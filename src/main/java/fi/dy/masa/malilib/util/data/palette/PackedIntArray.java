@@ -0,0 +1,190 @@
+package fi.dy.masa.malilib.util.data.palette;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A fixed size array of unsigned integer values, packed into a long array
+ * using a fixed number of bits per entry. Entries may span the boundary
+ * between two longs, so no bits are wasted.
+ */
+public class PackedIntArray
+{
+    protected final long[] longArray;
+    protected final int bitsPerEntry;
+    protected final long maxEntryValue;
+    protected final int arraySize;
+
+    public PackedIntArray(int bitsPerEntry, int arraySize)
+    {
+        this(bitsPerEntry, arraySize, null);
+    }
+
+    public PackedIntArray(int bitsPerEntry, int arraySize, long[] longArray)
+    {
+        Validate.inclusiveBetween(1L, 32L, bitsPerEntry);
+
+        this.arraySize = arraySize;
+        this.bitsPerEntry = bitsPerEntry;
+        this.maxEntryValue = (1L << bitsPerEntry) - 1L;
+
+        int longArraySize = getLongArraySize(bitsPerEntry, arraySize);
+
+        if (longArray != null)
+        {
+            if (longArray.length != longArraySize)
+            {
+                throw new IllegalArgumentException("Invalid long array length " + longArray.length +
+                                                   " for " + arraySize + " entries of " +
+                                                   bitsPerEntry + " bits (expected " + longArraySize + ")");
+            }
+
+            this.longArray = longArray;
+        }
+        else
+        {
+            this.longArray = new long[longArraySize];
+        }
+    }
+
+    /**
+     * @return the number of entries in this array
+     */
+    public int size()
+    {
+        return this.arraySize;
+    }
+
+    public int getBitsPerEntry()
+    {
+        return this.bitsPerEntry;
+    }
+
+    /**
+     * @return the backing long array. Note that this is not a copy.
+     */
+    public long[] getBackingLongArray()
+    {
+        return this.longArray;
+    }
+
+    public void setAt(int index, int value)
+    {
+        final long bitIndex = (long) index * (long) this.bitsPerEntry;
+        final int startArrIndex = (int) (bitIndex >> 6);
+        final int endArrIndex = (int) (((long) (index + 1) * (long) this.bitsPerEntry - 1L) >> 6);
+        final int startBitOffset = (int) (bitIndex & 0x3F);
+        final long maxEntryValue = this.maxEntryValue;
+
+        this.longArray[startArrIndex] = this.longArray[startArrIndex] & ~(maxEntryValue << startBitOffset) |
+                                        ((long) value & maxEntryValue) << startBitOffset;
+
+        if (startArrIndex != endArrIndex)
+        {
+            final int endOffset = 64 - startBitOffset;
+            final int j1 = this.bitsPerEntry - endOffset;
+            this.longArray[endArrIndex] = this.longArray[endArrIndex] >>> j1 << j1 |
+                                          ((long) value & maxEntryValue) >> endOffset;
+        }
+    }
+
+    public int getAt(int index)
+    {
+        final long bitIndex = (long) index * (long) this.bitsPerEntry;
+        final int startArrIndex = (int) (bitIndex >> 6);
+        final int endArrIndex = (int) (((long) (index + 1) * (long) this.bitsPerEntry - 1L) >> 6);
+        final int startBitOffset = (int) (bitIndex & 0x3F);
+
+        if (startArrIndex == endArrIndex)
+        {
+            return (int) (this.longArray[startArrIndex] >>> startBitOffset & this.maxEntryValue);
+        }
+        else
+        {
+            final int endOffset = 64 - startBitOffset;
+            return (int) ((this.longArray[startArrIndex] >>> startBitOffset |
+                           this.longArray[endArrIndex] << endOffset) & this.maxEntryValue);
+        }
+    }
+
+    /**
+     * Reads the values in the range [startIndex, startIndex + length) into the given array,
+     * starting from position 0 in the output array.
+     * This walks the backing array sequentially, without re-calculating the
+     * position of each entry from scratch.
+     */
+    public void getRange(int startIndex, int length, int[] out)
+    {
+        checkRange(startIndex, length, this.arraySize);
+
+        final long[] longArray = this.longArray;
+        final int bits = this.bitsPerEntry;
+        final long mask = this.maxEntryValue;
+        long bitIndex = (long) startIndex * (long) bits;
+
+        for (int i = 0; i < length; ++i)
+        {
+            final int arrIndex = (int) (bitIndex >> 6);
+            final int bitOffset = (int) (bitIndex & 0x3F);
+
+            if (bitOffset + bits <= 64)
+            {
+                out[i] = (int) (longArray[arrIndex] >>> bitOffset & mask);
+            }
+            else
+            {
+                out[i] = (int) ((longArray[arrIndex] >>> bitOffset |
+                                 longArray[arrIndex + 1] << (64 - bitOffset)) & mask);
+            }
+
+            bitIndex += bits;
+        }
+    }
+
+    /**
+     * Writes the values from the given array, starting from position 0,
+     * to the range [startIndex, startIndex + length) in this array.
+     */
+    public void setRange(int startIndex, int length, int[] values)
+    {
+        checkRange(startIndex, length, this.arraySize);
+
+        for (int i = 0; i < length; ++i)
+        {
+            this.setAt(startIndex + i, values[i]);
+        }
+    }
+
+    /**
+     * Sets all the entries in the range [startIndex, startIndex + length) to the given value
+     */
+    public void fill(int startIndex, int length, int value)
+    {
+        checkRange(startIndex, length, this.arraySize);
+
+        final int end = startIndex + length;
+
+        for (int i = startIndex; i < end; ++i)
+        {
+            this.setAt(i, value);
+        }
+    }
+
+    public PackedIntArray copy()
+    {
+        return new PackedIntArray(this.bitsPerEntry, this.arraySize, this.longArray.clone());
+    }
+
+    public static int getLongArraySize(int bitsPerEntry, int arraySize)
+    {
+        return (int) Math.ceil(((long) arraySize * (long) bitsPerEntry) / 64.0);
+    }
+
+    protected static void checkRange(int startIndex, int length, int arraySize)
+    {
+        if (startIndex < 0 || length < 0 || startIndex + length > arraySize)
+        {
+            throw new IndexOutOfBoundsException("Invalid range: start: " + startIndex + ", length: " +
+                                                length + ", array size: " + arraySize);
+        }
+    }
+}
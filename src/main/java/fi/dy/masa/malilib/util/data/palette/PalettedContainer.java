@@ -0,0 +1,274 @@
+package fi.dy.masa.malilib.util.data.palette;
+
+import java.util.List;
+import java.util.function.IntFunction;
+import javax.annotation.Nullable;
+
+/**
+ * A fixed size container of values, which stores palette IDs in a bit-packed
+ * long array. The palette starts as a {@link LinearPalette}, and gets promoted
+ * to a {@link HashMapPalette} once it grows past {@link #MAX_BITS_LINEAR} bits.
+ * The entry width of the backing storage grows as needed via {@link #onResize(int, Object, Palette)}.
+ */
+public class PalettedContainer<T> implements PaletteResizeHandler<T>
+{
+    public static final int MIN_BITS = 2;
+    public static final int MAX_BITS_LINEAR = 4;
+
+    protected final T defaultValue;
+    protected final int size;
+    protected PackedIntArray storage;
+    protected Palette<T> palette;
+    protected int bits;
+
+    /**
+     * Creates a new container with the given number of entries.
+     * All entries will initially contain the given default value,
+     * which also always has the palette ID 0.
+     */
+    public PalettedContainer(int size, T defaultValue)
+    {
+        this(size, MIN_BITS, defaultValue);
+    }
+
+    public PalettedContainer(int size, int bits, T defaultValue)
+    {
+        this.size = size;
+        this.defaultValue = defaultValue;
+        this.setBits(bits, null);
+    }
+
+    /**
+     * @return the number of entries in this container
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    public int getBits()
+    {
+        return this.bits;
+    }
+
+    public T getDefaultValue()
+    {
+        return this.defaultValue;
+    }
+
+    public Palette<T> getPalette()
+    {
+        return this.palette;
+    }
+
+    public PackedIntArray getStorage()
+    {
+        return this.storage;
+    }
+
+    protected void setBits(int bitsIn, @Nullable Palette<T> oldPalette)
+    {
+        this.bits = Math.max(MIN_BITS, bitsIn);
+
+        if (this.bits <= MAX_BITS_LINEAR)
+        {
+            this.palette = new LinearPalette<>(this.bits, this);
+        }
+        else
+        {
+            this.palette = new HashMapPalette<>(this.bits, this);
+        }
+
+        this.storage = new PackedIntArray(this.bits, this.size);
+
+        // Always reserve the ID 0 for the default value, so that a fresh storage
+        // (which is all zeroes) correctly reads back as the default value
+        if (oldPalette == null)
+        {
+            this.palette.idFor(this.defaultValue);
+        }
+    }
+
+    @Override
+    public int onResize(int newSizeBits, T valueBeingAdded, Palette<T> oldPalette)
+    {
+        PackedIntArray oldStorage = this.storage;
+        Palette<T> oldPaletteRef = this.palette;
+
+        this.setBits(newSizeBits, oldPaletteRef);
+
+        // Copy over the old palette as is, so the ID mapping stays the same
+        // and the old raw IDs can be copied straight into the new storage
+        List<T> mapping = oldPaletteRef.getMapping();
+
+        for (T value : mapping)
+        {
+            this.palette.idFor(value);
+        }
+
+        final int size = this.size;
+
+        for (int i = 0; i < size; ++i)
+        {
+            this.storage.setAt(i, oldStorage.getAt(i));
+        }
+
+        return this.palette.idFor(valueBeingAdded);
+    }
+
+    public T get(int index)
+    {
+        T value = this.palette.getValue(this.storage.getAt(index));
+        return value != null ? value : this.defaultValue;
+    }
+
+    public void set(int index, T value)
+    {
+        int id = this.palette.idFor(value);
+        this.storage.setAt(index, id);
+    }
+
+    /**
+     * Reads the values in the range [startIndex, startIndex + length)
+     * into the given array, starting from position 0 in the output array.
+     */
+    public void getRange(int startIndex, int length, T[] out)
+    {
+        int[] ids = new int[length];
+        this.storage.getRange(startIndex, length, ids);
+
+        // The palette IDs usually repeat a lot in a range, so cache the last lookup
+        int lastId = -1;
+        T lastValue = this.defaultValue;
+
+        for (int i = 0; i < length; ++i)
+        {
+            final int id = ids[i];
+
+            if (id != lastId)
+            {
+                T value = this.palette.getValue(id);
+                lastValue = value != null ? value : this.defaultValue;
+                lastId = id;
+            }
+
+            out[i] = lastValue;
+        }
+    }
+
+    /**
+     * Writes the values from the given array, starting from position 0 in the input array,
+     * to the range [startIndex, startIndex + length) in this container.
+     */
+    public void setRange(int startIndex, int length, T[] values)
+    {
+        PackedIntArray.checkRange(startIndex, length, this.size);
+
+        T lastValue = null;
+        int lastId = -1;
+
+        for (int i = 0; i < length; ++i)
+        {
+            T value = values[i];
+
+            // Note: The ID lookup may cause a resize, which replaces the storage.
+            // The existing IDs are kept as-is on resize, so the cached ID stays valid.
+            if (value != lastValue || lastId == -1)
+            {
+                lastId = this.palette.idFor(value);
+                lastValue = value;
+            }
+
+            this.storage.setAt(startIndex + i, lastId);
+        }
+    }
+
+    /**
+     * Sets all the entries in the range [startIndex, startIndex + length) to the given value
+     */
+    public void fill(int startIndex, int length, T value)
+    {
+        int id = this.palette.idFor(value);
+        this.storage.fill(startIndex, length, id);
+    }
+
+    /**
+     * Counts the number of entries of each palette ID
+     * @return an array where the index is the palette ID, and the value is the number of entries with that ID
+     */
+    public long[] getPaletteIdCounts()
+    {
+        long[] counts = new long[this.palette.getSize()];
+        final int size = this.size;
+
+        for (int i = 0; i < size; ++i)
+        {
+            int id = this.storage.getAt(i);
+
+            if (id < counts.length)
+            {
+                ++counts[id];
+            }
+        }
+
+        return counts;
+    }
+
+    /**
+     * Replaces the palette and the backing storage from already existing data.
+     * This is meant for reading the container from a file.
+     * @return true if the data was valid and was applied successfully
+     */
+    public boolean setStorageAndMapping(List<T> mapping, long[] longArray)
+    {
+        if (mapping.isEmpty())
+        {
+            return false;
+        }
+
+        int bits = Math.max(MIN_BITS, Integer.SIZE - Integer.numberOfLeadingZeros(mapping.size() - 1));
+
+        if (longArray.length != PackedIntArray.getLongArraySize(bits, this.size))
+        {
+            return false;
+        }
+
+        Palette<T> palette = bits <= MAX_BITS_LINEAR ? new LinearPalette<>(bits, this) : new HashMapPalette<>(bits, this);
+
+        if (palette.setMapping(mapping) == false)
+        {
+            return false;
+        }
+
+        this.bits = bits;
+        this.palette = palette;
+        this.storage = new PackedIntArray(bits, this.size, longArray);
+
+        return true;
+    }
+
+    public PalettedContainer<T> copy()
+    {
+        PalettedContainer<T> copy = new PalettedContainer<>(this.size, this.bits, this.defaultValue);
+
+        copy.palette = this.palette.copy(copy);
+        copy.storage = this.storage.copy();
+
+        return copy;
+    }
+
+    /**
+     * Creates a new container, with the values returned by the given function for each index
+     */
+    public static <T> PalettedContainer<T> of(int size, T defaultValue, IntFunction<T> valueFunction)
+    {
+        PalettedContainer<T> container = new PalettedContainer<>(size, defaultValue);
+
+        for (int i = 0; i < size; ++i)
+        {
+            container.set(i, valueFunction.apply(i));
+        }
+
+        return container;
+    }
+}
@@ -20,13 +20,29 @@ public abstract class RowFormatterBase
     {
         ArrayList<String> linesOut = new ArrayList<>();
 
+        this.addLeadingLines(linesOut);
+        this.addDataRows(this.dump.lines, linesOut);
+        this.addTrailingLines(linesOut);
+
+        return linesOut;
+    }
+
+    /**
+     * Adds all the lines that come before the data rows, ie. the headers and the top title
+     */
+    public void addLeadingLines(List<String> linesOut)
+    {
         this.addHeaders(this.dump.headers, linesOut);
         this.addTopTitle(this.dump.title, linesOut);
-        this.addDataRows(this.dump.lines, linesOut);
+    }
+
+    /**
+     * Adds all the lines that come after the data rows, ie. the bottom title and the footers
+     */
+    public void addTrailingLines(List<String> linesOut)
+    {
         this.addBottomTitle(this.dump.title, linesOut);
         this.addFooters(this.dump.footers, linesOut);
-
-        return linesOut;
     }
 
     public void addHeaders(List<String> headers, List<String> linesOut)
@@ -0,0 +1,439 @@
+package fi.dy.masa.malilib.util.datadump;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import javax.annotation.Nullable;
+import org.apache.commons.io.IOUtils;
+import fi.dy.masa.malilib.MaLiLib;
+import fi.dy.masa.malilib.util.datadump.DataDump.Format;
+
+/**
+ * Writes the data rows of a data dump to the output file while they are being added,
+ * instead of keeping all of them in memory until the end.
+ * <br><br>
+ * The table layout (title, headers, footers, column properties and sorting) is configured
+ * via a regular {@link DataDump} (see {@link #getLayout()}), which is then also used for formatting the rows.
+ * The data rows are only added to this streaming dump, and not to the layout DataDump.
+ * <br><br>
+ * Without sorting, the CSV, simple and compact formats are written directly to the output file.
+ * In that case the title and the headers must be added before the first data row.<br>
+ * The ASCII table format needs the final column widths before anything can be written,
+ * so the rows are first spilled to a temporary file while only the column widths are tracked,
+ * and then the rows get formatted in a second pass in {@link #finish()}.<br>
+ * When sorting, the rows are sorted in chunks of at most {@link #setMaxRowsInMemory(int)} rows,
+ * which are spilled to temporary files, and the sorted chunks are then merged while writing the output.
+ * <br><br>
+ * {@link #finish()} must be called after all the data has been added.
+ */
+public class StreamingDataDump
+{
+    public static final int DEFAULT_MAX_ROWS_IN_MEMORY = 65536;
+
+    protected final DataDump layout;
+    protected final File outputFile;
+    protected final List<File> spillFiles = new ArrayList<>();
+    protected final List<Row> pendingRows = new ArrayList<>();
+    protected int maxRowsInMemory = DEFAULT_MAX_ROWS_IN_MEMORY;
+    protected long rowCount;
+    protected boolean failed;
+    protected boolean finished;
+    @Nullable protected BufferedWriter writer;
+    @Nullable protected RowFormatterBase formatter;
+    @Nullable protected DataOutputStream spillOutput;
+
+    public StreamingDataDump(int columns, Format format, File outputFile)
+    {
+        this(new DataDump(columns, format), outputFile);
+    }
+
+    /**
+     * @param layout the DataDump that defines the table layout and is used for the formatting.
+     *               Any data rows already added to it are not included in the output.
+     */
+    public StreamingDataDump(DataDump layout, File outputFile)
+    {
+        this.layout = layout;
+        this.outputFile = outputFile;
+    }
+
+    /**
+     * @return the DataDump that holds the title, headers, footers, column properties
+     *         and the sort settings of this dump. Those must be set before adding any data rows.
+     */
+    public DataDump getLayout()
+    {
+        return this.layout;
+    }
+
+    public File getOutputFile()
+    {
+        return this.outputFile;
+    }
+
+    public long getRowCount()
+    {
+        return this.rowCount;
+    }
+
+    /**
+     * Sets the maximum number of rows to sort in memory at once, before
+     * spilling them to a temporary file. Only used when sorting is enabled.
+     */
+    public StreamingDataDump setMaxRowsInMemory(int maxRowsInMemory)
+    {
+        this.maxRowsInMemory = Math.max(maxRowsInMemory, 1);
+        return this;
+    }
+
+    public void addData(String... data)
+    {
+        if (this.finished || this.failed || this.layout.updateMaxColumnLengths(data) == false)
+        {
+            return;
+        }
+
+        Row row = new Row(data, this.layout.sortColumn);
+        ++this.rowCount;
+
+        try
+        {
+            if (this.layout.sort)
+            {
+                this.pendingRows.add(row);
+
+                if (this.pendingRows.size() >= this.maxRowsInMemory)
+                {
+                    this.spillSortedChunk();
+                }
+            }
+            else if (this.layout.format == Format.ASCII)
+            {
+                if (this.spillOutput == null)
+                {
+                    this.spillOutput = this.createSpillFile();
+                }
+
+                writeRow(row, this.spillOutput);
+            }
+            else
+            {
+                this.writeFormattedRow(row);
+            }
+        }
+        catch (IOException e)
+        {
+            this.onWriteError(e);
+        }
+    }
+
+    /**
+     * Writes out any remaining rows and the footers, and closes the output file
+     * @return the output file, or null if writing the data failed
+     */
+    @Nullable
+    public File finish()
+    {
+        if (this.finished)
+        {
+            return this.failed ? null : this.outputFile;
+        }
+
+        this.finished = true;
+
+        try
+        {
+            if (this.failed == false)
+            {
+                if (this.layout.sort)
+                {
+                    this.writeSortedRows();
+                }
+                else if (this.spillOutput != null)
+                {
+                    this.spillOutput.close();
+                    this.spillOutput = null;
+                    this.writeRowsFromSpillFile(this.spillFiles.get(0));
+                }
+
+                List<String> trailingLines = new ArrayList<>();
+                this.getFormatterAndWriter().addTrailingLines(trailingLines);
+                this.writeLines(trailingLines);
+            }
+        }
+        catch (IOException e)
+        {
+            this.onWriteError(e);
+        }
+        finally
+        {
+            this.closeAndCleanup();
+        }
+
+        return this.failed ? null : this.outputFile;
+    }
+
+    protected void writeSortedRows() throws IOException
+    {
+        Comparator<Row> comparator = this.getRowComparator();
+
+        // Everything fit in memory, no need to merge anything
+        if (this.spillFiles.isEmpty())
+        {
+            this.pendingRows.sort(comparator);
+
+            for (Row row : this.pendingRows)
+            {
+                this.writeFormattedRow(row);
+            }
+
+            this.pendingRows.clear();
+            return;
+        }
+
+        if (this.pendingRows.isEmpty() == false)
+        {
+            this.spillSortedChunk();
+        }
+
+        List<SpillFileReader> readers = new ArrayList<>();
+        PriorityQueue<SpillFileReader> queue = new PriorityQueue<>(Math.max(this.spillFiles.size(), 1),
+                                                                   (r1, r2) -> comparator.compare(r1.current, r2.current));
+
+        try
+        {
+            for (File file : this.spillFiles)
+            {
+                SpillFileReader reader = new SpillFileReader(file, this.layout.sortColumn);
+                readers.add(reader);
+
+                if (reader.advance())
+                {
+                    queue.add(reader);
+                }
+            }
+
+            SpillFileReader reader;
+
+            while ((reader = queue.poll()) != null)
+            {
+                this.writeFormattedRow(reader.current);
+
+                if (reader.advance())
+                {
+                    queue.add(reader);
+                }
+            }
+        }
+        finally
+        {
+            for (SpillFileReader r : readers)
+            {
+                IOUtils.closeQuietly(r.input);
+            }
+        }
+    }
+
+    protected void writeRowsFromSpillFile(File file) throws IOException
+    {
+        SpillFileReader reader = new SpillFileReader(file, this.layout.sortColumn);
+
+        try
+        {
+            while (reader.advance())
+            {
+                this.writeFormattedRow(reader.current);
+            }
+        }
+        finally
+        {
+            IOUtils.closeQuietly(reader.input);
+        }
+    }
+
+    protected void spillSortedChunk() throws IOException
+    {
+        this.pendingRows.sort(this.getRowComparator());
+
+        try (DataOutputStream out = this.createSpillFile())
+        {
+            for (Row row : this.pendingRows)
+            {
+                writeRow(row, out);
+            }
+        }
+
+        this.pendingRows.clear();
+    }
+
+    protected Comparator<Row> getRowComparator()
+    {
+        return this.layout.sortReverse ? Comparator.reverseOrder() : Comparator.naturalOrder();
+    }
+
+    protected DataOutputStream createSpillFile() throws IOException
+    {
+        File dir = this.outputFile.getAbsoluteFile().getParentFile();
+        File file = File.createTempFile("datadump_", ".tmp", dir);
+        this.spillFiles.add(file);
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 65536));
+    }
+
+    protected void writeFormattedRow(Row row) throws IOException
+    {
+        BufferedWriter writer = this.getWriter();
+        writer.write(this.getFormatterAndWriter().getFormattedData(row));
+        writer.newLine();
+    }
+
+    protected void writeLines(List<String> lines) throws IOException
+    {
+        BufferedWriter writer = this.getWriter();
+
+        for (String line : lines)
+        {
+            writer.write(line);
+            writer.newLine();
+        }
+    }
+
+    protected BufferedWriter getWriter() throws IOException
+    {
+        this.getFormatterAndWriter();
+        return this.writer;
+    }
+
+    /**
+     * Opens the output file and writes the leading lines on the first call.
+     * Note: The formatter must not be created before the final column widths are known.
+     */
+    protected RowFormatterBase getFormatterAndWriter() throws IOException
+    {
+        if (this.formatter == null)
+        {
+            this.formatter = this.layout.format.getRowFormatter(this.layout);
+            this.writer = Files.newBufferedWriter(this.outputFile.toPath(), StandardCharsets.UTF_8);
+
+            List<String> leadingLines = new ArrayList<>();
+            this.formatter.addLeadingLines(leadingLines);
+            this.writeLines(leadingLines);
+        }
+
+        return this.formatter;
+    }
+
+    protected void onWriteError(IOException e)
+    {
+        MaLiLib.LOGGER.error("StreamingDataDump: Exception while writing the data dump file '{}'", this.outputFile.getName(), e);
+        this.failed = true;
+        this.pendingRows.clear();
+        this.closeAndCleanup();
+    }
+
+    protected void closeAndCleanup()
+    {
+        IOUtils.closeQuietly(this.spillOutput);
+        IOUtils.closeQuietly(this.writer);
+        this.spillOutput = null;
+        this.writer = null;
+
+        for (File file : this.spillFiles)
+        {
+            if (file.exists() && file.delete() == false)
+            {
+                MaLiLib.LOGGER.warn("StreamingDataDump: Failed to delete the temporary file '{}'", file.getAbsolutePath());
+            }
+        }
+
+        this.spillFiles.clear();
+    }
+
+    protected static void writeRow(Row row, DataOutputStream out) throws IOException
+    {
+        String[] values = row.getValues();
+        out.writeInt(values.length);
+
+        for (String value : values)
+        {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Creates a new streaming data dump, with a time stamped output file in the given directory
+     * @return the data dump, or null if the output directory could not be created or no free file name was found
+     */
+    @Nullable
+    public static StreamingDataDump create(int columns, Format format, File outputDir, String fileNameBase)
+    {
+        if (outputDir.exists() == false && outputDir.mkdirs() == false)
+        {
+            MaLiLib.LOGGER.error("StreamingDataDump: Failed to create the dump output directory '{}'", outputDir);
+            return null;
+        }
+
+        String extension = format == Format.CSV ? ".csv" : ".txt";
+        File outFile = DataDump.getAvailableTimestampedFileName(outputDir, fileNameBase, extension);
+
+        return outFile != null ? new StreamingDataDump(columns, format, outFile) : null;
+    }
+
+    protected static class SpillFileReader
+    {
+        protected final DataInputStream input;
+        protected final int sortColumn;
+        protected Row current;
+
+        protected SpillFileReader(File file, int sortColumn) throws IOException
+        {
+            this.input = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 65536));
+            this.sortColumn = sortColumn;
+        }
+
+        /**
+         * Reads the next row
+         * @return false if the end of the file was reached
+         */
+        protected boolean advance() throws IOException
+        {
+            int count;
+
+            try
+            {
+                count = this.input.readInt();
+            }
+            catch (EOFException e)
+            {
+                return false;
+            }
+
+            String[] values = new String[count];
+
+            for (int i = 0; i < count; ++i)
+            {
+                byte[] bytes = new byte[this.input.readInt()];
+                this.input.readFully(bytes);
+                values[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            this.current = new Row(values, this.sortColumn);
+
+            return true;
+        }
+    }
+}
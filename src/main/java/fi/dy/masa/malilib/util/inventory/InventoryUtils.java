@@ -18,6 +18,7 @@ import net.minecraft.util.EnumHand;
 import net.minecraft.util.NonNullList;
 import fi.dy.masa.malilib.util.GameUtils;
 import fi.dy.masa.malilib.util.data.Constants;
+import fi.dy.masa.malilib.util.data.IntObjConsumer;
 import fi.dy.masa.malilib.util.data.IntRange;
 import fi.dy.masa.malilib.util.data.ItemType;
 
@@ -346,18 +347,30 @@ public class InventoryUtils
         return NonNullList.create();
     }
 
+    /**
+     * Returns a view of the items currently stored in the given Shulker Box
+     * (or other storage item with the same NBT data structure), with each item in its original slot.
+     * The decoded items are cached, see {@link StoredItemsCache}.
+     * <b>Note:</b> The returned view is always read-only (also for items without any stored items),
+     * and it's shared, so the ItemStacks in it must not be modified either!
+     */
     public static InventoryView getExactStoredItemsView(ItemStack stackIn)
     {
-        ListBackedInventoryView inv = new ListBackedInventoryView();
-        readStoredItems(stackIn, (pair) -> inv.setStackInSlot(pair.getKey(), pair.getValue()));
-        return inv;
+        StoredItemsCache.StoredItems items = StoredItemsCache.INSTANCE.getStoredItems(stackIn);
+        return items != null ? items.getExactView() : StoredItemsCache.EMPTY_VIEW;
     }
 
+    /**
+     * Returns a view of the items currently stored in the given Shulker Box
+     * (or other storage item with the same NBT data structure), without any empty slots in between.
+     * The decoded items are cached, see {@link StoredItemsCache}.
+     * <b>Note:</b> The returned view is always read-only (also for items without any stored items),
+     * and it's shared, so the ItemStacks in it must not be modified either!
+     */
     public static InventoryView getNonEmptyStoredItemsView(ItemStack stackIn)
     {
-        ListBackedInventoryView inv = new ListBackedInventoryView();
-        readStoredItems(stackIn, (pair) -> inv.addStack(pair.getValue()));
-        return inv;
+        StoredItemsCache.StoredItems items = StoredItemsCache.INSTANCE.getStoredItems(stackIn);
+        return items != null ? items.getNonEmptyView() : StoredItemsCache.EMPTY_VIEW;
     }
 
     /* TODO
@@ -368,27 +381,31 @@ public class InventoryUtils
 
     public static void readStoredItems(ItemStack containerStack, Consumer<Pair<Integer, ItemStack>> consumer)
     {
-        NBTTagCompound nbt = containerStack.getTagCompound();
+        readStoredItems(containerStack, (slot, stack) -> consumer.accept(Pair.of(slot, stack)));
+    }
 
-        if (nbt != null && nbt.hasKey("BlockEntityTag", Constants.NBT.TAG_COMPOUND))
+    /**
+     * Reads the items stored in the given Shulker Box (or other storage item with the same NBT data structure),
+     * and passes the non-empty items with a valid slot number to the given consumer, along with their slot number.
+     * This always decodes new ItemStacks, and it does not use the cache.
+     */
+    public static void readStoredItems(ItemStack containerStack, IntObjConsumer<ItemStack> consumer)
+    {
+        NBTTagList tagList = StoredItemsCache.getStoredItemsTagList(containerStack);
+
+        if (tagList != null)
         {
-            NBTTagCompound tagBlockEntity = nbt.getCompoundTag("BlockEntityTag");
+            final int count = tagList.tagCount();
 
-            if (tagBlockEntity.hasKey("Items", Constants.NBT.TAG_LIST))
+            for (int i = 0; i < count; ++i)
             {
-                NBTTagList tagList = tagBlockEntity.getTagList("Items", Constants.NBT.TAG_COMPOUND);
-                final int count = tagList.tagCount();
+                NBTTagCompound tag = tagList.getCompoundTagAt(i);
+                ItemStack stack = new ItemStack(tag);
+                int slot = tag.getByte("Slot");
 
-                for (int i = 0; i < count; ++i)
+                if (slot >= 0 && stack.isEmpty() == false)
                 {
-                    NBTTagCompound tag = tagList.getCompoundTagAt(i);
-                    ItemStack stack = new ItemStack(tag);
-                    int slot = tag.getByte("Slot");
-
-                    if (slot >= 0 && stack.isEmpty() == false)
-                    {
-                        consumer.accept(Pair.of(slot, stack));
-                    }
+                    consumer.accept(slot, stack);
                 }
             }
         }
@@ -409,18 +426,10 @@ public class InventoryUtils
      */
     public static Object2IntOpenHashMap<ItemType> getStoredItemCounts(ItemStack stackIn)
     {
-        Object2IntOpenHashMap<ItemType> map = new Object2IntOpenHashMap<>();
-        NonNullList<ItemStack> items = getStoredItemsNonEmpty(stackIn);
-
-        for (ItemStack stack : items)
-        {
-            if (stack.isEmpty() == false)
-            {
-                map.addTo(new ItemType(stack, false, true), stack.getCount());
-            }
-        }
+        StoredItemsCache.StoredItems items = StoredItemsCache.INSTANCE.getStoredItems(stackIn);
 
-        return map;
+        // The cached map is shared, so return a copy
+        return items != null ? new Object2IntOpenHashMap<>(items.getItemCounts()) : new Object2IntOpenHashMap<>();
     }
 
     /**
@@ -441,9 +450,11 @@ public class InventoryUtils
             {
                 map.addTo(new ItemType(stack, false, true), stack.getCount());
 
-                if (shulkerBoxHasItems(stack))
+                StoredItemsCache.StoredItems storedItems = StoredItemsCache.INSTANCE.getStoredItems(stack);
+
+                if (storedItems != null)
                 {
-                    Object2IntOpenHashMap<ItemType> boxCounts = getStoredItemCounts(stack);
+                    Object2IntOpenHashMap<ItemType> boxCounts = storedItems.getItemCounts();
 
                     for (ItemType type : boxCounts.keySet())
                     {
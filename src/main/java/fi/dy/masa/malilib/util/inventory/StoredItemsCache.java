@@ -0,0 +1,251 @@
+package fi.dy.masa.malilib.util.inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.collect.ImmutableList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import fi.dy.masa.malilib.util.data.Constants;
+import fi.dy.masa.malilib.util.data.IntObjConsumer;
+import fi.dy.masa.malilib.util.data.ItemType;
+
+/**
+ * A bounded cache of the decoded contents of Shulker Boxes (or other storage items with the same NBT data structure),
+ * so that for example the item tooltip preview doesn't need to decode the items from NBT on every frame.
+ * <br><br>
+ * The cache is keyed by the identity of the stored items NBT list, and the keys are weakly referenced,
+ * so the entries get removed once the item stack and its NBT data are no longer used.
+ * Any changes to the item stack contents normally happen by replacing the stack or its NBT data,
+ * which then results in a new cache entry. As a sanity check the number of stored item tags is also compared.
+ * <br><br>
+ * <b>Note:</b> The returned views and the ItemStacks in them are shared, and must not be modified!
+ */
+public class StoredItemsCache
+{
+    public static final StoredItemsCache INSTANCE = new StoredItemsCache(256);
+    /** A shared read-only view for containers without any stored items */
+    public static final InventoryView EMPTY_VIEW = new ListBackedInventoryView(ImmutableList.of());
+
+    protected final Cache<NBTTagList, StoredItems> cache;
+    protected long hits;
+    protected long misses;
+    protected long sizeEvictions;
+    protected long collectedEvictions;
+
+    public StoredItemsCache(int maxSize)
+    {
+        this.cache = CacheBuilder.newBuilder()
+                                 .weakKeys()
+                                 .maximumSize(maxSize)
+                                 .removalListener((n) -> this.onRemoval(n.getCause()))
+                                 .build();
+    }
+
+    /**
+     * @return the decoded stored items of the given container item, or null if it doesn't have any stored items data
+     */
+    @Nullable
+    public StoredItems getStoredItems(ItemStack containerStack)
+    {
+        NBTTagList tagList = getStoredItemsTagList(containerStack);
+
+        if (tagList == null)
+        {
+            return null;
+        }
+
+        StoredItems items = this.cache.getIfPresent(tagList);
+
+        if (items != null && items.tagCount == tagList.tagCount())
+        {
+            ++this.hits;
+            return items;
+        }
+
+        ++this.misses;
+        items = new StoredItems(tagList);
+        this.cache.put(tagList, items);
+
+        return items;
+    }
+
+    @Nullable
+    public static NBTTagList getStoredItemsTagList(ItemStack containerStack)
+    {
+        NBTTagCompound nbt = containerStack.getTagCompound();
+
+        if (nbt != null && nbt.hasKey("BlockEntityTag", Constants.NBT.TAG_COMPOUND))
+        {
+            NBTTagCompound tagBlockEntity = nbt.getCompoundTag("BlockEntityTag");
+
+            if (tagBlockEntity.hasKey("Items", Constants.NBT.TAG_LIST))
+            {
+                return tagBlockEntity.getTagList("Items", Constants.NBT.TAG_COMPOUND);
+            }
+        }
+
+        return null;
+    }
+
+    protected void onRemoval(RemovalCause cause)
+    {
+        if (cause == RemovalCause.SIZE)
+        {
+            ++this.sizeEvictions;
+        }
+        else if (cause == RemovalCause.COLLECTED)
+        {
+            ++this.collectedEvictions;
+        }
+    }
+
+    public void clear()
+    {
+        this.cache.invalidateAll();
+    }
+
+    public long getSize()
+    {
+        return this.cache.size();
+    }
+
+    public long getHits()
+    {
+        return this.hits;
+    }
+
+    public long getMisses()
+    {
+        return this.misses;
+    }
+
+    /**
+     * @return the number of entries that were evicted because the cache was full
+     */
+    public long getSizeEvictions()
+    {
+        return this.sizeEvictions;
+    }
+
+    /**
+     * @return the number of entries that were removed because their item stack was garbage collected
+     */
+    public long getCollectedEvictions()
+    {
+        return this.collectedEvictions;
+    }
+
+    public void resetStatistics()
+    {
+        this.hits = 0;
+        this.misses = 0;
+        this.sizeEvictions = 0;
+        this.collectedEvictions = 0;
+    }
+
+    /**
+     * The decoded contents of one container item. The different views of the contents are created lazily.
+     */
+    public static class StoredItems
+    {
+        protected final int tagCount;
+        protected final ItemStack[] stacks;
+        protected final int[] slots;
+        @Nullable protected InventoryView exactView;
+        @Nullable protected InventoryView nonEmptyView;
+        @Nullable protected Object2IntOpenHashMap<ItemType> itemCounts;
+
+        protected StoredItems(NBTTagList tagList)
+        {
+            final int count = tagList.tagCount();
+            List<ItemStack> stacks = new ArrayList<>(count);
+            int[] slots = new int[count];
+
+            for (int i = 0; i < count; ++i)
+            {
+                NBTTagCompound tag = tagList.getCompoundTagAt(i);
+                ItemStack stack = new ItemStack(tag);
+
+                if (stack.isEmpty() == false)
+                {
+                    slots[stacks.size()] = tag.getByte("Slot");
+                    stacks.add(stack);
+                }
+            }
+
+            this.tagCount = count;
+            this.stacks = stacks.toArray(new ItemStack[0]);
+            this.slots = slots;
+        }
+
+        /**
+         * @return a read-only view of the stored items where each item is in its original slot
+         */
+        public InventoryView getExactView()
+        {
+            if (this.exactView == null)
+            {
+                ListBackedInventoryView inv = new ListBackedInventoryView();
+                this.readItems((slot, stack) -> inv.setStackInSlot(slot, stack));
+                this.exactView = new ListBackedInventoryView(ImmutableList.copyOf(inv.items));
+            }
+
+            return this.exactView;
+        }
+
+        /**
+         * @return a read-only view of the stored items without any empty slots in between
+         */
+        public InventoryView getNonEmptyView()
+        {
+            if (this.nonEmptyView == null)
+            {
+                ImmutableList.Builder<ItemStack> builder = ImmutableList.builder();
+                this.readItems((slot, stack) -> builder.add(stack));
+                this.nonEmptyView = new ListBackedInventoryView(builder.build());
+            }
+
+            return this.nonEmptyView;
+        }
+
+        /**
+         * @return the counts of all the stored items. This includes items with an invalid slot number.
+         */
+        public Object2IntOpenHashMap<ItemType> getItemCounts()
+        {
+            if (this.itemCounts == null)
+            {
+                Object2IntOpenHashMap<ItemType> map = new Object2IntOpenHashMap<>();
+
+                for (ItemStack stack : this.stacks)
+                {
+                    map.addTo(new ItemType(stack, false, true), stack.getCount());
+                }
+
+                this.itemCounts = map;
+            }
+
+            return this.itemCounts;
+        }
+
+        /**
+         * Passes all the stored items with a valid slot number to the consumer
+         */
+        public void readItems(IntObjConsumer<ItemStack> consumer)
+        {
+            for (int i = 0; i < this.stacks.length; ++i)
+            {
+                if (this.slots[i] >= 0)
+                {
+                    consumer.accept(this.slots[i], this.stacks[i]);
+                }
+            }
+        }
+    }
+}
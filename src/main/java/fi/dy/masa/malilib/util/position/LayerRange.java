@@ -22,6 +22,7 @@ public class LayerRange
     public static final int WORLD_VERTICAL_SIZE_MIN = 0;
 
     protected final LayerRangeChangeListener listener;
+    protected final LayerRangeDirtyRegion dirtyRegion = new LayerRangeDirtyRegion();
     protected LayerMode layerMode = LayerMode.ALL;
     protected EnumFacing.Axis axis = EnumFacing.Axis.Y;
     protected int layerSingle = 0;
@@ -33,12 +34,52 @@ public class LayerRange
     protected boolean hotkeyRangeMin;
     protected boolean hotkeyRangeMax;
     protected boolean followPlayer;
+    protected boolean deferRenderUpdates;
+    protected EnumFacing.Axis flushedAxis = EnumFacing.Axis.Y;
+    protected int flushedMinBoundary = Integer.MIN_VALUE;
+    protected int flushedMaxBoundary = Integer.MAX_VALUE;
 
     public LayerRange(LayerRangeChangeListener listener)
     {
         this.listener = listener;
     }
 
+    public boolean getDeferRenderUpdates()
+    {
+        return this.deferRenderUpdates;
+    }
+
+    /**
+     * Sets whether the render updates caused by the range changes should be deferred and coalesced.
+     * When enabled, the changes are not sent to the listener immediately. Instead the owner of this
+     * range must call {@link #flushRenderUpdates(IntBoundingBox)} once per tick, which then sends
+     * only the sub-chunks that are within the difference between the visible range at the previous flush
+     * and the current visible range, via {@link LayerRangeChangeListener#updateSubChunks(EnumFacing.Axis, java.util.List)}.
+     */
+    public void setDeferRenderUpdates(boolean defer)
+    {
+        if (defer && this.deferRenderUpdates == false)
+        {
+            this.storeFlushedState();
+        }
+        else if (defer == false && this.deferRenderUpdates)
+        {
+            // Any pending changes that haven't been flushed yet would otherwise get lost
+            this.dirtyRegion.clear();
+            this.listener.updateAll();
+        }
+
+        this.deferRenderUpdates = defer;
+    }
+
+    /**
+     * @return the accumulator of the deferred render updates, which also has the invalidation counters
+     */
+    public LayerRangeDirtyRegion getDirtyRegion()
+    {
+        return this.dirtyRegion;
+    }
+
     public LayerMode getLayerMode()
     {
         return this.layerMode;
@@ -168,7 +209,7 @@ public class LayerRange
     {
         this.layerMode = mode;
 
-        this.listener.updateAll();
+        this.updateAll();
 
         if (printMessage)
         {
@@ -180,7 +221,7 @@ public class LayerRange
     {
         this.axis = axis;
 
-        this.listener.updateAll();
+        this.updateAll();
         this.sendMessage("malilib.message.info.set_layer_axis_to", axis.getName());
     }
 
@@ -345,7 +386,7 @@ public class LayerRange
         switch (this.layerMode)
         {
             case ALL:
-                this.listener.updateAll();
+                this.updateAll();
                 return;
             case SINGLE_LAYER:
             {
@@ -375,7 +416,105 @@ public class LayerRange
                 return;
         }
 
-        this.updateLayersBetween(val1, val2);
+        if (this.deferRenderUpdates)
+        {
+            this.dirtyRegion.addImmediateUpdate(val1, val2);
+            this.dirtyRegion.addDirtyLayers(val1, val2);
+        }
+        else
+        {
+            this.updateLayersBetween(val1, val2);
+        }
+    }
+
+    /**
+     * Sends the deferred and coalesced render updates to the listener.
+     * This should be called once per tick when the deferred updates are enabled.
+     * @param limits the area of the sub-chunks that can be updated, in block coordinates,
+     *               for example the area of the currently loaded chunks
+     */
+    public void flushRenderUpdates(IntBoundingBox limits)
+    {
+        if (this.deferRenderUpdates == false)
+        {
+            return;
+        }
+
+        if (this.flushedAxis == this.axis)
+        {
+            int limitMin = limits.getMinValueForAxis(this.axis);
+            int limitMax = limits.getMaxValueForAxis(this.axis);
+
+            this.addRangeDifference(Math.max(this.flushedMinBoundary, limitMin),
+                                    Math.min(this.flushedMaxBoundary, limitMax),
+                                    Math.max(this.getMinLayerBoundary(), limitMin),
+                                    Math.min(this.getMaxLayerBoundary(), limitMax));
+        }
+        else
+        {
+            this.dirtyRegion.markAllDirty();
+        }
+
+        this.storeFlushedState();
+        this.dirtyRegion.flush(this.listener, this.axis, limits);
+    }
+
+    /**
+     * Marks the layers that have changed their visibility or their
+     * render edge status between the old and the new visible range as dirty.
+     * An empty range has its min value greater than its max value.
+     */
+    protected void addRangeDifference(int oldMin, int oldMax, int newMin, int newMax)
+    {
+        boolean oldEmpty = oldMin > oldMax;
+        boolean newEmpty = newMin > newMax;
+
+        if (oldEmpty || newEmpty || oldMax < newMin || newMax < oldMin)
+        {
+            if (oldEmpty == false)
+            {
+                this.dirtyRegion.addDirtyLayers(oldMin, oldMax);
+            }
+
+            if (newEmpty == false)
+            {
+                this.dirtyRegion.addDirtyLayers(newMin, newMax);
+            }
+
+            return;
+        }
+
+        // The overlapping ranges only need the layers between the moved boundaries to be updated,
+        // including both the old and the new boundary layer, as the range edge is rendered differently
+        if (oldMin != newMin)
+        {
+            this.dirtyRegion.addDirtyLayers(oldMin, newMin);
+        }
+
+        if (oldMax != newMax)
+        {
+            this.dirtyRegion.addDirtyLayers(oldMax, newMax);
+        }
+    }
+
+    protected void storeFlushedState()
+    {
+        this.flushedAxis = this.axis;
+        this.flushedMinBoundary = this.getMinLayerBoundary();
+        this.flushedMaxBoundary = this.getMaxLayerBoundary();
+    }
+
+    protected void updateAll()
+    {
+        if (this.deferRenderUpdates)
+        {
+            this.dirtyRegion.addImmediateUpdateAll();
+            this.dirtyRegion.markAllDirty();
+        }
+        else
+        {
+            this.listener.updateAll();
+        }
     }
 
     protected void updateLayersBetween(int layer1, int layer2)
@@ -383,6 +522,13 @@ public class LayerRange
         int layerMin = Math.min(layer1, layer2);
         int layerMax = Math.max(layer1, layer2);
 
+        if (this.deferRenderUpdates)
+        {
+            // The actual dirty layers are calculated from the range difference when flushing
+            this.dirtyRegion.addImmediateUpdate(layerMin, layerMax);
+            return;
+        }
+
         switch (this.axis)
         {
             case X:
@@ -0,0 +1,233 @@
+package fi.dy.masa.malilib.util.position;
+
+import java.util.ArrayList;
+import java.util.List;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.util.EnumFacing;
+import fi.dy.masa.malilib.listener.LayerRangeChangeListener;
+
+/**
+ * Accumulates the render invalidations caused by {@link LayerRange} changes,
+ * so that they can be emitted once per tick as one minimal set of sub-chunk updates.
+ * <br><br>
+ * The dirty layers are stored as a sorted list of merged, inclusive sub-chunk layer ranges
+ * along the layer axis. Additionally the ranges that the non-deferred (immediate) updates would have
+ * covered are tracked, so that the counters can show the number of invalidated sub-chunks
+ * compared to the immediate update behavior.
+ */
+public class LayerRangeDirtyRegion
+{
+    /** The merged dirty sub-chunk layer ranges, as min, max pairs */
+    protected final IntArrayList dirtyLayerRanges = new IntArrayList();
+    /** The block layer ranges of the immediate updates since the last flush, as min, max pairs */
+    protected final IntArrayList immediateLayerRanges = new IntArrayList();
+    protected boolean allDirty;
+    protected int immediateUpdateAllCount;
+
+    protected long flushCount;
+    protected long invalidatedSubChunks;
+    protected long immediateInvalidatedSubChunks;
+
+    public boolean isEmpty()
+    {
+        return this.allDirty == false && this.dirtyLayerRanges.isEmpty();
+    }
+
+    public void markAllDirty()
+    {
+        this.allDirty = true;
+    }
+
+    /**
+     * Marks the sub-chunk layers containing the given (inclusive) block layer range as dirty
+     */
+    public void addDirtyLayers(int layer1, int layer2)
+    {
+        int min = Math.min(layer1, layer2) >> 4;
+        int max = Math.max(layer1, layer2) >> 4;
+        IntArrayList list = this.dirtyLayerRanges;
+        int size = list.size();
+        int index = 0;
+
+        // Skip all the ranges that end before the new range, and are not adjacent to it
+        while (index < size && list.getInt(index + 1) < min - 1)
+        {
+            index += 2;
+        }
+
+        // Merge all the overlapping or adjacent ranges into the new range
+        int end = index;
+
+        while (end < size && list.getInt(end) <= max + 1)
+        {
+            min = Math.min(min, list.getInt(end));
+            max = Math.max(max, list.getInt(end + 1));
+            end += 2;
+        }
+
+        list.removeElements(index, end);
+        list.add(index, max);
+        list.add(index, min);
+    }
+
+    /**
+     * Records an update that the immediate update behavior would have done,
+     * for the invalidation counters
+     */
+    public void addImmediateUpdate(int layer1, int layer2)
+    {
+        this.immediateLayerRanges.add(Math.min(layer1, layer2));
+        this.immediateLayerRanges.add(Math.max(layer1, layer2));
+    }
+
+    /**
+     * Records an update of everything that the immediate update behavior would have done,
+     * for the invalidation counters
+     */
+    public void addImmediateUpdateAll()
+    {
+        ++this.immediateUpdateAllCount;
+    }
+
+    /**
+     * Emits the accumulated updates to the listener, and clears the pending updates.
+     * @param listener the listener to send the updates to
+     * @param axis the layer axis
+     * @param limits the area of the sub-chunks that can be updated, in block coordinates
+     */
+    public void flush(LayerRangeChangeListener listener, EnumFacing.Axis axis, IntBoundingBox limits)
+    {
+        int minX = limits.minX >> 4;
+        int minY = limits.minY >> 4;
+        int minZ = limits.minZ >> 4;
+        int maxX = limits.maxX >> 4;
+        int maxY = limits.maxY >> 4;
+        int maxZ = limits.maxZ >> 4;
+        long totalSubChunks = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+        long layerSize = totalSubChunks / (getValueForAxis(axis, maxX, maxY, maxZ) - getValueForAxis(axis, minX, minY, minZ) + 1);
+
+        this.immediateInvalidatedSubChunks += this.getImmediateSubChunkLayerCount(axis, limits) * layerSize +
+                                              this.immediateUpdateAllCount * totalSubChunks;
+
+        if (this.allDirty)
+        {
+            listener.updateAll();
+            this.invalidatedSubChunks += totalSubChunks;
+        }
+        else if (this.dirtyLayerRanges.isEmpty() == false)
+        {
+            List<SubChunkPos> positions = this.getDirtySubChunks(axis, minX, minY, minZ, maxX, maxY, maxZ);
+
+            if (positions.isEmpty() == false)
+            {
+                listener.updateSubChunks(axis, positions);
+                this.invalidatedSubChunks += positions.size();
+            }
+        }
+
+        ++this.flushCount;
+        this.clear();
+    }
+
+    protected List<SubChunkPos> getDirtySubChunks(EnumFacing.Axis axis,
+                                                  int minX, int minY, int minZ,
+                                                  int maxX, int maxY, int maxZ)
+    {
+        List<SubChunkPos> positions = new ArrayList<>();
+        int axisMin = getValueForAxis(axis, minX, minY, minZ);
+        int axisMax = getValueForAxis(axis, maxX, maxY, maxZ);
+        final int size = this.dirtyLayerRanges.size();
+
+        for (int i = 0; i < size; i += 2)
+        {
+            int layerMin = Math.max(this.dirtyLayerRanges.getInt(i), axisMin);
+            int layerMax = Math.min(this.dirtyLayerRanges.getInt(i + 1), axisMax);
+
+            for (int layer = layerMin; layer <= layerMax; ++layer)
+            {
+                int x1 = axis == EnumFacing.Axis.X ? layer : minX;
+                int x2 = axis == EnumFacing.Axis.X ? layer : maxX;
+                int y1 = axis == EnumFacing.Axis.Y ? layer : minY;
+                int y2 = axis == EnumFacing.Axis.Y ? layer : maxY;
+                int z1 = axis == EnumFacing.Axis.Z ? layer : minZ;
+                int z2 = axis == EnumFacing.Axis.Z ? layer : maxZ;
+
+                for (int y = y1; y <= y2; ++y)
+                {
+                    for (int z = z1; z <= z2; ++z)
+                    {
+                        for (int x = x1; x <= x2; ++x)
+                        {
+                            positions.add(new SubChunkPos(x, y, z));
+                        }
+                    }
+                }
+            }
+        }
+
+        return positions;
+    }
+
+    /**
+     * @return the total number of sub-chunk layers (within the limits) that the
+     *         immediate updates since the last flush would have invalidated
+     */
+    protected long getImmediateSubChunkLayerCount(EnumFacing.Axis axis, IntBoundingBox limits)
+    {
+        int axisMin = limits.getMinValueForAxis(axis) >> 4;
+        int axisMax = limits.getMaxValueForAxis(axis) >> 4;
+        final int size = this.immediateLayerRanges.size();
+        long count = 0;
+
+        for (int i = 0; i < size; i += 2)
+        {
+            int layerMin = Math.max(this.immediateLayerRanges.getInt(i) >> 4, axisMin);
+            int layerMax = Math.min(this.immediateLayerRanges.getInt(i + 1) >> 4, axisMax);
+            count += Math.max(layerMax - layerMin + 1, 0);
+        }
+
+        return count;
+    }
+
+    public void clear()
+    {
+        this.dirtyLayerRanges.clear();
+        this.immediateLayerRanges.clear();
+        this.allDirty = false;
+        this.immediateUpdateAllCount = 0;
+    }
+
+    public long getFlushCount()
+    {
+        return this.flushCount;
+    }
+
+    /**
+     * @return the total number of sub-chunks that have been invalidated by the flushed updates
+     */
+    public long getInvalidatedSubChunkCount()
+    {
+        return this.invalidatedSubChunks;
+    }
+
+    /**
+     * @return the total number of sub-chunks that the immediate, non-coalesced updates
+     *         would have invalidated over the same changes
+     */
+    public long getImmediateInvalidatedSubChunkCount()
+    {
+        return this.immediateInvalidatedSubChunks;
+    }
+
+    public void resetStatistics()
+    {
+        this.flushCount = 0;
+        this.invalidatedSubChunks = 0;
+        this.immediateInvalidatedSubChunks = 0;
+    }
+
+    protected static int getValueForAxis(EnumFacing.Axis axis, int x, int y, int z)
+    {
+        return axis == EnumFacing.Axis.X ? x : (axis == EnumFacing.Axis.Y ? y : z);
+    }
+}
@@ -0,0 +1,211 @@
+package fi.dy.masa.malilib.util.restriction;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import com.google.common.collect.ImmutableSet;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.item.Item;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.registry.RegistryNamespaced;
+import fi.dy.masa.malilib.config.value.BlackWhiteList;
+
+/**
+ * A {@link UsageRestriction} that checks the values via their numeric registry IDs from a BitSet,
+ * instead of a HashSet lookup. This is meant for restrictions that get queried very often,
+ * for example for every placed block.
+ * <br><br>
+ * The lists are compiled into an immutable {@link Snapshot} whenever the list type
+ * or the list contents are changed. The {@link #isAllowed(Object)} checks only read
+ * the current snapshot, so they are safe to call from any thread.
+ * Values that don't have a valid ID (meaning that the ID function returns a negative value)
+ * are checked from a regular set in the snapshot.
+ */
+public class IdBasedUsageRestriction<TYPE> extends UsageRestriction<TYPE>
+{
+    protected final ToIntFunction<TYPE> idFunction;
+    protected volatile Snapshot<TYPE> snapshot;
+
+    public IdBasedUsageRestriction(ToIntFunction<TYPE> idFunction)
+    {
+        this(idFunction, (v) -> true);
+    }
+
+    public IdBasedUsageRestriction(ToIntFunction<TYPE> idFunction, Predicate<TYPE> valueValidator)
+    {
+        super(valueValidator);
+
+        this.idFunction = idFunction;
+        this.snapshot = this.createSnapshot();
+    }
+
+    @Override
+    public void setListType(ListType type)
+    {
+        super.setListType(type);
+        this.updateSnapshot();
+    }
+
+    @Override
+    public void setListContents(BlackWhiteList<TYPE> list)
+    {
+        super.setListContents(list);
+        this.updateSnapshot();
+    }
+
+    @Override
+    public void setValuesBasedOnRegistry(ListType type, List<String> blackList, List<String> whiteList,
+                                         RegistryNamespaced<ResourceLocation, TYPE> registry, String errorTranslationKey)
+    {
+        super.setValuesBasedOnRegistry(type, blackList, whiteList, registry, errorTranslationKey);
+        this.updateSnapshot();
+    }
+
+    /**
+     * Re-builds the snapshot from the current list contents.
+     * This needs to be called if the list Sets are modified directly by an extending class.
+     */
+    protected void updateSnapshot()
+    {
+        this.snapshot = this.createSnapshot();
+    }
+
+    protected Snapshot<TYPE> createSnapshot()
+    {
+        return new Snapshot<>(this.type, this.blackList, this.whiteList, this.idFunction);
+    }
+
+    /**
+     * @return the current immutable snapshot of this restriction.
+     *         It can be stored and used for example from other threads,
+     *         but it won't reflect any later changes to this restriction.
+     */
+    public Snapshot<TYPE> getSnapshot()
+    {
+        return this.snapshot;
+    }
+
+    @Override
+    public boolean isAllowed(TYPE value)
+    {
+        return this.snapshot.isAllowed(value);
+    }
+
+    public static IdBasedUsageRestriction<Block> blocks()
+    {
+        return new IdBasedUsageRestriction<>(Block::getIdFromBlock);
+    }
+
+    /**
+     * Creates a restriction for block states, using the IDs from {@link Block#BLOCK_STATE_IDS}.
+     * States that are not in that map are checked from the snapshot's set of values without an ID.
+     * <br><br>
+     * <b>Note:</b> The state IDs are based on the block ID and the metadata value of the state.
+     * This means that states which only differ by properties that are not stored in the metadata
+     * (ie. the ones from {@link Block#getActualState}) share the same ID, and thus match each other.
+     * The states that are actually stored in the world always have distinct IDs.
+     */
+    public static IdBasedUsageRestriction<IBlockState> blockStates()
+    {
+        return new IdBasedUsageRestriction<>(Block.BLOCK_STATE_IDS::get);
+    }
+
+    /**
+     * Creates a restriction for items, using the IDs from {@link Item#getIdFromItem(Item)}.
+     * <br><br>
+     * <b>Note:</b> {@link Item#getIdFromItem(Item)} returns 0 (the air item ID) for a null item.
+     * The null values are already filtered out when the lists are set, so this only matters
+     * if isAllowed() gets called with null, which then gets the same result as air.
+     */
+    public static IdBasedUsageRestriction<Item> items()
+    {
+        return new IdBasedUsageRestriction<>(Item::getIdFromItem);
+    }
+
+    public static <TYPE> IdBasedUsageRestriction<TYPE> of(RegistryNamespaced<ResourceLocation, TYPE> registry)
+    {
+        return new IdBasedUsageRestriction<>(registry::getIDForObject);
+    }
+
+    public static class Snapshot<TYPE>
+    {
+        protected final ListType type;
+        protected final BitSet blackListIds;
+        protected final BitSet whiteListIds;
+        protected final ImmutableSet<TYPE> blackListNoId;
+        protected final ImmutableSet<TYPE> whiteListNoId;
+        protected final ToIntFunction<TYPE> idFunction;
+
+        protected Snapshot(ListType type, Set<TYPE> blackList, Set<TYPE> whiteList, ToIntFunction<TYPE> idFunction)
+        {
+            ImmutableSet.Builder<TYPE> blackListNoId = ImmutableSet.builder();
+            ImmutableSet.Builder<TYPE> whiteListNoId = ImmutableSet.builder();
+
+            this.type = type;
+            this.idFunction = idFunction;
+            this.blackListIds = createIdSet(blackList, blackListNoId, idFunction);
+            this.whiteListIds = createIdSet(whiteList, whiteListNoId, idFunction);
+            this.blackListNoId = blackListNoId.build();
+            this.whiteListNoId = whiteListNoId.build();
+        }
+
+        public ListType getListType()
+        {
+            return this.type;
+        }
+
+        public boolean isAllowed(TYPE value)
+        {
+            if (this.type == ListType.BLACKLIST)
+            {
+                return this.contains(value, this.blackListIds, this.blackListNoId) == false;
+            }
+            else if (this.type == ListType.WHITELIST)
+            {
+                return this.contains(value, this.whiteListIds, this.whiteListNoId);
+            }
+            else
+            {
+                return true;
+            }
+        }
+
+        protected boolean contains(TYPE value, BitSet ids, ImmutableSet<TYPE> valuesWithoutId)
+        {
+            int id = this.idFunction.applyAsInt(value);
+
+            if (id >= 0)
+            {
+                return ids.get(id);
+            }
+
+            return valuesWithoutId.isEmpty() == false && valuesWithoutId.contains(value);
+        }
+
+        protected static <TYPE> BitSet createIdSet(Set<TYPE> values,
+                                                   ImmutableSet.Builder<TYPE> valuesWithoutId,
+                                                   ToIntFunction<TYPE> idFunction)
+        {
+            BitSet ids = new BitSet();
+
+            for (TYPE value : values)
+            {
+                int id = idFunction.applyAsInt(value);
+
+                if (id >= 0)
+                {
+                    ids.set(id);
+                }
+                else
+                {
+                    valuesWithoutId.add(value);
+                }
+            }
+
+            return ids;
+        }
+    }
+}